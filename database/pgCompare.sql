@@ -20,16 +20,35 @@ CREATE TABLE dc_result (
 	table_name text NULL,
 	status varchar NULL,
 	compare_start timestamptz NULL,
-	equal_cnt int4 NULL,
-	missing_source_cnt int4 NULL,
-	missing_target_cnt int4 NULL,
-	not_equal_cnt int4 NULL,
-	source_cnt int4 NULL,
-	target_cnt int4 NULL,
+	equal_cnt int8 NULL,
+	missing_source_cnt int8 NULL,
+	missing_target_cnt int8 NULL,
+	not_equal_cnt int8 NULL,
+	source_cnt int8 NULL,
+	target_cnt int8 NULL,
 	compare_end timestamptz NULL,
+	sample_rate numeric NULL,
+	drift_rate numeric NULL,
+	drift_lower numeric NULL,
+	drift_upper numeric NULL,
 	CONSTRAINT dc_result_pk PRIMARY KEY (cid)
 );
 
+-- DROP TABLE dc_result_column;
+
+CREATE TABLE dc_result_column (
+	cid int4 NOT NULL,
+	tid int8 NULL,
+	column_name text NOT NULL,
+	mismatch_cnt int8 NULL,
+	source_null_cnt int8 NULL,
+	target_null_cnt int8 NULL,
+	example_pk jsonb NULL,
+	example_source text NULL,
+	example_target text NULL,
+	CONSTRAINT dc_result_column_pk PRIMARY KEY (cid, column_name)
+);
+
 -- DROP TABLE dc_source;
 
 CREATE TABLE dc_source (
@@ -41,7 +60,9 @@ CREATE TABLE dc_source (
 	column_hash varchar(100) NULL,
 	compare_result bpchar(1) NULL,
 	thread_nbr int4 NULL
-);
+) PARTITION BY LIST (tid);
+
+CREATE TABLE dc_source_default PARTITION OF dc_source DEFAULT;
 
 -- DROP TABLE dc_table;
 
@@ -109,6 +130,8 @@ CREATE TABLE dc_table_map (
 	table_filter varchar(200) NULL,
 	schema_preserve_case bool DEFAULT false NULL,
 	table_preserve_case bool DEFAULT false NULL,
+	scan_parallel int4 NULL,
+	query_hint text NULL,
 	CONSTRAINT dc_table_map_pk PRIMARY KEY (tid, dest_type, schema_name, table_name)
 );
 
@@ -123,7 +146,9 @@ CREATE TABLE dc_target (
 	column_hash varchar(100) NULL,
 	compare_result bpchar(1) NULL,
 	thread_nbr int4 NULL
-);
+) PARTITION BY LIST (tid);
+
+CREATE TABLE dc_target_default PARTITION OF dc_target DEFAULT;
 
 
 --
@@ -131,6 +156,8 @@ CREATE TABLE dc_target (
 --
 
 CREATE INDEX dc_result_idx1 ON dc_result USING btree (table_name, compare_start);
+CREATE INDEX dc_source_idx1 ON dc_source USING btree (tid, pk_hash);
+CREATE INDEX dc_target_idx1 ON dc_target USING btree (tid, pk_hash);
 CREATE INDEX dc_table_history_idx1 ON dc_table_history USING btree (tid, start_dt);
 CREATE INDEX dc_table_idx1 ON dc_table USING btree (table_alias);
 CREATE INDEX dc_table_column_idx1 ON dc_table_column USING btree (column_alias, tid, column_id);
@@ -141,6 +168,7 @@ CREATE INDEX dc_table_column_idx1 ON dc_table_column USING btree (column_alias,
 ALTER TABLE dc_table_column ADD CONSTRAINT dc_table_column_fk FOREIGN KEY (tid) REFERENCES dc_table(tid) ON DELETE CASCADE;
 ALTER TABLE dc_table_column_map ADD CONSTRAINT dc_table_column_map_fk FOREIGN KEY (column_id) REFERENCES dc_table_column(column_id) ON DELETE CASCADE;
 ALTER TABLE dc_table_map ADD CONSTRAINT dc_table_map_fk FOREIGN KEY (tid) REFERENCES dc_table(tid) ON DELETE CASCADE;
+ALTER TABLE dc_result_column ADD CONSTRAINT dc_result_column_fk FOREIGN KEY (cid) REFERENCES dc_result(cid) ON DELETE CASCADE;
 
 --
 -- Data
@@ -170,8 +198,8 @@ WHERE pid = p_pid AND tid = p_tid
     RETURNING tid INTO v_new_tid;
 
 -- Duplicate dc_table_map
-INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case)
-SELECT v_new_tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case
+INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case, scan_parallel, query_hint)
+SELECT v_new_tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case, scan_parallel, query_hint
 FROM dc_table_map
 WHERE tid = p_tid;
 
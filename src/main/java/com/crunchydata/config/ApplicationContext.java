@@ -21,6 +21,8 @@ import java.sql.Connection;
 import static com.crunchydata.service.DatabaseConnectionService.getConnection;
 import static com.crunchydata.config.Settings.*;
 
+import com.crunchydata.core.jfr.FlightRecording;
+import com.crunchydata.core.progress.ProgressServer;
 import com.crunchydata.service.RepositoryInitializationService;
 import com.crunchydata.util.LoggingUtils;
 import com.crunchydata.util.ValidationUtils;
@@ -39,6 +41,7 @@ public class ApplicationContext {
     
     // Constants
     private static final String THREAD_NAME = "main";
+    private static final String ACTION_APPLY_FIXES = "apply-fixes";
     private static final String ACTION_CHECK = "check";
     private static final String ACTION_INIT = "init";
     private static final String CONN_TYPE_POSTGRES = "postgres";
@@ -91,7 +94,8 @@ public class ApplicationContext {
      */
     public void initialize() throws Exception {
         // Set check property based on action
-        Props.setProperty("isCheck", Boolean.toString(action.equals(ACTION_CHECK)));
+        Props.setProperty("isCheck", Boolean.toString(action.equals(ACTION_CHECK) || action.equals(ACTION_APPLY_FIXES)));
+        Props.setProperty("apply-fixes", Boolean.toString(action.equals(ACTION_APPLY_FIXES)));
 
         // Initialize logging
         LoggingUtils.initialize();
@@ -135,20 +139,38 @@ public class ApplicationContext {
             connectToSourceAndTarget();
         }
 
-        // Execute the requested action
-        switch (action) {
-            case "discover":
-                performDiscovery();
-                break;
-            case "check":
-            case "compare":
-                performCompare();
-                break;
-            case "copy-table":
-                performCopyTable();
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid action specified: " + action);
+        // Serve live progress while tables are compared
+        int progressPort = Integer.parseInt(Props.getProperty("progress-port"));
+        if (progressPort > 0) {
+            ProgressServer.start(Props.getProperty("progress-bind"), progressPort);
+        }
+
+        // Record pipeline events for profiling
+        String jfrFile = Props.getProperty("jfr", "");
+        if (!jfrFile.isEmpty()) {
+            FlightRecording.start(jfrFile);
+        }
+
+        try {
+            // Execute the requested action
+            switch (action) {
+                case "discover":
+                    performDiscovery();
+                    break;
+                case "apply-fixes":
+                case "check":
+                case "compare":
+                    performCompare();
+                    break;
+                case "copy-table":
+                    performCopyTable();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid action specified: " + action);
+            }
+        } finally {
+            FlightRecording.stop();
+            ProgressServer.stop();
         }
     }
 
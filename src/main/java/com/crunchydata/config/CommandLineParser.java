@@ -93,6 +93,7 @@ public class CommandLineParser {
             Props.setProperty("batch", batchParameter.toString());
             Props.setProperty("genReport", Boolean.toString(cmd.hasOption("report")));
             Props.setProperty("reportFileName", cmd.getOptionValue("report", ""));
+            Props.setProperty("jfr", cmd.getOptionValue("jfr", ""));
 
             return cmd;
         } catch (ParseException e) {
@@ -114,6 +115,7 @@ public class CommandLineParser {
         options.addOption(new Option("b", "batch", true, "Batch Number"));
         options.addOption(new Option("h", "help", false, "Usage and help"));
         options.addOption(new Option("f", "fix", false, "Generate SQL to fix out of sync issue (experimental, use with caution)"));
+        options.addOption(new Option(null, "jfr", true, "Record a Java Flight Recorder file"));
         options.addOption(new Option("p", "project", true, "Project ID"));
         options.addOption(new Option("r", "report", true, "Generate report"));
         options.addOption(new Option("t", "table", true, "Limit to specified table"));
@@ -130,6 +132,7 @@ public class CommandLineParser {
         System.out.println("pgcompare <action> <options>");
         System.out.println();
         System.out.println("Actions:");
+        System.out.println("   apply-fixes   Recheck the out of sync rows and repair them on the target");
         System.out.println("   check         Recompare the out of sync rows from previous compare");
         System.out.println("   compare       Perform database compare");
         System.out.println("   copy-table    Copy pgCompare metadata for table.  Must specify table alias to copy using --table option");
@@ -137,6 +140,7 @@ public class CommandLineParser {
         System.out.println("   init          Initialize the repository database");
         System.out.println("Options:");
         System.out.println("   -b|--batch <batch nbr>");
+        System.out.println("   --jfr <file> Record pipeline events to a Java Flight Recorder file");
         System.out.println("   -p|--project Project ID");
         System.out.println("   -r|--report <file> Create html report of compare");
         System.out.println("   -t|--table <target table>");
@@ -107,21 +107,45 @@ public class Settings {
         // System Settings
         //defaultProps.setProperty("project", "1");
         defaultProps.setProperty("config-file", paramFile);
+        defaultProps.setProperty("apply-rate-limit","0");
+        defaultProps.setProperty("apply-threads","4");
+        defaultProps.setProperty("apply-transaction-size","1000");
         defaultProps.setProperty("batch-fetch-size","2000");
         defaultProps.setProperty("batch-commit-size","2000");
         defaultProps.setProperty("batch-progress-report-size","1000000");
         defaultProps.setProperty("column-hash-method","database");
+        defaultProps.setProperty("compact-key","false");
+        defaultProps.setProperty("compare-mode","full");
         defaultProps.setProperty("database-sort","true");
+        defaultProps.setProperty("fix-batch-size","500");
+        defaultProps.setProperty("fix-directory",".");
+        defaultProps.setProperty("fix-file-max-mb","0");
+        defaultProps.setProperty("fix-statement-rows","100");
         defaultProps.setProperty("float-scale","3");
         defaultProps.setProperty("loader-threads","0");
+        defaultProps.setProperty("loader-threads-min","1");
         defaultProps.setProperty("log-destination","stdout");
+        defaultProps.setProperty("log-format","text");
         defaultProps.setProperty("log-level","INFO");
+        defaultProps.setProperty("log-queue-size","8192");
+        defaultProps.setProperty("match-strategy","incremental");
+        defaultProps.setProperty("message-queue-mb","256");
         defaultProps.setProperty("message-queue-size","1000");
         defaultProps.setProperty("number-cast","notation");
         defaultProps.setProperty("observer-throttle","true");
         defaultProps.setProperty("observer-throttle-size","2000000");
         defaultProps.setProperty("observer-vacuum","true");
+        defaultProps.setProperty("oracle-lob-prefetch-size","32768");
+        defaultProps.setProperty("postgres-copy-fetch","true");
+        defaultProps.setProperty("progress-bind","127.0.0.1");
+        defaultProps.setProperty("progress-port","0");
+        defaultProps.setProperty("result-flush-interval","1000");
+        defaultProps.setProperty("sample-rate","10");
+        defaultProps.setProperty("scan-parallel","0");
+        defaultProps.setProperty("spill-directory", System.getProperty("java.io.tmpdir"));
+        defaultProps.setProperty("spill-partitions","0");
         defaultProps.setProperty("stage-table-parallel","0");
+        defaultProps.setProperty("table-prefetch","2");
         defaultProps.setProperty("standard-number-format","0000000000000000000000.0000000000000000000000");
 
 
@@ -40,6 +40,25 @@ public interface DB2SQLConstants {
             ORDER BY c.TABSCHEMA, c.TABNAME, c.COLNAME
            """;
 
+    String SQL_DB2_SELECT_SCHEMA_COLUMNS = """
+            SELECT trim(c.TABSCHEMA) AS owner,
+                   c.TABNAME AS table_name,
+                   c.COLNAME AS column_name,
+                   LOWER(c.TYPENAME) AS data_type,
+                   c.LENGTH AS data_length,
+                   COALESCE(c.length, 44) AS data_precision,
+                   COALESCE(c.SCALE, 22) AS data_scale,
+                   c.NULLS AS nullable,
+                   CASE WHEN pkc.COLNAME IS NULL THEN 'N' ELSE 'Y' END AS pk
+            FROM SYSCAT.COLUMNS c
+                 LEFT JOIN (SELECT k.TABSCHEMA, k.TABNAME, k.COLNAME
+                            FROM SYSCAT.KEYCOLUSE k
+                                 JOIN SYSCAT.TABCONST tc ON (k.CONSTNAME = tc.CONSTNAME AND tc.TYPE = 'P')
+                           ) pkc ON (c.TABSCHEMA = pkc.TABSCHEMA AND c.TABNAME = pkc.TABNAME AND c.COLNAME = pkc.COLNAME)
+            WHERE LOWER(c.TABSCHEMA) = LOWER(?)
+            ORDER BY c.TABSCHEMA, c.TABNAME, c.COLNAME
+           """;
+
     String SQL_DB2_SELECT_TABLES = """
                 SELECT trim(TABSCHEMA) AS owner, TABNAME AS table_name
                 FROM SYSCAT.TABLES
@@ -36,6 +36,21 @@ public interface PostgresSQLConstants {
                 ORDER BY n.nspname, t.relname, c.attname
                 """;
 
+    String SQL_POSTGRES_SELECT_SCHEMA_COLUMNS = """
+                SELECT DISTINCT n.nspname as owner, t.relname table_name, c.attname column_name,
+                        col.udt_name data_type, coalesce(col.character_maximum_length,col.numeric_precision) data_length,
+                                coalesce(col.numeric_precision,44) data_precision, coalesce(col.numeric_scale,22) data_scale,
+                        CASE WHEN c.attnotnull THEN 'Y' ELSE 'N' END nullable,
+                        CASE WHEN i.indisprimary THEN 'Y' ELSE 'N' END pk
+                FROM pg_class t
+                     JOIN pg_attribute c ON (t.oid=c.attrelid)
+                     JOIN pg_namespace n ON (t.relnamespace=n.oid)
+                     JOIN information_schema.columns col ON (col.table_schema=n.nspname AND col.table_name=t.relname AND col.column_name=c.attname)
+                     LEFT OUTER JOIN pg_index i ON (i.indrelid=c.attrelid AND c.attnum = any(i.indkey) AND i.indisprimary)
+                WHERE lower(n.nspname)=lower(?)
+                ORDER BY n.nspname, t.relname, c.attname
+                """;
+
     String SQL_POSTGRES_SELECT_TABLES = """
                 SELECT table_schema as owner, table_name
                 FROM  information_schema.tables
@@ -46,13 +46,17 @@ public interface RepoSQLConstants {
                 table_name text NULL,
                 status varchar NULL,
                 compare_start timestamptz NULL,
-                equal_cnt int4 NULL,
-                missing_source_cnt int4 NULL,
-                missing_target_cnt int4 NULL,
-                not_equal_cnt int4 NULL,
-                source_cnt int4 NULL,
-                target_cnt int4 NULL,
+                equal_cnt int8 NULL,
+                missing_source_cnt int8 NULL,
+                missing_target_cnt int8 NULL,
+                not_equal_cnt int8 NULL,
+                source_cnt int8 NULL,
+                target_cnt int8 NULL,
                 compare_end timestamptz NULL,
+                sample_rate numeric NULL,
+                drift_rate numeric NULL,
+                drift_lower numeric NULL,
+                drift_upper numeric NULL,
                 CONSTRAINT dc_result_pk PRIMARY KEY (cid)
             )
             """;
@@ -61,6 +65,26 @@ public interface RepoSQLConstants {
             CREATE INDEX dc_result_idx1 ON dc_result USING btree (table_name, compare_start)
             """;
 
+    // DC_RESULT_COLUMN
+    String REPO_DDL_DC_RESULT_COLUMN = """
+            CREATE TABLE dc_result_column (
+                cid int4 NOT NULL,
+                tid int8 NULL,
+                column_name text NOT NULL,
+                mismatch_cnt int8 NULL,
+                source_null_cnt int8 NULL,
+                target_null_cnt int8 NULL,
+                example_pk jsonb NULL,
+                example_source text NULL,
+                example_target text NULL,
+                CONSTRAINT dc_result_column_pk PRIMARY KEY (cid, column_name)
+            )
+            """;
+
+    String REPO_DDL_DC_RESULT_COLUMN_FK = """
+            ALTER TABLE dc_result_column ADD CONSTRAINT dc_result_column_fk FOREIGN KEY (cid) REFERENCES dc_result(cid) ON DELETE CASCADE
+            """;
+
     // DC_SOURCE
     String REPO_DDL_DC_SOURCE = """
             CREATE TABLE dc_source (
@@ -72,7 +96,15 @@ public interface RepoSQLConstants {
                 column_hash varchar(100) NULL,
                 compare_result bpchar(1) NULL,
                 thread_nbr int4 NULL
-            )
+            ) PARTITION BY LIST (tid)
+            """;
+
+    String REPO_DDL_DC_SOURCE_DEFAULT = """
+            CREATE TABLE dc_source_default PARTITION OF dc_source DEFAULT
+            """;
+
+    String REPO_DDL_DC_SOURCE_IDX1 = """
+            CREATE INDEX dc_source_idx1 ON dc_source USING btree (tid, pk_hash)
             """;
 
     // DC_TABLE
@@ -166,6 +198,8 @@ public interface RepoSQLConstants {
             	table_filter varchar(200) NULL,
             	schema_preserve_case bool DEFAULT false NULL,
             	table_preserve_case bool DEFAULT false NULL,
+            	scan_parallel int4 NULL,
+            	query_hint text NULL,
             	CONSTRAINT dc_table_map_pk PRIMARY KEY (tid, dest_type, schema_name, table_name)
             )
             """;
@@ -185,7 +219,15 @@ public interface RepoSQLConstants {
             	column_hash varchar(100) NULL,
             	compare_result bpchar(1) NULL,
             	thread_nbr int4 NULL
-            )
+            ) PARTITION BY LIST (tid)
+            """;
+
+    String REPO_DDL_DC_TARGET_DEFAULT = """
+            CREATE TABLE dc_target_default PARTITION OF dc_target DEFAULT
+            """;
+
+    String REPO_DDL_DC_TARGET_IDX1 = """
+            CREATE INDEX dc_target_idx1 ON dc_target USING btree (tid, pk_hash)
             """;
 
     String REPO_DDL_STAGE_TABLE = """
@@ -223,8 +265,8 @@ public interface RepoSQLConstants {
                 RETURNING tid INTO v_new_tid;
             
             -- Duplicate dc_table_map
-            INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case)
-            SELECT v_new_tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case
+            INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case, scan_parallel, query_hint)
+            SELECT v_new_tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case, scan_parallel, query_hint
             FROM dc_table_map
             WHERE tid = p_tid;
             
@@ -276,28 +318,52 @@ public interface RepoSQLConstants {
                        AND ds.column_hash=dt.column_hash
                 """;
 
-    String SQL_REPO_DCSOURCE_MARKNOTEQUAL = """
-                                 UPDATE dc_source s SET compare_result = 'n'
-                                 WHERE s.tid=?
-                                       AND EXISTS (SELECT 1 FROM dc_target t WHERE t.tid=? AND s.pk_hash=t.pk_hash AND s.column_hash != t.column_hash)
-                                 """;
+    // Final pass match (format args: source pk expression, target pk expression).  Rows only
+    // present on one side of the join on pk_hash and column_hash become findings in one pass.
+    String SQL_REPO_STAGE_FINALMATCH = """
+                WITH j AS (SELECT s.tid s_tid, s.pk_hash s_pk_hash, s.column_hash s_column_hash, s.pk s_pk, s.compare_result s_compare_result,
+                                  t.tid t_tid, t.pk_hash t_pk_hash, t.column_hash t_column_hash, t.pk t_pk, t.compare_result t_compare_result
+                           FROM stagingsource s
+                                FULL OUTER JOIN stagingtarget t ON s.pk_hash = t.pk_hash AND s.column_hash = t.column_hash),
+                     ins_s AS (INSERT INTO dc_source (tid, thread_nbr, pk_hash, column_hash, pk, compare_result, batch_nbr, table_name)
+                               SELECT ?, ?, s_pk_hash, s_column_hash, %s, s_compare_result, ?, ? FROM j WHERE t_tid IS NULL
+                               RETURNING 1),
+                     ins_t AS (INSERT INTO dc_target (tid, thread_nbr, pk_hash, column_hash, pk, compare_result, batch_nbr, table_name)
+                               SELECT ?, ?, t_pk_hash, t_column_hash, %s, t_compare_result, ?, ? FROM j WHERE s_tid IS NULL
+                               RETURNING 1)
+                SELECT (SELECT count(1) FROM j WHERE s_tid IS NOT NULL AND t_tid IS NOT NULL) equal_cnt,
+                       (SELECT count(1) FROM ins_s) source_findings_cnt,
+                       (SELECT count(1) FROM ins_t) target_findings_cnt
+                """;
 
-    String SQL_REPO_DCSOURCE_MARKMISSING = """
-                                      UPDATE dc_target t SET compare_result = 'm'
-                                      WHERE t.tid=?
-                                            AND NOT EXISTS (SELECT 1 FROM dc_source s WHERE s.tid=? AND t.pk_hash=s.pk_hash)
-                                      """;
-
-    String SQL_REPO_DCTARGET_MARKMISSING = """
-                                      UPDATE dc_source s SET compare_result = 'm'
-                                      WHERE s.tid=?
-                                            AND NOT EXISTS (SELECT 1 FROM dc_target t WHERE t.tid=? AND s.pk_hash=t.pk_hash)
-                                      """;
-    String SQL_REPO_DCTARGET_MARKNOTEQUAL ="""
-                                UPDATE dc_target t SET compare_result = 'n'
-                                WHERE t.tid=?
-                                      AND EXISTS (SELECT 1 FROM dc_source s WHERE s.tid=? AND t.pk_hash=s.pk_hash AND t.column_hash != s.column_hash)
-                                """;
+    // Expands a compact key array column to keyed JSON (format arg: column), bound to the key names
+    String SQL_REPO_COMPACTKEY_EXPAND = "(SELECT jsonb_object_agg(k.name, %s->(k.ord::int - 1)) FROM unnest(?::text[]) WITH ORDINALITY k(name, ord))";
+
+    String SQL_REPO_FINDINGS_CLASSIFY = """
+                WITH cls AS (SELECT coalesce(s.pk_hash, t.pk_hash) pk_hash,
+                                    CASE WHEN s.pk_hash IS NULL THEN 'ms'
+                                         WHEN t.pk_hash IS NULL THEN 'mt'
+                                         ELSE 'n' END result_type
+                             FROM (SELECT pk_hash, column_hash FROM dc_source WHERE tid=?) s
+                                  FULL OUTER JOIN (SELECT pk_hash, column_hash FROM dc_target WHERE tid=?) t ON s.pk_hash = t.pk_hash
+                             WHERE s.pk_hash IS NULL
+                                   OR t.pk_hash IS NULL
+                                   OR s.column_hash != t.column_hash),
+                     us AS (UPDATE dc_source s SET compare_result = CASE WHEN c.result_type = 'mt' THEN 'm' ELSE 'n' END
+                            FROM cls c
+                            WHERE s.tid=?
+                                  AND s.pk_hash = c.pk_hash
+                                  AND c.result_type IN ('mt','n')),
+                     ut AS (UPDATE dc_target t SET compare_result = CASE WHEN c.result_type = 'ms' THEN 'm' ELSE 'n' END
+                            FROM cls c
+                            WHERE t.tid=?
+                                  AND t.pk_hash = c.pk_hash
+                                  AND c.result_type IN ('ms','n'))
+                SELECT count(1) FILTER (WHERE result_type = 'ms') missing_source_cnt,
+                       count(1) FILTER (WHERE result_type = 'mt') missing_target_cnt,
+                       count(1) FILTER (WHERE result_type = 'n') not_equal_cnt
+                FROM cls
+                """;
 
     String SQL_REPO_SELECT_OUTOFSYNC_ROWS = """
                         SELECT DISTINCT tid, pk_hash, pk
@@ -320,11 +386,13 @@ public interface RepoSQLConstants {
     // Repository SQL - DC_RESULT
     //
     String SQL_REPO_DCRESULT_INSERT = "INSERT INTO dc_result (compare_start, tid, table_name, equal_cnt, missing_source_cnt, missing_target_cnt, not_equal_cnt, source_cnt, target_cnt, status, rid) values (current_timestamp, ?, ?, 0, 0, 0, 0, 0, 0, 'running', ?) returning cid";
-    String SQL_REPO_DCRESULT_UPDATECNT = """
-                                 UPDATE dc_result SET equal_cnt=equal_cnt+?
-                                 WHERE cid=?
+    String SQL_REPO_DCRESULT_SELECT_LASTCOUNT = """
+                                 SELECT greatest(source_cnt, target_cnt) row_cnt
+                                 FROM dc_result
+                                 WHERE tid=? AND status != 'running' AND status != 'skipped'
+                                 ORDER BY compare_start DESC
+                                 LIMIT 1
                                  """;
-
     String SQL_REPO_DCRESULT_UPDATE_ALLCOUNTS = """
                                  UPDATE dc_result SET equal_cnt=equal_cnt+?, source_cnt=source_cnt+?, target_cnt=target_cnt+?
                                  WHERE cid=?
@@ -336,6 +404,19 @@ public interface RepoSQLConstants {
                                  RETURNING equal_cnt, missing_source_cnt, missing_target_cnt, not_equal_cnt, status
                                  """;
 
+    String SQL_REPO_DCRESULT_UPDATE_SAMPLE = """
+                                 UPDATE dc_result SET sample_rate=?, drift_rate=?, drift_lower=?, drift_upper=?
+                                 WHERE cid=?
+                                 """;
+
+    String SQL_REPO_DCRESULTCOLUMN_INSERT = """
+                                 INSERT INTO dc_result_column (cid, tid, column_name, mismatch_cnt, source_null_cnt, target_null_cnt, example_pk, example_source, example_target)
+                                 VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?)
+                                 ON CONFLICT (cid, column_name) DO UPDATE SET mismatch_cnt=EXCLUDED.mismatch_cnt, source_null_cnt=EXCLUDED.source_null_cnt,
+                                        target_null_cnt=EXCLUDED.target_null_cnt, example_pk=EXCLUDED.example_pk,
+                                        example_source=EXCLUDED.example_source, example_target=EXCLUDED.example_target
+                                 """;
+
     String SQL_REPO_DCRESULT_CLEAN = """
             DELETE FROM dc_result WHERE tid NOT IN (SELECT tid FROM dc_table)
             """;
@@ -357,10 +438,41 @@ public interface RepoSQLConstants {
                 INSERT INTO dc_source (tid, thread_nbr, pk_hash, column_hash, pk, compare_result, batch_nbr, table_name) (SELECT ? tid, ? thread_nbr, pk_hash, column_hash, pk, compare_result, ? batch_nbr, ? table_alias FROM stagingtable)
                 """;
 
+    String SQL_REPO_DCSOURCE_INSERT_COMPACTKEY = """
+                INSERT INTO dc_source (tid, thread_nbr, pk_hash, column_hash, pk, compare_result, batch_nbr, table_name)
+                (SELECT ? tid, ? thread_nbr, s.pk_hash, s.column_hash,
+                        (SELECT jsonb_object_agg(k.name, s.pk->(k.ord::int - 1)) FROM unnest(?::text[]) WITH ORDINALITY k(name, ord)) pk,
+                        s.compare_result, ? batch_nbr, ? table_alias
+                 FROM stagingtable s)
+                """;
+
     String SQL_REPO_DCSOURCE_CLEAN = """
             DELETE FROM dc_source WHERE tid NOT IN (SELECT tid FROM dc_table)
             """;
 
+    //
+    // Repository SQL - DC_SOURCE/DC_TARGET Partitions (format args: location, tid)
+    //
+    String SQL_REPO_FINDINGS_PARTITION_EXISTS = "SELECT count(1) FROM pg_class WHERE oid = to_regclass('dc_%s_p%s')";
+
+    String SQL_REPO_FINDINGS_PARTITIONED = "SELECT count(1) FROM pg_partitioned_table WHERE partrelid = to_regclass('dc_%s')";
+
+    String SQL_REPO_FINDINGS_PARTITION_DEFAULTROWS = "SELECT count(1) FROM dc_%s_default WHERE tid=%s";
+
+    String SQL_REPO_FINDINGS_PARTITION_HOLDDEFAULT = "CREATE TEMPORARY TABLE dc_%1$s_hold ON COMMIT DROP AS SELECT * FROM dc_%1$s_default WHERE tid=%2$s";
+
+    String SQL_REPO_FINDINGS_PARTITION_DELETEDEFAULT = "DELETE FROM dc_%s_default WHERE tid=%s";
+
+    String SQL_REPO_FINDINGS_PARTITION_RESTOREDEFAULT = "INSERT INTO dc_%1$s SELECT * FROM dc_%1$s_hold";
+
+    String SQL_REPO_FINDINGS_PARTITION_CREATE = "CREATE TABLE IF NOT EXISTS dc_%1$s_p%2$s PARTITION OF dc_%1$s FOR VALUES IN (%2$s)";
+
+    String SQL_REPO_FINDINGS_PARTITION_OTHERBATCH = "SELECT count(1) FROM (SELECT 1 FROM dc_%s_p%s WHERE batch_nbr != ? LIMIT 1) ob";
+
+    String SQL_REPO_FINDINGS_PARTITION_TRUNCATE = "TRUNCATE TABLE dc_%s_p%s";
+
+    String SQL_REPO_FINDINGS_COPY = "COPY dc_%s (tid, thread_nbr, pk_hash, column_hash, pk, batch_nbr, table_name) FROM STDIN (FORMAT csv)";
+
     //
     // Staging Table
     //
@@ -381,20 +493,6 @@ public interface RepoSQLConstants {
     //
     // Repository SQL - DC_TABLE
     //
-    String SQL_REPO_DCTABLE_DELETEBYPROJECT = "DELETE FROM dc_table WHERE pid=?";
-
-    String SQL_REPO_DCTABLE_DELETEBYPROJECTTABLE = "DELETE FROM dc_table WHERE pid=? AND table_alias=?";
-
-    String SQL_REPO_DCTABLE_DELETEBYTID = "DELETE FROM dc_table WHERE tid=?";
-
-    String SQL_REPO_DCTABLE_INCOMPLETEMAP = """
-                SELECT t.tid, t.table_alias, count(1) cnt
-                FROM dc_table t
-                     LEFT OUTER JOIN dc_table_map m ON (t.tid = m.tid)
-                WHERE t.pid = ?
-                GROUP BY t.tid
-                HAVING count(1) < 2
-                """;
     String SQL_REPO_DCTABLE_INSERT = "INSERT INTO dc_table (pid, table_alias, batch_nbr, enabled) VALUES (?, lower(?), 1, true) RETURNING tid";
 
     String SQL_REPO_DCTABLE_SELECTBYPID = """
@@ -407,12 +505,100 @@ public interface RepoSQLConstants {
 
     String SQL_REPO_DC_COPY_TABLE = "SELECT dc_copy_table(?, ?, ?)";
 
+    //
+    // Repository SQL - Table Discovery
+    //
+    String REPO_DDL_DISCOVER_STAGE = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS dc_discover_stage (
+                dest_type varchar(20) NOT NULL,
+                schema_name text NOT NULL,
+                table_name text NOT NULL,
+                table_alias text NOT NULL,
+                schema_preserve_case bool NOT NULL,
+                table_preserve_case bool NOT NULL
+            )
+            """;
+
+    String SQL_REPO_DISCOVER_STAGE_TRUNCATE = "TRUNCATE TABLE dc_discover_stage";
+
+    String SQL_REPO_DISCOVER_STAGE_COPY = """
+            COPY dc_discover_stage (dest_type, schema_name, table_name, table_alias, schema_preserve_case, table_preserve_case)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    String SQL_REPO_DISCOVER_REMOVEMAP = """
+            DELETE FROM dc_table_map m
+            USING dc_table t
+            WHERE m.tid = t.tid
+                  AND t.pid = ?
+                  AND m.dest_type = ?
+                  AND (? = '' OR t.table_alias = lower(?))
+                  AND NOT EXISTS (SELECT 1 FROM dc_discover_stage s WHERE s.dest_type = m.dest_type AND s.table_alias = t.table_alias)
+            """;
+
+    String SQL_REPO_DISCOVER_CHANGEMAP = """
+            UPDATE dc_table_map m
+            SET schema_name = s.schema_name,
+                table_name = s.table_name,
+                schema_preserve_case = s.schema_preserve_case,
+                table_preserve_case = s.table_preserve_case
+            FROM dc_discover_stage s
+                 JOIN dc_table t ON (t.table_alias = s.table_alias AND t.pid = ?)
+            WHERE m.tid = t.tid
+                  AND m.dest_type = s.dest_type
+                  AND (m.schema_name, m.table_name, m.schema_preserve_case, m.table_preserve_case)
+                      IS DISTINCT FROM (s.schema_name, s.table_name, s.schema_preserve_case, s.table_preserve_case)
+            RETURNING m.tid, t.table_alias
+            """;
+
+    String SQL_REPO_DISCOVER_ADDTABLE = """
+            INSERT INTO dc_table (pid, table_alias, batch_nbr, enabled)
+            SELECT DISTINCT ?::int8, s.table_alias, 1, true
+            FROM dc_discover_stage s
+            WHERE s.dest_type = 'target'
+                  AND NOT EXISTS (SELECT 1 FROM dc_table t WHERE t.pid = ? AND t.table_alias = s.table_alias)
+            RETURNING tid, table_alias
+            """;
+
+    String SQL_REPO_DISCOVER_ADDMAP = """
+            INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, schema_preserve_case, table_preserve_case)
+            SELECT t.tid, s.dest_type, s.schema_name, s.table_name, s.schema_preserve_case, s.table_preserve_case
+            FROM dc_discover_stage s
+                 JOIN dc_table t ON (t.table_alias = s.table_alias AND t.pid = ?)
+            WHERE NOT EXISTS (SELECT 1 FROM dc_table_map m WHERE m.tid = t.tid AND m.dest_type = s.dest_type)
+            ON CONFLICT (tid, dest_type, schema_name, table_name) DO NOTHING
+            """;
+
+    String SQL_REPO_DISCOVER_SOURCEONLY = """
+            SELECT s.table_alias
+            FROM dc_discover_stage s
+            WHERE s.dest_type = 'source'
+                  AND NOT EXISTS (SELECT 1 FROM dc_table t WHERE t.pid = ? AND t.table_alias = s.table_alias)
+            """;
+
+    String SQL_REPO_DCTABLE_DELETEINCOMPLETE = """
+            DELETE FROM dc_table t
+            WHERE t.pid = ?
+                  AND (SELECT count(1) FROM dc_table_map m WHERE m.tid = t.tid) < 2
+            RETURNING t.tid, t.table_alias
+            """;
+
     //
     // Repository SQL - DC_TABLE_COLUMN
     //
 
     String SQL_REPO_DCTABLECOLUMN_INSERT = "INSERT INTO dc_table_column (tid, column_alias) VALUES (?, ?) RETURNING column_id";
 
+    String SQL_REPO_DCTABLECOLUMN_INSERTBATCH = """
+            INSERT INTO dc_table_column (tid, column_alias)
+            SELECT x.tid, x.column_alias
+            FROM unnest(?::int8[], ?::text[]) WITH ORDINALITY AS x(tid, column_alias, ord)
+            WHERE NOT EXISTS (SELECT 1 FROM dc_table_column c WHERE c.tid = x.tid AND c.column_alias = x.column_alias)
+            ORDER BY x.ord
+            """;
+
+    String SQL_REPO_DCTABLECOLUMN_SELECTBYTIDS = "SELECT tid, column_id, column_alias FROM dc_table_column WHERE tid = ANY(?::int8[])";
+
     String SQL_REPO_DCTABLECOLUMN_SELECTBYTIDALIAS = "SELECT column_id FROM dc_table_column WHERE tid=? AND column_alias=lower(?)";
 
     String SQL_REPO_DCTABLECOLUMN_DELETEBYPID = "DELETE FROM dc_table_column WHERE tid IN (SELECT tid FROM dc_table WHERE pid=?)";
@@ -420,76 +606,62 @@ public interface RepoSQLConstants {
     String SQL_REPO_DCTABLECOLUMN_DELETEBYPIDTABLE = "DELETE FROM dc_table_column WHERE tid IN (SELECT tid FROM dc_table WHERE pid=? AND table_alias=?)";
 
     //
-    // Repository SQL - DC_TABLE_COLUMN_MAP
+    // Repository SQL - Project Metadata Cache
     //
-    String SQL_REPO_DCTABLECOLUMNMAP_FULLBYTID = """
-            WITH column_map AS (
-            	    SELECT
-            	        tcm.tid,
-            	        tcm.column_id,
-            	        tcm.column_origin,
-            	        jsonb_build_object(
-            	            'columnName', tcm.column_name,
-            	            'dataType', tcm.data_type,
-            	            'dataClass', tcm.data_class,
-            	            'dataLength', tcm.data_length,
-            	            'numberPrecision', tcm.number_precision,
-            	            'numberScale', tcm.number_scale,
-            	            'nullable', tcm.column_nullable,
-            	            'primaryKey', tcm.column_primarykey,
-            	            'valueExpression', tcm.map_expression,
-            	            'supported', tcm.supported,
-            	            'preserveCase', tcm.preserve_case,
-            	            'mapType', tcm.map_type
-            	        ) AS columnInfo
-            	    FROM dc_table_column_map tcm
-            	),
-            	tcmt AS (
-            	    SELECT tid, column_id, columnInfo
-            	    FROM column_map
-            	    WHERE column_origin = 'target'
-            	),
-            	tcms AS (
-            	    SELECT tid, column_id, columnInfo
-            	    FROM column_map
-            	    WHERE column_origin = 'source'
-            	)
-            SELECT
-                jsonb_build_object(
-                    'tid', t.tid,
-                    'tableAlias', t.table_alias,
-                    'columns', jsonb_agg(
-                        jsonb_build_object(
-                            'columnID', tc.column_id,
-                            'columnAlias', tc.column_alias,
-                            'enabled', tc.enabled,
-                            'source', tcms.columnInfo,
-                            'target', tcmt.columnInfo
-                        )
-                    )
-                )
-            FROM
-                dc_table t
-                JOIN dc_table_column tc ON t.tid = tc.tid
-                JOIN tcmt ON tc.tid = tcmt.tid AND tc.column_id = tcmt.column_id
-                JOIN tcms ON tc.tid = tcms.tid AND tc.column_id = tcms.column_id
-            WHERE
-                t.tid = ?
-            group by t.tid, t.table_alias
-            """;
-
-    String SQL_REPO_DCTABLECOLUMNMAP_BYORIGINALIAS = """
-            SELECT c.tid, c.column_id, m.column_name, m.preserve_case
+    String SQL_REPO_CACHE_DCTABLE_BYPID = """
+            SELECT pid, tid, table_alias, enabled, batch_nbr, parallel_degree
+            FROM dc_table
+            WHERE pid = ?
+            """;
+
+    String SQL_REPO_CACHE_DCTABLEMAP_BYPID = """
+            SELECT m.tid, m.dest_type, m.schema_name, m.table_name, m.mod_column, m.table_filter,
+                   m.schema_preserve_case, m.table_preserve_case, m.scan_parallel, m.query_hint
+            FROM dc_table_map m
+                 JOIN dc_table t ON (t.tid = m.tid)
+            WHERE t.pid = ?
+            """;
+
+    String SQL_REPO_CACHE_DCTABLECOLUMN_BYPID = """
+            SELECT c.tid, c.column_id, c.column_alias, c.enabled
             FROM dc_table_column c
-                 JOIN dc_table_column_map m ON (c.tid = m.tid AND c.column_id = m.column_id)
-            WHERE c.tid = ?
-                  AND c.column_alias = ?
-                  AND m.column_origin = ?;
+                 JOIN dc_table t ON (t.tid = c.tid)
+            WHERE t.pid = ?
+            ORDER BY c.tid, c.column_id
             """;
 
+    String SQL_REPO_CACHE_DCTABLECOLUMNMAP_BYPID = """
+            SELECT m.tid, m.column_id, m.column_origin, m.column_name, m.data_type, m.data_class,
+                   m.data_length, m.number_precision, m.number_scale, m.column_nullable,
+                   m.column_primarykey, m.map_expression, m.supported, m.preserve_case, m.map_type
+            FROM dc_table_column_map m
+                 JOIN dc_table t ON (t.tid = m.tid)
+            WHERE t.pid = ?
+            """;
 
+    //
+    // Repository SQL - DC_TABLE_COLUMN_MAP
+    //
     String SQL_REPO_DCTABLECOLUMNMAP_INSERT = "INSERT INTO dc_table_column_map (tid, column_id, column_origin, column_name, data_type, data_class, data_length, number_precision, number_scale, column_nullable, column_primarykey, map_expression, supported, preserve_case) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
+    String SQL_REPO_DCTABLECOLUMNMAP_UPSERTBATCH = """
+            INSERT INTO dc_table_column_map (tid, column_id, column_origin, column_name, data_type, data_class, data_length,
+                                             number_precision, number_scale, column_nullable, column_primarykey, supported, preserve_case)
+            SELECT *
+            FROM unnest(?::int8[], ?::int8[], ?::varchar[], ?::text[], ?::text[], ?::varchar[], ?::int4[],
+                        ?::int4[], ?::int4[], ?::bool[], ?::bool[], ?::bool[], ?::bool[])
+            ON CONFLICT (column_id, column_origin, column_name) DO UPDATE
+               SET data_type = EXCLUDED.data_type,
+                   data_class = EXCLUDED.data_class,
+                   data_length = EXCLUDED.data_length,
+                   number_precision = EXCLUDED.number_precision,
+                   number_scale = EXCLUDED.number_scale,
+                   column_nullable = EXCLUDED.column_nullable,
+                   column_primarykey = EXCLUDED.column_primarykey,
+                   supported = EXCLUDED.supported,
+                   preserve_case = EXCLUDED.preserve_case
+            """;
+
     //
     // Repository SQL - DC_TABLE_HISTORY
     //
@@ -500,7 +672,7 @@ public interface RepoSQLConstants {
     //
     // Repository SQL - DC_TABLE_MAP
     //
-    String SQL_REPO_DCTABLEMAP_SELECTBYTIDORIGIN = "SELECT tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case FROM dc_table_map WHERE tid=? and dest_type=?";
+    String SQL_REPO_DCTABLEMAP_SELECTBYTIDORIGIN = "SELECT tid, dest_type, schema_name, table_name, mod_column, table_filter, schema_preserve_case, table_preserve_case, scan_parallel, query_hint FROM dc_table_map WHERE tid=? and dest_type=?";
     String SQL_REPO_DCTABLEMAP_INSERT = "INSERT INTO dc_table_map (tid, dest_type, schema_name, table_name, schema_preserve_case, table_preserve_case) VALUES (?, ?, ?, ?, ?, ?)";
 
     String SQL_REPO_DCTABLEMAP_SELECTBYPIDORIGIN = """
@@ -32,6 +32,17 @@ public interface SnowflakeSQLConstants {
                 ORDER BY c.table_schema, c.table_name
                 """;
 
+    String SQL_SNOWFLAKE_SELECT_SCHEMA_COLUMNS = """
+                SELECT DISTINCT c.table_schema as "owner", c.table_name as "table_name", c.column_name as "column_name",
+                        c.data_type as "data_type", coalesce(c.character_maximum_length, c.numeric_precision) as "data_length",
+                        coalesce(c.numeric_precision, 44) as "data_precision", coalesce(c.numeric_scale, 22) as "data_scale",
+                        case when c.is_nullable = 'YES' then 'Y' else 'N' end as "nullable",
+                        'N' as "pk"
+                FROM information_schema.columns c
+                WHERE lower(c.table_schema) = lower(?)
+                ORDER BY c.table_schema, c.table_name
+                """;
+
     String SQL_SNOWFLAKE_SELECT_TABLES = """
                 SELECT table_schema as "owner", table_name as "table_name"
                 FROM information_schema.tables
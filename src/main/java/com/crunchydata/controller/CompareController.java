@@ -18,11 +18,15 @@ package com.crunchydata.controller;
 
 import com.crunchydata.config.ApplicationContext;
 import com.crunchydata.core.comparison.ResultProcessor;
+import com.crunchydata.core.database.ProjectMetadataCache;
+import com.crunchydata.core.database.ResultCountWriter;
+import com.crunchydata.core.progress.ProgressTracker;
 import com.crunchydata.core.threading.DataValidationThread;
 import com.crunchydata.core.threading.ThreadManager;
 import com.crunchydata.model.ColumnMetadata;
 import com.crunchydata.model.DataComparisonTable;
 import com.crunchydata.model.DataComparisonTableMap;
+import com.crunchydata.model.PreparedTable;
 import com.crunchydata.core.database.SQLExecutionHelper;
 import com.crunchydata.util.LoggingUtils;
 
@@ -32,7 +36,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 
 import static com.crunchydata.config.Settings.Props;
-import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCTABLECOLUMNMAP_FULLBYTID;
+import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCRESULT_SELECT_LASTCOUNT;
 import static com.crunchydata.controller.ColumnController.getColumnInfo;
 import static com.crunchydata.controller.RepoController.createCompareId;
 import static com.crunchydata.service.SQLSyntaxService.buildGetTablesSQL;
@@ -68,8 +72,11 @@ public class CompareController {
             RepoController repoController = new RepoController();
             CachedRowSet tablesResultSet = getTables(context.getPid(), context.getConnRepo(), context.getBatchParameter(), tableFilter, isCheck);
 
+            // Load table and column mappings for the project once
+            ProjectMetadataCache metadataCache = ProjectMetadataCache.load(context.getConnRepo(), context.getPid());
+
             // Process tables and collect results
-            TableController.ComparisonResults results = TableController.reconcileTables(tablesResultSet, isCheck, repoController, context);
+            TableController.ComparisonResults results = TableController.reconcileTables(tablesResultSet, isCheck, repoController, context, metadataCache);
 
             // Close result set
             if (tablesResultSet != null) {
@@ -87,6 +94,52 @@ public class CompareController {
         }
     }
 
+    /**
+     * Resolve table maps, column mapping, column metadata and compare SQL for a table.
+     * This only reads the project metadata cache, so it can run ahead of the table's reconciliation.
+     *
+     * @param metadataCache Project metadata cache
+     * @param dct Table information
+     * @param check Whether to perform a check operation
+     * @return Prepared table metadata (column metadata is null when no column map exists)
+     */
+    public static PreparedTable prepareTable(ProjectMetadataCache metadataCache, DataComparisonTable dct, boolean check) {
+        DataComparisonTableMap dctmSource = metadataCache.getTableMap(dct.getTid(), "source");
+        DataComparisonTableMap dctmTarget = metadataCache.getTableMap(dct.getTid(), "target");
+
+        for (DataComparisonTableMap dctm : new DataComparisonTableMap[]{dctmSource, dctmTarget}) {
+            dctm.setBatchNbr(dct.getBatchNbr());
+            dctm.setPid(dct.getPid());
+            dctm.setTableAlias(dct.getTableAlias());
+        }
+
+        // Get column mapping
+        JSONObject columnMap = metadataCache.getColumnMapping(dct.getTid());
+
+        PreparedTable prepared = new PreparedTable(dct, dctmSource, dctmTarget, columnMap == null ? null : columnMap.toString(), null, null);
+
+        if (columnMap == null) {
+            return prepared;
+        }
+
+        // Get column metadata
+        ColumnMetadata ciSource = getColumnInfo(columnMap, "source", Props.getProperty("source-type"),
+                dctmSource.getSchemaName(), dctmSource.getTableName(),
+                "database".equals(Props.getProperty("column-hash-method")));
+
+        ColumnMetadata ciTarget = getColumnInfo(columnMap, "target", Props.getProperty("target-type"),
+                dctmTarget.getSchemaName(), dctmTarget.getTableName(),
+                !check && "database".equals(Props.getProperty("column-hash-method")));
+
+        // Generate compare SQL
+        generateCompareSQL(dctmSource, dctmTarget, ciSource, ciTarget);
+
+        prepared.setSourceColumns(ciSource);
+        prepared.setTargetColumns(ciTarget);
+
+        return prepared;
+    }
+
     /**
      * Reconcile data between source and target databases.
      *
@@ -95,49 +148,36 @@ public class CompareController {
      * @param connTarget Target database connection
      * @param rid Reconciliation ID
      * @param check Whether to perform a check operation
-     * @param dct Table information
-     * @param dctmSource Source table map
-     * @param dctmTarget Target table map
+     * @param prepared Table information, table maps and column metadata from {@link #prepareTable}
+     * @param metadataCache Project metadata cache
      * @return JSON object with reconciliation results
      */
     public static JSONObject reconcileData(Connection connRepo, Connection connSource, Connection connTarget,
-                                           long rid, Boolean check, DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget) {
+                                           long rid, Boolean check, PreparedTable prepared, ProjectMetadataCache metadataCache) {
 
         long startTime = System.currentTimeMillis();
+        DataComparisonTable dct = prepared.getTable();
+        DataComparisonTableMap dctmSource = prepared.getSourceTableMap();
+        DataComparisonTableMap dctmTarget = prepared.getTargetTableMap();
         JSONObject result = initializeResult(dct);
 
         try {
-            // Get column mapping
-            ArrayList<Object> binds = new ArrayList<>();
-            binds.add(dct.getTid());
-            String columnMapping = SQLExecutionHelper.simpleSelectReturnString(connRepo, SQL_REPO_DCTABLECOLUMNMAP_FULLBYTID, binds);
-
             // Perform preflight checks
-            if (!performPreflightChecks(dct, dctmSource, dctmTarget, columnMapping)) {
+            if (!performPreflightChecks(dct, dctmSource, dctmTarget, prepared.getColumnMapping())) {
                 return createFailedResult(result);
             }
 
-            // Get column metadata
-            JSONObject columnMap = new JSONObject(columnMapping);
-            ColumnMetadata ciSource = getColumnInfo(columnMap, "source", Props.getProperty("source-type"),
-                    dctmSource.getSchemaName(), dctmSource.getTableName(),
-                    "database".equals(Props.getProperty("column-hash-method")));
-
-            ColumnMetadata ciTarget = getColumnInfo(columnMap, "target", Props.getProperty("target-type"),
-                    dctmTarget.getSchemaName(), dctmTarget.getTableName(),
-                    !check && "database".equals(Props.getProperty("column-hash-method")));
+            ColumnMetadata ciSource = prepared.getSourceColumns();
+            ColumnMetadata ciTarget = prepared.getTargetColumns();
 
             logColumnMetadata(ciSource, ciTarget);
 
             // Create compare ID
             Integer cid = createCompareId(connRepo, dctmTarget, rid);
 
-            // Generate compare SQL
-            generateCompareSQL(dctmSource, dctmTarget, ciSource, ciTarget);
-
             // Execute reconciliation
             if (check) {
-                performCheck(connRepo, connSource, connTarget, dct, dctmSource, dctmTarget, ciSource, ciTarget, cid, result);
+                performCheck(connRepo, connSource, connTarget, dct, dctmSource, dctmTarget, ciSource, ciTarget, cid, result, metadataCache);
             } else {
                 performReconciliation(connRepo, dct, cid, dctmSource, dctmTarget, ciSource, ciTarget, result);
             }
@@ -202,13 +242,15 @@ public class CompareController {
      * @param ciTarget Target column metadata
      * @param cid Compare ID
      * @param result Result object to update
+     * @param metadataCache Project metadata cache
      * @throws SQLException if database operations fail
      */
     private static void performCheck(Connection connRepo, Connection connSource, Connection connTarget,
                                        DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
-                                       ColumnMetadata ciSource, ColumnMetadata ciTarget, Integer cid, JSONObject result)
+                                       ColumnMetadata ciSource, ColumnMetadata ciTarget, Integer cid, JSONObject result,
+                                       ProjectMetadataCache metadataCache)
             throws SQLException {
-        JSONObject checkResult = DataValidationThread.checkRows(connRepo, connSource, connTarget, dct, dctmSource, dctmTarget, ciSource, ciTarget, cid);
+        JSONObject checkResult = DataValidationThread.checkRows(connRepo, connSource, connTarget, dct, dctmSource, dctmTarget, ciSource, ciTarget, cid, metadataCache);
         result.put("checkResult", checkResult);
     }
 
@@ -232,6 +274,12 @@ public class CompareController {
         if (hasNoPrimaryKeys(ciSource, ciTarget)) {
             skipReconciliation(connRepo, result, dctmTarget.getTableName(), cid);
         } else {
+            // Previous row count of the table, for the progress ETA
+            ArrayList<Object> binds = new ArrayList<>();
+            binds.add(dct.getTid());
+            String expectedRows = SQLExecutionHelper.simpleSelectReturnString(connRepo, SQL_REPO_DCRESULT_SELECT_LASTCOUNT, binds);
+            ProgressTracker.startTable(dct.getTableAlias(), cid, (expectedRows == null) ? 0 : Long.parseLong(expectedRows));
+
             try {
                 // Use ThreadManager for complex thread coordination
                 ThreadManager.executeReconciliation(dct, cid, dctmSource, dctmTarget, ciSource, ciTarget, connRepo);
@@ -239,6 +287,8 @@ public class CompareController {
                 LoggingUtils.write("severe", THREAD_NAME, String.format("Thread execution interrupted: %s", e.getMessage()));
                 Thread.currentThread().interrupt();
                 throw new SQLException("Thread execution interrupted", e);
+            } finally {
+                ProgressTracker.finishTable(dct.getTableAlias());
             }
         }
     }
@@ -320,11 +370,13 @@ public class CompareController {
      */
     private static void processResults(Connection connRepo, long tid, JSONObject result, Integer cid, long startTime)
             throws SQLException {
+        // Counts buffered by the compare threads must be written before they are summarized
+        ResultCountWriter.flush(connRepo, cid);
         ResultProcessor.summarizeResults(connRepo, tid, result, cid);
 
         long elapsedTime = (System.currentTimeMillis() - startTime) / 1000;
         result.put("elapsedTime", elapsedTime);
-        result.put("rowsPerSecond", (elapsedTime > 0) ? result.getInt("totalRows") / elapsedTime : result.getInt("totalRows"));
+        result.put("rowsPerSecond", (elapsedTime > 0) ? result.getLong("totalRows") / elapsedTime : result.getLong("totalRows"));
 
         logFinalResult(result, result.getString("tableName"));
     }
@@ -383,10 +435,10 @@ public class CompareController {
         LoggingUtils.write("info", THREAD_NAME, String.format(
                 "Reconciliation Complete: Table = %s; Status = %s; Equal = %s; Not Equal = %s; Missing Source = %s; Missing Target = %s",
                 tableAlias, result.getString("compareStatus"),
-                formatter.format(result.getInt("equal")),
-                formatter.format(result.getInt("notEqual")),
-                formatter.format(result.getInt("missingSource")),
-                formatter.format(result.getInt("missingTarget"))
+                formatter.format(result.getLong("equal")),
+                formatter.format(result.getLong("notEqual")),
+                formatter.format(result.getLong("missingSource")),
+                formatter.format(result.getLong("missingTarget"))
         ));
     }
 
@@ -19,7 +19,6 @@ import com.crunchydata.service.ColumnDiscoveryService;
 import com.crunchydata.core.database.SQLExecutionHelper;
 import com.crunchydata.util.LoggingUtils;
 
-import javax.sql.rowset.CachedRowSet;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -74,73 +73,32 @@ public class DiscoverController {
      * @param connTarget      Target database connection
      */
     public static void performTableDiscovery(Properties Props, Integer pid, String table, Connection connRepo, Connection connSource, Connection connTarget) {
-        ArrayList<Object> binds = new ArrayList<>();
-        binds.add(0,pid);
-
-        if (! table.isEmpty()) {
-            binds.add(1,table);
-        }
-
-        String sql = (table.isEmpty()) ? SQL_REPO_DCTABLE_DELETEBYPROJECT : SQL_REPO_DCTABLE_DELETEBYPROJECTTABLE;
-
-        // Clean previous Discovery
-        cleanupPreviousDiscovery(connRepo, sql, binds);
-
-        // Target Table Discovery
-        discoverTables(Props, pid, table, connRepo, connTarget, "target",true);
+        try {
+            // Reconcile catalogs with dc_table and dc_table_map
+            discoverTables(Props, pid, table, connRepo, connSource, connTarget);
 
-        // Source Table Discovery
-        discoverTables(Props, pid, table, connRepo, connSource, "source",false);
+            // Clean up findings of tables that no longer exist
+            cleanupOrphanedResults(connRepo);
 
-        // Clear Incomplete Map
-        clearIncompleteMappings(connRepo, pid);
+        } catch (SQLException e) {
+            LoggingUtils.write("severe", THREAD_NAME,
+                    String.format("Database error during table discovery for project %d: %s", pid, e.getMessage()));
+            throw new RuntimeException("Table discovery failed", e);
+        }
     }
 
     /**
-     * Clean up previous discovery data and orphaned tables.
+     * Clean up results and findings for tables removed from the repository.
      *
      * @param connRepo Repository connection
-     * @param sql SQL statement for cleanup
-     * @param binds Bind parameters
      */
-    private static void cleanupPreviousDiscovery(Connection connRepo, String sql, ArrayList<Object> binds) {
-        LoggingUtils.write("info", THREAD_NAME, "Clearing previous discovery");
-        SQLExecutionHelper.simpleUpdate(connRepo, sql, binds, true);
-
-        // Clean up orphaned tables
-        binds.clear();
+    private static void cleanupOrphanedResults(Connection connRepo) {
+        ArrayList<Object> binds = new ArrayList<>();
         SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCSOURCE_CLEAN, binds, true);
         SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTARGET_CLEAN, binds, true);
         SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCRESULT_CLEAN, binds, true);
         RepoController.vacuumRepo(connRepo);
     }
 
-    /**
-     * Clear incomplete table mappings.
-     *
-     * @param connRepo Repository connection
-     * @param pid Project ID
-     */
-    private static void clearIncompleteMappings(Connection connRepo, Integer pid) {
-        ArrayList<Object> binds = new ArrayList<>();
-        binds.addFirst(pid);
-        CachedRowSet crs = SQLExecutionHelper.simpleSelect(connRepo, SQL_REPO_DCTABLE_INCOMPLETEMAP, binds);
-
-        try {
-            while (crs.next()) {
-                binds.clear();
-                binds.addFirst(crs.getInt("tid"));
-
-                LoggingUtils.write("warning", THREAD_NAME, String.format("Skipping table %s due to incomplete mapping (missing source or target)", crs.getString("table_alias")));
-
-                SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTABLE_DELETEBYTID, binds, true);
-            }
-
-            crs.close();
-        } catch (Exception e) {
-            LoggingUtils.write("warning", THREAD_NAME, String.format("Error clearing incomplete map: %s", e.getMessage()));
-        }
-    }
-
 
 }
@@ -28,6 +28,7 @@ import javax.sql.rowset.CachedRowSet;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
 import static com.crunchydata.config.sql.RepoSQLConstants.*;
 
@@ -53,7 +54,7 @@ public class RepoController {
      * @throws SQLException if database operations fail
      */
     public static void completeTableHistory(Connection conn, Integer tid, Integer batchNbr,
-                                            Integer rowCount, String actionResult) throws SQLException {
+                                            long rowCount, String actionResult) throws SQLException {
 
         ArrayList<Object> binds = new ArrayList<>();
         binds.add(rowCount);
@@ -83,7 +84,9 @@ public class RepoController {
     }
 
     /**
-     * Deletes data comparison results from the specified table.
+     * Deletes data comparison results from the specified table.  Findings are list partitioned
+     * by tid, so when the table's partition only holds rows for this batch it is truncated
+     * instead of deleting row by row.
      *
      * @param conn      Database connection
      * @param tid       Table ID
@@ -91,12 +94,25 @@ public class RepoController {
      */
     public void deleteDataCompare(Connection conn, Integer tid, Integer batchNbr) {
         try {
-            ArrayList<Object> binds = new ArrayList<>();
-            binds.add(tid);
-            binds.add(batchNbr);
-
-            SQLExecutionHelper.simpleUpdate(conn, "DELETE FROM dc_source WHERE tid=? AND batch_nbr=?", binds, true);
-            SQLExecutionHelper.simpleUpdate(conn, "DELETE FROM dc_target WHERE tid=? AND batch_nbr=?", binds, true);
+            for (String location : new String[]{"source", "target"}) {
+                boolean partitioned = ensureFindingsPartition(conn, location, tid);
+
+                ArrayList<Object> binds = new ArrayList<>();
+                binds.add(batchNbr);
+
+                Integer otherBatchRows = partitioned ? SQLExecutionHelper.simpleSelectReturnInteger(conn,
+                        String.format(SQL_REPO_FINDINGS_PARTITION_OTHERBATCH, location, tid), binds) : null;
+
+                if (otherBatchRows != null && otherBatchRows == 0) {
+                    SQLExecutionHelper.simpleUpdate(conn,
+                            String.format(SQL_REPO_FINDINGS_PARTITION_TRUNCATE, location, tid), new ArrayList<>(), true);
+                } else {
+                    binds.addFirst(tid);
+                    SQLExecutionHelper.simpleUpdate(conn,
+                            location.equals("source") ? SQL_REPO_DCSOURCE_DELETEBYTIDBATCHNBR : SQL_REPO_DCTARGET_DELETEBYTIDBATCHNBR,
+                            binds, true);
+                }
+            }
 
             LoggingUtils.write("info", THREAD_NAME,
                     String.format("Data comparison results deleted for table %d, batch %d", tid, batchNbr));
@@ -108,6 +124,57 @@ public class RepoController {
         }
     }
 
+    /**
+     * Creates the dc_source/dc_target partition for a table if it does not already exist.
+     * Rows of the table already in the default partition would make the attach fail, so they
+     * are moved into the new partition within the same transaction.  Repositories whose
+     * findings tables are not partitioned are left as they are.
+     *
+     * @param conn      Database connection
+     * @param location  Location identifier (source or target)
+     * @param tid       Table ID
+     * @return True if the findings table is partitioned
+     */
+    private static boolean ensureFindingsPartition(Connection conn, String location, Integer tid) {
+        Integer exists = SQLExecutionHelper.simpleSelectReturnInteger(conn,
+                String.format(SQL_REPO_FINDINGS_PARTITION_EXISTS, location, tid), new ArrayList<>());
+
+        if (exists != null && exists > 0) {
+            return true;
+        }
+
+        Integer partitioned = SQLExecutionHelper.simpleSelectReturnInteger(conn,
+                String.format(SQL_REPO_FINDINGS_PARTITIONED, location), new ArrayList<>());
+
+        if (partitioned == null || partitioned == 0) {
+            return false;
+        }
+
+        Integer defaultRows = SQLExecutionHelper.simpleSelectReturnInteger(conn,
+                String.format(SQL_REPO_FINDINGS_PARTITION_DEFAULTROWS, location, tid), new ArrayList<>());
+
+        if (defaultRows != null && defaultRows > 0) {
+            // Hold the rows aside while the partition is attached, then put them back
+            boolean moved = SQLExecutionHelper.simpleUpdate(conn, String.format(SQL_REPO_FINDINGS_PARTITION_HOLDDEFAULT, location, tid), new ArrayList<>(), false) >= 0
+                    && SQLExecutionHelper.simpleUpdate(conn, String.format(SQL_REPO_FINDINGS_PARTITION_DELETEDEFAULT, location, tid), new ArrayList<>(), false) >= 0
+                    && SQLExecutionHelper.simpleUpdate(conn, String.format(SQL_REPO_FINDINGS_PARTITION_CREATE, location, tid), new ArrayList<>(), false) >= 0
+                    && SQLExecutionHelper.simpleUpdate(conn, String.format(SQL_REPO_FINDINGS_PARTITION_RESTOREDEFAULT, location), new ArrayList<>(), true) >= 0;
+
+            if (!moved) {
+                throw new RuntimeException(String.format("Failed to move findings of table %d to partition dc_%s_p%d", tid, location, tid));
+            }
+
+            LoggingUtils.write("info", THREAD_NAME,
+                    String.format("Moved %d rows of table %d from dc_%s_default to dc_%s_p%d", defaultRows, tid, location, location, tid));
+        } else {
+            SQLExecutionHelper.simpleUpdate(conn, String.format(SQL_REPO_FINDINGS_PARTITION_CREATE, location, tid), new ArrayList<>(), true);
+        }
+
+        LoggingUtils.write("debug", THREAD_NAME,
+                String.format("Created findings partition dc_%s_p%d", location, tid));
+        return true;
+    }
+
     /**
      * Gets the project settings from dc_project table.
      *
@@ -131,10 +198,11 @@ public class RepoController {
      * @param stagingTable Staging table name
      * @param batchNbr     Batch number
      * @param threadNbr    Thread number
+     * @param pkNames      Primary key column names for compact keys, null otherwise
      */
-    public void loadFindings(Connection conn, String location, Integer tid, String tableAlias, String stagingTable, Integer batchNbr, Integer threadNbr) {
+    public void loadFindings(Connection conn, String location, Integer tid, String tableAlias, String stagingTable, Integer batchNbr, Integer threadNbr, List<String> pkNames) {
         try {
-            StagingTableService.loadFindings(conn, location, tid, stagingTable, batchNbr, threadNbr, tableAlias);
+            StagingTableService.loadFindings(conn, location, tid, stagingTable, batchNbr, threadNbr, tableAlias, pkNames);
         } catch (SQLException e) {
             LoggingUtils.write("severe", THREAD_NAME,
                 String.format("Error loading findings: %s", e.getMessage()));
@@ -283,31 +351,6 @@ public class RepoController {
         return cid;
     }
 
-    /**
-     * Updates the row count in the data comparison result record.
-     *
-     * @param conn      Database connection
-     * @param targetType Type of target ("source" or "target")
-     * @param cid       Comparison ID
-     * @param rowCount  Row count to update
-     */
-    public void dcrUpdateRowCount (Connection conn, String targetType, Integer cid, Integer rowCount) {
-        String sql;
-
-        // Dynamic SQL
-        if (targetType.equals("source")) {
-            sql = "UPDATE dc_result SET source_cnt=source_cnt+? WHERE cid=?";
-        } else {
-            sql = "UPDATE dc_result SET target_cnt=target_cnt+? WHERE cid=?";
-        }
-
-        ArrayList<Object> binds = new ArrayList<>();
-        binds.add(0,rowCount);
-        binds.add(1,cid);
-
-        SQLExecutionHelper.simpleUpdate(conn,sql,binds, true);
-    }
-
     /**
      * Vacuum Repo Tables
      *
@@ -101,6 +101,10 @@ public class ReportController {
             if ("true".equals(com.crunchydata.config.Settings.Props.getProperty("fix"))) {
                 addFixSQLToReport(reportArray, runResult);
             }
+
+            if ("true".equals(com.crunchydata.config.Settings.Props.getProperty("apply-fixes"))) {
+                addAppliedFixesToReport(reportArray, runResult);
+            }
         }
 
         generateHtmlReport(reportArray, context.getReportFileName(), "pgCompare Summary");
@@ -127,6 +131,10 @@ public class ReportController {
                 if (isCheck && "true".equals(com.crunchydata.config.Settings.Props.getProperty("fix"))) {
                     displayFixSQLSummary(runResult);
                 }
+
+                if (isCheck && "true".equals(com.crunchydata.config.Settings.Props.getProperty("apply-fixes"))) {
+                    displayAppliedFixSummary(runResult);
+                }
                 
                 if (context.isGenReport()) {
                     generateCompleteReport(context, tablesProcessed, runResult, stats, isCheck);
@@ -237,6 +245,23 @@ public class ReportController {
         ));
     }
 
+    /**
+     * Create column drift layout for recheck operations.
+     *
+     * @return JSONArray containing column definitions
+     */
+    public static JSONArray createColumnDriftLayout() {
+        return new JSONArray(List.of(
+                createReportColumn("Column", "columnName", "left-align", false),
+                createReportColumn("Mismatches", "mismatches", "right-align", true),
+                createReportColumn("Null on Source", "sourceNulls", "right-align", true),
+                createReportColumn("Null on Target", "targetNulls", "right-align", true),
+                createReportColumn("Example Primary Key", "examplePk", "left-align", false),
+                createReportColumn("Example Source", "exampleSource", "left-align", false),
+                createReportColumn("Example Target", "exampleTarget", "left-align", false)
+        ));
+    }
+
     /**
      * Create job summary data object.
      *
@@ -261,13 +286,19 @@ public class ReportController {
      */
     private static void addCheckResultsToReport(JSONArray reportArray, JSONArray runResult) {
         JSONArray checkResultLayout = createCheckResultLayout();
+        JSONArray columnDriftLayout = createColumnDriftLayout();
 
         for (int i = 0; i < runResult.length(); i++) {
             JSONObject tableResult = runResult.getJSONObject(i);
             if (tableResult.has("checkResult")) {
                 String tableName = tableResult.getString("tableName");
-                JSONArray checkData = tableResult.getJSONObject("checkResult").getJSONArray("data");
-                reportArray.put(createSection(String.format("Table: %s", tableName), checkData, checkResultLayout));
+                JSONObject checkResult = tableResult.getJSONObject("checkResult");
+                reportArray.put(createSection(String.format("Table: %s", tableName), checkResult.getJSONArray("data"), checkResultLayout));
+
+                JSONArray columnSummary = checkResult.optJSONArray("columnSummary");
+                if (columnSummary != null && !columnSummary.isEmpty()) {
+                    reportArray.put(createSection(String.format("Column Drift: %s", tableName), columnSummary, columnDriftLayout));
+                }
             }
         }
     }
@@ -295,7 +326,7 @@ public class ReportController {
      * @param runResult JSON array containing results for each table
      */
     private static void displayFixSQLSummary(JSONArray runResult) {
-        int totalFixSQL = 0;
+        long totalFixSQL = 0;
         
         DisplayOperations.printSummary("", 0);
         DisplayOperations.printSummary("Fix SQL Statements:", 0);
@@ -305,25 +336,13 @@ public class ReportController {
             JSONObject tableResult = runResult.getJSONObject(i);
             if (tableResult.has("checkResult")) {
                 JSONObject checkResult = tableResult.getJSONObject("checkResult");
-                if (checkResult.has("fixSQL")) {
-                    String tableName = tableResult.getString("tableName");
-                    JSONArray fixSQLArray = checkResult.getJSONArray("fixSQL");
-                    int count = checkResult.optInt("fixSQLCount", 0);
-                    
-                    if (count > 0) {
-                        DisplayOperations.printSummary("", 0);
-                        DisplayOperations.printSummary(String.format("Table: %s (%d statements)", 
-                                                                    tableName, count), 2);
-                        
-                        for (int j = 0; j < fixSQLArray.length(); j++) {
-                            JSONObject fixEntry = fixSQLArray.getJSONObject(j);
-                            DisplayOperations.printSummary(String.format("PK: %s", fixEntry.getString("pk")), 4);
-                            DisplayOperations.printSummary(fixEntry.getString("sql"), 6);
-                            DisplayOperations.printSummary("", 0);
-                        }
-                        
-                        totalFixSQL += count;
-                    }
+                long count = checkResult.optLong("fixSQLCount", 0);
+
+                if (count > 0) {
+                    DisplayOperations.printSummary(String.format("Table: %s (%d rows, %d statements) in %s",
+                                                                tableResult.getString("tableName"), checkResult.optLong("fixRowCount", 0),
+                                                                count, checkResult.getString("fixFile")), 2);
+                    totalFixSQL += count;
                 }
             }
         }
@@ -338,32 +357,32 @@ public class ReportController {
     }
 
     /**
-     * Add fix SQL statements to the HTML report.
+     * Add the fix scripts written for each table to the HTML report.  The statements
+     * themselves stay in the script files.
      *
      * @param reportArray The report array to add results to
      * @param runResult JSON array containing results for each table
      */
     private static void addFixSQLToReport(JSONArray reportArray, JSONArray runResult) {
-        JSONArray fixSQLLayout = createFixSQLLayout();
+        JSONArray fixSQLData = new JSONArray();
         
         for (int i = 0; i < runResult.length(); i++) {
             JSONObject tableResult = runResult.getJSONObject(i);
             if (tableResult.has("checkResult")) {
                 JSONObject checkResult = tableResult.getJSONObject("checkResult");
-                if (checkResult.has("fixSQL")) {
-                    String tableName = tableResult.getString("tableName");
-                    JSONArray fixSQLData = checkResult.getJSONArray("fixSQL");
-                    int count = checkResult.optInt("fixSQLCount", 0);
-                    
-                    if (count > 0) {
-                        reportArray.put(createSection(
-                            String.format("Fix SQL for Table: %s (%d statements)", tableName, count), 
-                            fixSQLData, 
-                            fixSQLLayout));
-                    }
+                if (checkResult.optLong("fixSQLCount", 0) > 0) {
+                    fixSQLData.put(new JSONObject()
+                            .put("tableName", tableResult.getString("tableName"))
+                            .put("fixRowCount", checkResult.optLong("fixRowCount", 0))
+                            .put("fixSQLCount", checkResult.getLong("fixSQLCount"))
+                            .put("fixFile", checkResult.getString("fixFile")));
                 }
             }
         }
+
+        if (!fixSQLData.isEmpty()) {
+            reportArray.put(createSection("Fix SQL Scripts", fixSQLData, createFixSQLLayout()));
+        }
     }
 
     /**
@@ -373,11 +392,81 @@ public class ReportController {
      */
     public static JSONArray createFixSQLLayout() {
         return new JSONArray(List.of(
-                createReportColumn("Primary Key", "pk", "left-align", false),
-                createReportColumn("SQL Statement", "sql", "left-align", false)
+                createReportColumn("Table", "tableName", "left-align", false),
+                createReportColumn("Rows", "fixRowCount", "right-align", true),
+                createReportColumn("Statements", "fixSQLCount", "right-align", true),
+                createReportColumn("Script", "fixFile", "left-align", false)
         ));
     }
 
+    /**
+     * Display the fixes applied to the target by apply-fixes.
+     *
+     * @param runResult JSON array containing results for each table
+     */
+    private static void displayAppliedFixSummary(JSONArray runResult) {
+        long totalApplied = 0;
+        long totalRemaining = 0;
+
+        DisplayOperations.printSummary("", 0);
+        DisplayOperations.printSummary("Applied Fixes:", 0);
+        DisplayOperations.printSummary("===================", 0);
+
+        for (int i = 0; i < runResult.length(); i++) {
+            JSONObject tableResult = runResult.getJSONObject(i);
+            if (tableResult.has("checkResult")) {
+                JSONObject checkResult = tableResult.getJSONObject("checkResult");
+                if (checkResult.has("fixApplied")) {
+                    DisplayOperations.printSummary(String.format("Table: %s (%d applied, %d failed, %d verified, %d still out of sync)",
+                                                                tableResult.getString("tableName"), checkResult.getLong("fixApplied"),
+                                                                checkResult.getLong("fixFailed"), checkResult.getLong("fixVerified"),
+                                                                checkResult.getLong("fixRemaining")), 2);
+                    totalApplied += checkResult.getLong("fixApplied");
+                    totalRemaining += checkResult.getLong("fixRemaining");
+                }
+            }
+        }
+
+        DisplayOperations.printSummary("", 0);
+        DisplayOperations.printSummary(String.format("Total Rows Applied: %d, Still Out of Sync: %d", totalApplied, totalRemaining), 2);
+        DisplayOperations.printSummary("===================", 0);
+    }
+
+    /**
+     * Add the fixes applied to the target for each table to the HTML report.
+     *
+     * @param reportArray The report array to add results to
+     * @param runResult JSON array containing results for each table
+     */
+    private static void addAppliedFixesToReport(JSONArray reportArray, JSONArray runResult) {
+        JSONArray appliedData = new JSONArray();
+
+        for (int i = 0; i < runResult.length(); i++) {
+            JSONObject tableResult = runResult.getJSONObject(i);
+            if (tableResult.has("checkResult")) {
+                JSONObject checkResult = tableResult.getJSONObject("checkResult");
+                if (checkResult.has("fixApplied")) {
+                    appliedData.put(new JSONObject()
+                            .put("tableName", tableResult.getString("tableName"))
+                            .put("fixApplied", checkResult.getLong("fixApplied"))
+                            .put("fixFailed", checkResult.getLong("fixFailed"))
+                            .put("fixVerified", checkResult.getLong("fixVerified"))
+                            .put("fixRemaining", checkResult.getLong("fixRemaining")));
+                }
+            }
+        }
+
+        if (!appliedData.isEmpty()) {
+            reportArray.put(createSection("Applied Fixes", appliedData, new JSONArray(List.of(
+                    createReportColumn("Table", "tableName", "left-align", false),
+                    createReportColumn("Applied", "fixApplied", "right-align", true),
+                    createReportColumn("Failed", "fixFailed", "right-align", true),
+                    createReportColumn("Verified", "fixVerified", "right-align", true),
+                    createReportColumn("Still Out of Sync", "fixRemaining", "right-align", true)
+            ))));
+        }
+    }
+
     /**
      * Inner class to hold summary statistics.
      */
@@ -17,9 +17,13 @@
 package com.crunchydata.controller;
 
 import com.crunchydata.config.ApplicationContext;
+import com.crunchydata.core.database.ProjectMetadataCache;
+import com.crunchydata.core.jfr.TableSetupEvent;
 import com.crunchydata.core.database.SQLExecutionHelper;
+import com.crunchydata.core.threading.TablePrefetcher;
 import com.crunchydata.model.DataComparisonTable;
 import com.crunchydata.model.DataComparisonTableMap;
+import com.crunchydata.model.PreparedTable;
 import com.crunchydata.util.LoggingUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -28,7 +32,9 @@ import javax.sql.rowset.CachedRowSet;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
+import static com.crunchydata.config.Settings.Props;
 import static com.crunchydata.config.sql.RepoSQLConstants.*;
 
 public class TableController {
@@ -66,6 +72,8 @@ public class TableController {
                 result.setTableFilter(crs.getString("table_filter"));
                 result.setSchemaPreserveCase(crs.getBoolean("schema_preserve_case"));
                 result.setTablePreserveCase(crs.getBoolean("table_preserve_case"));
+                result.setScanParallel((Integer) crs.getObject("scan_parallel"));
+                result.setQueryHint(crs.getString("query_hint"));
             }
 
         } catch (Exception e) {
@@ -111,29 +119,49 @@ public class TableController {
      * @param tablesResultSet Result set containing tables to process
      * @param isCheck Whether this is a recheck operation
      * @param repoController Repository controller instance
+     * @param context Application context
+     * @param metadataCache Project metadata cache
      * @return ComparisonResults containing processed tables and results
      * @throws SQLException if database operations fail
      */
-    public static ComparisonResults reconcileTables(CachedRowSet tablesResultSet, boolean isCheck, RepoController repoController, ApplicationContext context) throws SQLException {
+    public static ComparisonResults reconcileTables(CachedRowSet tablesResultSet, boolean isCheck, RepoController repoController, ApplicationContext context,
+                                                    ProjectMetadataCache metadataCache) throws SQLException {
 
         JSONArray runResults = new JSONArray();
         int tablesProcessed = 0;
-        
+        int prefetchDepth = Integer.parseInt(Props.getProperty("table-prefetch"));
+
+        List<DataComparisonTable> tables = new ArrayList<>();
         while (tablesResultSet.next()) {
-            tablesProcessed++;
-            
-            // Create DCTable object from result set
-            DataComparisonTable table = createDCTableFromResultSet(tablesResultSet, context.getPid());
+            tables.add(createDCTableFromResultSet(tablesResultSet, context.getPid()));
+        }
 
-            JSONObject actionResult;
+        try (TablePrefetcher prefetcher = prefetchDepth > 0 ? new TablePrefetcher(metadataCache, isCheck) : null) {
+            for (int i = 0; i < tables.size(); i++) {
+                tablesProcessed++;
 
-            if (table.getEnabled()) {
-                actionResult = reconcileEnabledTable(table, isCheck, repoController, context);
-            } else {
-                actionResult = createSkippedTableResult(table);
-            }
+                DataComparisonTable table = tables.get(i);
+
+                // Keep the next tables' metadata and SQL preparing while this one runs
+                if (prefetcher != null) {
+                    for (int n = i + 1; n < Math.min(tables.size(), i + 1 + prefetchDepth); n++) {
+                        if (tables.get(n).getEnabled()) {
+                            prefetcher.submit(tables.get(n));
+                        }
+                    }
+                }
+
+                JSONObject actionResult;
 
-            runResults.put(actionResult);
+                if (table.getEnabled()) {
+                    PreparedTable prepared = (prefetcher != null) ? prefetcher.take(table) : null;
+                    actionResult = reconcileEnabledTable(table, prepared, isCheck, repoController, context, metadataCache);
+                } else {
+                    actionResult = createSkippedTableResult(table);
+                }
+
+                runResults.put(actionResult);
+            }
         }
         
         return new ComparisonResults(tablesProcessed, runResults);
@@ -162,28 +190,27 @@ public class TableController {
      * Perform reconcilation an enabled table for comparison.
      * 
      * @param table The table to process
+     * @param prepared Prefetched table metadata, or null to prepare it now
      * @param isCheck Whether this is a recheck operation
      * @param repoController Repository controller instance
      * @param context Application context
+     * @param metadataCache Project metadata cache
      * @return JSONObject containing the result of processing this table
      */
-    public static JSONObject reconcileEnabledTable(DataComparisonTable table, boolean isCheck, RepoController repoController, ApplicationContext context) {
+    public static JSONObject reconcileEnabledTable(DataComparisonTable table, PreparedTable prepared, boolean isCheck, RepoController repoController,
+                                                   ApplicationContext context, ProjectMetadataCache metadataCache) {
         LoggingUtils.write("info", THREAD_NAME, String.format("--- START RECONCILIATION FOR TABLE: %s ---",
             table.getTableAlias().toUpperCase()));
 
         try {
-            // Create table maps for source and target
-            DataComparisonTableMap sourceTableMap = createTableMap(context.getConnRepo(), table.getTid(), CONN_TYPE_SOURCE);
-            DataComparisonTableMap targetTableMap = createTableMap(context.getConnRepo(), table.getTid(), CONN_TYPE_TARGET);
-            
-            // Set batch number and project ID
-            sourceTableMap.setBatchNbr(table.getBatchNbr());
-            sourceTableMap.setPid(context.getPid());
-            sourceTableMap.setTableAlias(table.getTableAlias());
-            
-            targetTableMap.setBatchNbr(table.getBatchNbr());
-            targetTableMap.setPid(context.getPid());
-            targetTableMap.setTableAlias(table.getTableAlias());
+            TableSetupEvent setupEvent = new TableSetupEvent(table.getTableAlias(), table.getTid(), table.getBatchNbr());
+            setupEvent.begin();
+            boolean prefetched = prepared != null;
+
+            // Resolve table maps, column metadata and compare SQL unless already prefetched
+            if (prepared == null) {
+                prepared = CompareController.prepareTable(metadataCache, table, isCheck);
+            }
 
             // Start table history tracking
             repoController.startTableHistory(context.getConnRepo(), table.getTid(), table.getBatchNbr());
@@ -194,10 +221,12 @@ public class TableController {
                 repoController.deleteDataCompare(context.getConnRepo(), table.getTid(), table.getBatchNbr());
             }
 
+            setupEvent.complete(prefetched);
+
             // Perform the actual comparison
             JSONObject actionResult = CompareController.reconcileData(
                 context.getConnRepo(), context.getConnSource(), context.getConnTarget(), 
-                context.getStartStopWatch(), isCheck, table, sourceTableMap, targetTableMap);
+                context.getStartStopWatch(), isCheck, prepared, metadataCache);
 
             // Complete table history
             repoController.completeTableHistory(context.getConnRepo(), table.getTid(), table.getBatchNbr(), 0, actionResult.toString());
@@ -257,16 +286,4 @@ public class TableController {
      * Inner class to hold comparison results.
     */
     public record ComparisonResults(int tablesProcessed, JSONArray runResults) { }
-    
-    /**
-     * Create a table map for the specified connection type.
-     * 
-     * @param connRepo Repository connection
-     * @param tid Table ID
-     * @param tableOrigin Connection type (source/target)
-     * @return DCTableMap object
-     */
-    public static DataComparisonTableMap createTableMap(Connection connRepo, Integer tid, String tableOrigin) {
-        return getTableMap(connRepo, tid, tableOrigin);
-    }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.comparison;
+
+import com.crunchydata.util.LoggingUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCRESULTCOLUMN_INSERT;
+import static com.crunchydata.util.DataTypeCastingUtils.EMPTY_STRING;
+
+/**
+ * Per-column drift counters accumulated while out-of-sync rows are checked.
+ * Counters and the first example of each column are kept in arrays indexed by the column
+ * position of the compare query, and only turned into rows for the repository and report
+ * once the table has been checked.
+ *
+ * @author Brian Pace
+ */
+public class ColumnDriftStats {
+
+    private static final String THREAD_NAME = "column-drift";
+
+    private String[] columns;
+    private long[] mismatches;
+    private long[] sourceNulls;
+    private long[] targetNulls;
+    private String[] examplePk;
+    private String[] exampleSource;
+    private String[] exampleTarget;
+
+    /**
+     * Size the counters on the first compared row.
+     *
+     * @param columnNames Column names of the compare query, in position order
+     */
+    public void init(String[] columnNames) {
+        if (columns != null) {
+            return;
+        }
+
+        int n = columnNames.length;
+        columns = columnNames;
+        mismatches = new long[n];
+        sourceNulls = new long[n];
+        targetNulls = new long[n];
+        examplePk = new String[n];
+        exampleSource = new String[n];
+        exampleTarget = new String[n];
+    }
+
+    /**
+     * Determine if the counters have been sized.
+     *
+     * @return True once init has been called
+     */
+    public boolean isInitialized() {
+        return columns != null;
+    }
+
+    /**
+     * Record a differing column value.  The compare query casts NULL (and empty strings) to
+     * the empty value marker, so the marker is counted and kept as null.
+     *
+     * @param column Column position (zero based)
+     * @param pk Primary key of the row
+     * @param sourceValue Source value, may be null
+     * @param targetValue Target value, may be null
+     */
+    public void record(int column, String pk, String sourceValue, String targetValue) {
+        boolean sourceNull = isNull(sourceValue);
+        boolean targetNull = isNull(targetValue);
+
+        mismatches[column]++;
+        if (sourceNull) {
+            sourceNulls[column]++;
+        }
+        if (targetNull) {
+            targetNulls[column]++;
+        }
+        if (examplePk[column] == null) {
+            examplePk[column] = pk;
+            exampleSource[column] = sourceNull ? null : sourceValue;
+            exampleTarget[column] = targetNull ? null : targetValue;
+        }
+    }
+
+    private static boolean isNull(String value) {
+        return value == null || EMPTY_STRING.equals(value);
+    }
+
+    /**
+     * Write one row per drifting column to dc_result_column.
+     *
+     * @param connRepo Repository connection
+     * @param cid Compare ID
+     * @param tid Table ID
+     * @return Number of columns written
+     */
+    public int save(Connection connRepo, Integer cid, long tid) {
+        if (columns == null) {
+            return 0;
+        }
+
+        int written = 0;
+
+        try (PreparedStatement stmt = connRepo.prepareStatement(SQL_REPO_DCRESULTCOLUMN_INSERT)) {
+            for (int i = 0; i < columns.length; i++) {
+                if (mismatches[i] == 0) {
+                    continue;
+                }
+                stmt.setInt(1, cid);
+                stmt.setLong(2, tid);
+                stmt.setString(3, columns[i]);
+                stmt.setLong(4, mismatches[i]);
+                stmt.setLong(5, sourceNulls[i]);
+                stmt.setLong(6, targetNulls[i]);
+                stmt.setString(7, examplePk[i]);
+                stmt.setString(8, exampleSource[i]);
+                stmt.setString(9, exampleTarget[i]);
+                stmt.addBatch();
+                written++;
+            }
+
+            if (written > 0) {
+                stmt.executeBatch();
+                if (!connRepo.getAutoCommit()) {
+                    connRepo.commit();
+                }
+            }
+        } catch (SQLException e) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Error saving column drift statistics: %s", e.getMessage()));
+            return 0;
+        }
+
+        return written;
+    }
+
+    /**
+     * Drifting columns for the report, most frequent first.
+     *
+     * @return JSON array with one object per drifting column
+     */
+    public JSONArray toJSON() {
+        JSONArray summary = new JSONArray();
+
+        if (columns == null) {
+            return summary;
+        }
+
+        Integer[] order = new Integer[columns.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(mismatches[b], mismatches[a]));
+
+        for (int i : order) {
+            if (mismatches[i] == 0) {
+                break;
+            }
+            summary.put(new JSONObject()
+                    .put("columnName", columns[i])
+                    .put("mismatches", mismatches[i])
+                    .put("sourceNulls", sourceNulls[i])
+                    .put("targetNulls", targetNulls[i])
+                    .put("examplePk", examplePk[i])
+                    .put("exampleSource", (exampleSource[i] == null) ? JSONObject.NULL : exampleSource[i])
+                    .put("exampleTarget", (exampleTarget[i] == null) ? JSONObject.NULL : exampleTarget[i]));
+        }
+
+        return summary;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.comparison;
+
+import com.crunchydata.util.LoggingUtils;
+import lombok.Getter;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Local append-only findings log for one table and side.  Findings are appended as CSV
+ * rows into memory-mapped segments of a single file and exported to the repository with
+ * one COPY once the table has been matched.
+ *
+ * @author Brian Pace
+ */
+public class FindingsLog implements AutoCloseable {
+
+    private static final String THREAD_NAME = "findings-log";
+
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    @Getter
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStart = 0;
+    @Getter
+    private long count = 0;
+
+    /**
+     * Create an empty findings log.
+     *
+     * @param file Log file, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public FindingsLog(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Append a block of CSV rows.
+     *
+     * @param rows UTF-8 encoded CSV rows, each terminated by a newline
+     * @param rowCount Number of rows in the block
+     * @throws IOException if a segment cannot be mapped
+     */
+    public synchronized void append(byte[] rows, int rowCount) throws IOException {
+        if (segment == null || segment.remaining() < rows.length) {
+            long written = (segment == null) ? 0 : segment.position();
+            segmentStart += written;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, Math.max(SEGMENT_BYTES, rows.length));
+        }
+
+        segment.put(rows);
+        count += rowCount;
+    }
+
+    /**
+     * Size of the log contents.
+     *
+     * @return Bytes written
+     */
+    public synchronized long size() {
+        return segmentStart + ((segment == null) ? 0 : segment.position());
+    }
+
+    /**
+     * Export the log to the repository with a single COPY.
+     *
+     * @param connRepo Repository connection
+     * @param copySQL COPY ... FROM STDIN statement matching the log columns
+     * @return Rows exported
+     * @throws IOException if the log cannot be read
+     * @throws SQLException if the COPY fails
+     */
+    public synchronized long export(Connection connRepo, String copySQL) throws IOException, SQLException {
+        if (count == 0) {
+            return 0;
+        }
+
+        // Drop the unused tail of the last mapped segment
+        channel.truncate(size());
+
+        try (InputStream in = Files.newInputStream(file)) {
+            long rows = connRepo.unwrap(PGConnection.class).getCopyAPI().copyIn(copySQL, in);
+            connRepo.commit();
+
+            LoggingUtils.write("info", THREAD_NAME, String.format("Exported %d findings from %s", rows, file.getFileName()));
+            return rows;
+        }
+    }
+
+    /**
+     * Close the log file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        segment = null;
+        channel.close();
+    }
+
+}
@@ -17,7 +17,9 @@
 package com.crunchydata.core.comparison;
 
 import com.crunchydata.core.database.SQLExecutionHelper;
+import com.crunchydata.core.jfr.ResultSummaryEvent;
 import com.crunchydata.util.LoggingUtils;
+import com.crunchydata.util.SampleUtils;
 import org.json.JSONObject;
 
 import java.sql.Connection;
@@ -48,7 +50,10 @@ public class ResultProcessor {
      */
     public static void summarizeResults(Connection connRepo, long tid, JSONObject result, int cid) throws SQLException {
         LoggingUtils.write("info", THREAD_NAME, "Starting result summarization");
-        
+
+        ResultSummaryEvent summaryEvent = new ResultSummaryEvent(result.optString("tableName"), cid);
+        summaryEvent.begin();
+
         try {
             // Optimize database for result processing
             optimizeDatabaseForResults(connRepo);
@@ -61,6 +66,13 @@ public class ResultProcessor {
             
             // Update database with final results
             updateDatabaseResults(connRepo, result, cid);
+
+            // Extrapolate the sample to the whole table
+            if (SampleUtils.isEnabled()) {
+                updateSampleEstimate(connRepo, result, stats, cid);
+            }
+
+            summaryEvent.complete(result.optLong("equal"), stats.missingSource(), stats.missingTarget(), stats.notEqual());
             
             LoggingUtils.write("info", THREAD_NAME, "Result summarization completed successfully");
             
@@ -81,7 +93,9 @@ public class ResultProcessor {
     }
     
     /**
-     * Calculate reconciliation statistics.
+     * Calculate reconciliation statistics.  A single FULL OUTER JOIN between dc_source and
+     * dc_target classifies the remaining findings, marks compare_result on both sides and
+     * returns the missing source, missing target and not equal counts together.
      * 
      * @param connRepo Repository connection
      * @param tid Table ID
@@ -92,17 +106,21 @@ public class ResultProcessor {
         ArrayList<Object> binds = new ArrayList<>();
         binds.add(tid);
         binds.add(tid);
-        
-        // Calculate missing source records
-        int missingSource = SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCSOURCE_MARKMISSING, binds, true);
-        
-        // Calculate missing target records
-        int missingTarget = SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTARGET_MARKMISSING, binds, true);
-        
-        // Calculate not equal records
-        int notEqual = SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCSOURCE_MARKNOTEQUAL, binds, true);
-        SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTARGET_MARKNOTEQUAL, binds, true);
-        
+        binds.add(tid);
+        binds.add(tid);
+
+        long missingSource = 0;
+        long missingTarget = 0;
+        long notEqual = 0;
+
+        try (var crs = SQLExecutionHelper.simpleUpdateReturning(connRepo, SQL_REPO_FINDINGS_CLASSIFY, binds)) {
+            if (crs != null && crs.next()) {
+                missingSource = crs.getLong("missing_source_cnt");
+                missingTarget = crs.getLong("missing_target_cnt");
+                notEqual = crs.getLong("not_equal_cnt");
+            }
+        }
+
         return new ReconciliationStats(missingSource, missingTarget, notEqual);
     }
     
@@ -134,25 +152,56 @@ public class ResultProcessor {
      */
     private static void updateDatabaseResults(Connection connRepo, JSONObject result, int cid) throws SQLException {
         ArrayList<Object> binds = new ArrayList<>();
-        binds.add(result.getInt("missingSource"));
-        binds.add(result.getInt("missingTarget"));
-        binds.add(result.getInt("notEqual"));
+        binds.add(result.getLong("missingSource"));
+        binds.add(result.getLong("missingTarget"));
+        binds.add(result.getLong("notEqual"));
         binds.add(result.getString("compareStatus"));
         binds.add(cid);
         
         try (var crs = SQLExecutionHelper.simpleUpdateReturning(connRepo, SQL_REPO_DCRESULT_UPDATE_STATUSANDCOUNT, binds)) {
             if (crs.next()) {
-                int equal = crs.getInt(1);
+                long equal = crs.getLong(1);
                 result.put("equal", equal);
-                result.put("totalRows", equal + result.getInt("missingSource") + result.getInt("missingTarget") + result.getInt("notEqual"));
+                result.put("totalRows", equal + result.getLong("missingSource") + result.getLong("missingTarget") + result.getLong("notEqual"));
             }
         }
     }
 
 
+    /**
+     * Record the estimated drift rate of the table, with 95% confidence bounds, from the
+     * out-of-sync keys found among the sampled keys.
+     *
+     * @param connRepo Repository connection
+     * @param result Result object
+     * @param stats Reconciliation statistics
+     * @param cid Compare ID
+     * @throws SQLException if database operations fail
+     */
+    private static void updateSampleEstimate(Connection connRepo, JSONObject result, ReconciliationStats stats, int cid) throws SQLException {
+        long outOfSync = stats.missingSource() + stats.missingTarget() + stats.notEqual();
+        double[] drift = SampleUtils.estimateDrift(outOfSync, result.optLong("totalRows", 0));
+
+        ArrayList<Object> binds = new ArrayList<>();
+        binds.add(SampleUtils.getSampleFraction());
+        binds.add(drift[0]);
+        binds.add(drift[1]);
+        binds.add(drift[2]);
+        binds.add(cid);
+        SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCRESULT_UPDATE_SAMPLE, binds, true);
+
+        result.put("sampleRate", SampleUtils.getSampleFraction());
+        result.put("driftRate", drift[0]);
+        result.put("driftLower", drift[1]);
+        result.put("driftUpper", drift[2]);
+
+        LoggingUtils.write("info", THREAD_NAME, String.format("Sample of %.1f%% of keys: estimated drift %.4f%% (95%% confidence %.4f%% - %.4f%%)",
+                SampleUtils.getSampleFraction() * 100, drift[0] * 100, drift[1] * 100, drift[2] * 100));
+    }
+
     /**
          * Inner class to hold reconciliation statistics.
          */
-        public record ReconciliationStats(int missingSource, int missingTarget, int notEqual) {
+        public record ReconciliationStats(long missingSource, long missingTarget, long notEqual) {
     }
 }
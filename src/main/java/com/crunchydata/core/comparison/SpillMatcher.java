@@ -0,0 +1,427 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.comparison;
+
+import com.crunchydata.model.DataComparisonTable;
+import com.crunchydata.util.LoggingUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_FINDINGS_COPY;
+
+/**
+ * Matches hash-partitioned spill files on the compare host (Grace hash join).
+ * Each partition pair is matched independently: the source partition is loaded into an
+ * open-addressing table over the memory-mapped records and probed with the target partition.
+ * Only unmatched and not-equal rows are kept, appended to a local findings log per side
+ * that is exported to the repository once all partitions have been matched.
+ *
+ * @author Brian Pace
+ */
+public class SpillMatcher implements AutoCloseable {
+
+    private static final String THREAD_NAME = "spill-matcher";
+
+    private static final int MAX_PARTITION_RECORDS = 1 << 29;
+
+    private static final int FINDINGS_CHUNK_BYTES = 1024 * 1024;
+
+    private final DataComparisonTable dct;
+    private final List<SpillWriter> sourceWriters;
+    private final List<SpillWriter> targetWriters;
+    private final List<String> pkNamesSource;
+    private final List<String> pkNamesTarget;
+    private final Path directory;
+    private final HexFormat hex = HexFormat.of();
+    private FindingsLog sourceLog;
+    private FindingsLog targetLog;
+
+    /**
+     * Create a matcher over closed spill writers.
+     *
+     * @param dct Table being compared
+     * @param directory Spill directory, also used for the findings logs
+     * @param sourceWriters Source spill writers (one per compare thread)
+     * @param targetWriters Target spill writers (one per compare thread)
+     * @param pkNamesSource Source primary key names when keys use the compact encoding, otherwise null
+     * @param pkNamesTarget Target primary key names when keys use the compact encoding, otherwise null
+     */
+    public SpillMatcher(DataComparisonTable dct, Path directory, List<SpillWriter> sourceWriters, List<SpillWriter> targetWriters,
+                        List<String> pkNamesSource, List<String> pkNamesTarget) {
+        this.dct = dct;
+        this.directory = directory;
+        this.sourceWriters = sourceWriters;
+        this.targetWriters = targetWriters;
+        this.pkNamesSource = pkNamesSource;
+        this.pkNamesTarget = pkNamesTarget;
+    }
+
+    /**
+     * Match all partitions in parallel, appending findings to the local findings logs.
+     *
+     * @param parallelism Number of partitions matched concurrently
+     * @return Number of equal rows
+     * @throws Exception if a partition fails to match or load
+     */
+    public long match(int parallelism) throws Exception {
+        int partitions = sourceWriters.get(0).getPartitions();
+        sourceLog = new FindingsLog(directory.resolve("findings-source.csv"));
+        targetLog = new FindingsLog(directory.resolve("findings-target.csv"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, partitions)), r -> {
+            Thread t = new Thread(r, THREAD_NAME);
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int p = 0; p < partitions; p++) {
+                final int partition = p;
+                results.add(executor.submit(() -> matchPartition(partition)));
+            }
+
+            long equal = 0;
+            for (Future<Long> result : results) {
+                equal += result.get();
+            }
+            return equal;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Export the findings logs to the repository, one COPY per side.
+     *
+     * @param connRepo Repository connection
+     * @throws Exception if an export fails
+     */
+    public void exportFindings(Connection connRepo) throws Exception {
+        if (sourceLog != null) {
+            sourceLog.export(connRepo, String.format(SQL_REPO_FINDINGS_COPY, "source"));
+        }
+        if (targetLog != null) {
+            targetLog.export(connRepo, String.format(SQL_REPO_FINDINGS_COPY, "target"));
+        }
+    }
+
+    /**
+     * Close the findings logs.
+     *
+     * @throws IOException if a log cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        FindingsLog source = sourceLog;
+        FindingsLog target = targetLog;
+        sourceLog = null;
+        targetLog = null;
+
+        try {
+            if (source != null) {
+                source.close();
+            }
+        } finally {
+            if (target != null) {
+                target.close();
+            }
+        }
+    }
+
+    /**
+     * Match one partition pair.
+     */
+    private long matchPartition(int partition) throws Exception {
+        String threadName = String.format("%s-p%d", THREAD_NAME, partition);
+
+        try (PartitionRecords source = PartitionRecords.map(sourceWriters, partition);
+             PartitionRecords target = PartitionRecords.map(targetWriters, partition)) {
+            return matchPartition(threadName, partition, source, target);
+        }
+    }
+
+    /**
+     * Build a hash table over the source records and probe it with the target records.
+     */
+    private long matchPartition(String threadName, int partition, PartitionRecords source, PartitionRecords target) throws Exception {
+        DecimalFormat formatter = new DecimalFormat("#,###");
+
+        if (source.count > MAX_PARTITION_RECORDS || target.count > MAX_PARTITION_RECORDS) {
+            throw new IOException(String.format("Spill partition %d holds too many rows (%d/%d), increase spill-partitions",
+                    partition, source.count, target.count));
+        }
+
+        // Build side: open-addressing table of source ordinals keyed on pk_hash
+        int capacity = Integer.highestOneBit(Math.max(16, source.count * 2 - 1)) << 1;
+        int mask = capacity - 1;
+        int[] slots = new int[capacity];
+        BitSet sourceFindings = new BitSet(source.count);
+        BitSet sourceMatched = new BitSet(source.count);
+
+        for (int r = 0; r < source.count; r++) {
+            int slot = slotOf(source, r, mask);
+            boolean duplicate = false;
+            while (slots[slot] != 0) {
+                if (source.samePk(slots[slot] - 1, source, r)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (duplicate) {
+                sourceFindings.set(r);
+            } else {
+                slots[slot] = r + 1;
+            }
+        }
+
+        // Probe side
+        BitSet targetFindings = new BitSet(target.count);
+        long equal = 0;
+
+        for (int r = 0; r < target.count; r++) {
+            int slot = slotOf(target, r, mask);
+            int match = -1;
+            while (slots[slot] != 0) {
+                int candidate = slots[slot] - 1;
+                if (source.samePk(candidate, target, r)) {
+                    match = candidate;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (match < 0 || sourceMatched.get(match)) {
+                targetFindings.set(r);
+            } else {
+                sourceMatched.set(match);
+                if (source.sameColumns(match, target, r)) {
+                    equal++;
+                } else {
+                    sourceFindings.set(match);
+                    targetFindings.set(r);
+                }
+            }
+        }
+
+        for (int r = sourceMatched.nextClearBit(0); r < source.count; r = sourceMatched.nextClearBit(r + 1)) {
+            sourceFindings.set(r);
+        }
+
+        long sourceCnt = writeFindings(sourceLog, source, sourceFindings, pkNamesSource);
+        long targetCnt = writeFindings(targetLog, target, targetFindings, pkNamesTarget);
+
+        LoggingUtils.write("info", threadName, String.format("Matched %s rows; findings source %s, target %s",
+                formatter.format(equal), formatter.format(sourceCnt), formatter.format(targetCnt)));
+
+        return equal;
+    }
+
+    /**
+     * Slot for a record, using the trailing hash bytes (the leading bytes chose the partition).
+     */
+    private static int slotOf(PartitionRecords records, int ordinal, int mask) {
+        long h = records.pkHashLow(ordinal);
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Append findings of one side of a partition to its log, in chunks to limit contention
+     * with the other partitions.
+     */
+    private long writeFindings(FindingsLog log, PartitionRecords records, BitSet findings,
+                               List<String> pkNames) throws Exception {
+        StringBuilder chunk = new StringBuilder();
+        int chunkRows = 0;
+        long count = 0;
+
+        for (int r = findings.nextSetBit(0); r >= 0; r = findings.nextSetBit(r + 1)) {
+            String pk = records.readPk(r);
+            if (pkNames != null) {
+                pk = expandCompactKey(pk, pkNames);
+            }
+
+            chunk.append(dct.getTid()).append(',').append(records.threadOf(r)).append(',')
+                    .append(hex.formatHex(records.bytes(r, 0))).append(',')
+                    .append(hex.formatHex(records.bytes(r, SpillWriter.HASH_BYTES))).append(',')
+                    .append(csvQuote(pk)).append(',').append(dct.getBatchNbr()).append(',')
+                    .append(csvQuote(dct.getTableAlias())).append('\n');
+            chunkRows++;
+            count++;
+
+            if (chunk.length() >= FINDINGS_CHUNK_BYTES) {
+                log.append(chunk.toString().getBytes(StandardCharsets.UTF_8), chunkRows);
+                chunk.setLength(0);
+                chunkRows = 0;
+            }
+        }
+
+        if (chunkRows > 0) {
+            log.append(chunk.toString().getBytes(StandardCharsets.UTF_8), chunkRows);
+        }
+
+        return count;
+    }
+
+    /**
+     * Expand a positional compact key array into a keyed JSON object.
+     */
+    private static String expandCompactKey(String pk, List<String> pkNames) {
+        JSONArray values = new JSONArray(pk);
+        JSONObject keyed = new JSONObject();
+        for (int i = 0; i < pkNames.size() && i < values.length(); i++) {
+            keyed.put(pkNames.get(i), values.get(i));
+        }
+        return keyed.toString();
+    }
+
+    private static String csvQuote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Memory-mapped view over the records of one partition across all compare threads of a side.
+     */
+    private static final class PartitionRecords implements AutoCloseable {
+        private final List<SpillWriter> writers;
+        private final MappedByteBuffer[] buffers;
+        private final FileChannel[] pkChannels;
+        private final int[] starts;
+        private final int count;
+
+        private PartitionRecords(List<SpillWriter> writers, MappedByteBuffer[] buffers, int[] starts, int count) {
+            this.writers = writers;
+            this.buffers = buffers;
+            this.pkChannels = new FileChannel[writers.size()];
+            this.starts = starts;
+            this.count = count;
+        }
+
+        static PartitionRecords map(List<SpillWriter> writers, int partition) throws IOException {
+            MappedByteBuffer[] buffers = new MappedByteBuffer[writers.size()];
+            int[] starts = new int[writers.size() + 1];
+            long total = 0;
+
+            for (int w = 0; w < writers.size(); w++) {
+                try (FileChannel channel = FileChannel.open(writers.get(w).getRecordFile(partition), StandardOpenOption.READ)) {
+                    if (channel.size() > Integer.MAX_VALUE) {
+                        throw new IOException(String.format("Spill file %s exceeds 2GB, increase spill-partitions",
+                                writers.get(w).getRecordFile(partition)));
+                    }
+                    buffers[w] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    starts[w] = (int) total;
+                    total += channel.size() / SpillWriter.RECORD_BYTES;
+                }
+            }
+            starts[writers.size()] = (int) Math.min(total, Integer.MAX_VALUE);
+
+            return new PartitionRecords(writers, buffers, starts, (int) Math.min(total, Integer.MAX_VALUE));
+        }
+
+        private int writerOf(int ordinal) {
+            int w = 0;
+            while (ordinal >= starts[w + 1]) {
+                w++;
+            }
+            return w;
+        }
+
+        private int position(int w, int ordinal) {
+            return (ordinal - starts[w]) * SpillWriter.RECORD_BYTES;
+        }
+
+        long pkHashLow(int ordinal) {
+            int w = writerOf(ordinal);
+            return buffers[w].getLong(position(w, ordinal) + Long.BYTES);
+        }
+
+        boolean samePk(int ordinal, PartitionRecords other, int otherOrdinal) {
+            return sameBytes(ordinal, other, otherOrdinal, 0);
+        }
+
+        boolean sameColumns(int ordinal, PartitionRecords other, int otherOrdinal) {
+            return sameBytes(ordinal, other, otherOrdinal, SpillWriter.HASH_BYTES);
+        }
+
+        private boolean sameBytes(int ordinal, PartitionRecords other, int otherOrdinal, int offset) {
+            int w = writerOf(ordinal);
+            int ow = other.writerOf(otherOrdinal);
+            int pos = position(w, ordinal) + offset;
+            int opos = other.position(ow, otherOrdinal) + offset;
+            return buffers[w].getLong(pos) == other.buffers[ow].getLong(opos)
+                    && buffers[w].getLong(pos + Long.BYTES) == other.buffers[ow].getLong(opos + Long.BYTES);
+        }
+
+        byte[] bytes(int ordinal, int offset) {
+            int w = writerOf(ordinal);
+            byte[] value = new byte[SpillWriter.HASH_BYTES];
+            buffers[w].get(position(w, ordinal) + offset, value);
+            return value;
+        }
+
+        int threadOf(int ordinal) {
+            return writers.get(writerOf(ordinal)).getThreadNumber();
+        }
+
+        String readPk(int ordinal) throws IOException {
+            int w = writerOf(ordinal);
+            int pos = position(w, ordinal) + SpillWriter.HASH_BYTES * 2;
+            long offset = buffers[w].getLong(pos);
+            int length = buffers[w].getInt(pos + Long.BYTES);
+
+            if (pkChannels[w] == null) {
+                pkChannels[w] = FileChannel.open(writers.get(w).getPkFile(), StandardOpenOption.READ);
+            }
+
+            ByteBuffer pk = ByteBuffer.allocate(length);
+            while (pk.hasRemaining()) {
+                if (pkChannels[w].read(pk, offset + pk.position()) < 0) {
+                    throw new IOException("Unexpected end of spill key file");
+                }
+            }
+            return new String(pk.array(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (FileChannel channel : pkChannels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.comparison;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+/**
+ * Writes the rows read by one compare thread to hash-partitioned spill files.
+ * Each partition holds fixed-width records (pk_hash, column_hash, pk offset, pk length)
+ * while the primary key text is appended to a single side file, only read back for findings.
+ *
+ * @author Brian Pace
+ */
+public class SpillWriter implements AutoCloseable {
+
+    public static final int HASH_BYTES = 16;
+    public static final int RECORD_BYTES = HASH_BYTES + HASH_BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    @Getter
+    private final String targetType;
+    @Getter
+    private final int threadNumber;
+    @Getter
+    private final int partitions;
+    @Getter
+    private final Path pkFile;
+    private final Path[] recordFiles;
+    private final DataOutputStream[] recordStreams;
+    private final DataOutputStream pkStream;
+    private final HexFormat hex = HexFormat.of();
+    private long pkOffset = 0;
+
+    /**
+     * Create the spill files for a compare thread.
+     *
+     * @param directory Spill directory for the table
+     * @param targetType Side being written (source/target)
+     * @param threadNumber Compare thread number
+     * @param partitions Number of hash partitions
+     * @throws IOException if the files cannot be created
+     */
+    public SpillWriter(Path directory, String targetType, int threadNumber, int partitions) throws IOException {
+        this.targetType = targetType;
+        this.threadNumber = threadNumber;
+        this.partitions = partitions;
+        this.recordFiles = new Path[partitions];
+        this.recordStreams = new DataOutputStream[partitions];
+
+        for (int p = 0; p < partitions; p++) {
+            recordFiles[p] = directory.resolve(String.format("%s-t%d-p%d.rec", targetType, threadNumber, p));
+            recordStreams[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordFiles[p]), BUFFER_SIZE));
+        }
+
+        this.pkFile = directory.resolve(String.format("%s-t%d.pk", targetType, threadNumber));
+        this.pkStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pkFile), BUFFER_SIZE));
+    }
+
+    /**
+     * Append a row to its partition.
+     *
+     * @param pkHash Primary key hash (32 hex characters)
+     * @param columnHash Column hash (32 hex characters)
+     * @param pk Primary key JSON
+     * @throws IOException if the write fails
+     */
+    public void write(String pkHash, String columnHash, String pk) throws IOException {
+        // Both hashes must be full MD5 hex strings, a shorter database hash cannot be matched
+        if (!isMd5Hex(pkHash) || !isMd5Hex(columnHash)) {
+            throw new IOException(String.format("Spill records need %d character hex MD5 hashes, got pk hash '%s' and column hash '%s' for pk %s; check the hash expression of the source/target platform",
+                    HASH_BYTES * 2, pkHash, columnHash, pk));
+        }
+
+        byte[] pkHashBytes = hex.parseHex(pkHash);
+        byte[] columnHashBytes = hex.parseHex(columnHash);
+        byte[] pkBytes = pk.getBytes(StandardCharsets.UTF_8);
+
+        DataOutputStream out = recordStreams[partitionOf(pkHashBytes, partitions)];
+        out.write(pkHashBytes);
+        out.write(columnHashBytes);
+        out.writeLong(pkOffset);
+        out.writeInt(pkBytes.length);
+
+        pkStream.write(pkBytes);
+        pkOffset += pkBytes.length;
+    }
+
+    private static boolean isMd5Hex(String hash) {
+        if (hash == null || hash.length() != HASH_BYTES * 2) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records file for a partition.
+     *
+     * @param partition Partition number
+     * @return Path of the records file
+     */
+    public Path getRecordFile(int partition) {
+        return recordFiles[partition];
+    }
+
+    /**
+     * Partition a key hash.  Uses the leading four bytes, leaving the trailing bytes
+     * uncorrelated for the in-memory hash table built while matching.
+     *
+     * @param pkHash Primary key hash bytes
+     * @param partitions Number of partitions
+     * @return Partition number
+     */
+    static int partitionOf(byte[] pkHash, int partitions) {
+        long lead = ((pkHash[0] & 0xFFL) << 24) | ((pkHash[1] & 0xFFL) << 16) | ((pkHash[2] & 0xFFL) << 8) | (pkHash[3] & 0xFFL);
+        return (int) (lead % partitions);
+    }
+
+    /**
+     * Flush and close all spill files.
+     *
+     * @throws IOException if a flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (DataOutputStream out : recordStreams) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        try {
+            pkStream.close();
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -25,7 +25,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static com.crunchydata.util.DataTypeCastingUtils.cast;
+import static com.crunchydata.util.DataTypeCastingUtils.castDigest;
 import static com.crunchydata.util.DataTypeCastingUtils.castRaw;
+import static com.crunchydata.util.DataTypeCastingUtils.isOracleLob;
 import static com.crunchydata.util.DataProcessingUtils.ShouldQuoteString;
 import static com.crunchydata.util.JsonProcessingUtils.buildJsonExpression;
 import static com.crunchydata.config.Settings.Props;
@@ -57,6 +59,7 @@ public class ColumnMetadataBuilder {
     private final List<String> columnExpressionList = new ArrayList<>();
     private final List<String> pkHash = new ArrayList<>();
     private final List<String> pkJSON = new ArrayList<>();
+    private final List<String> pkNames = new ArrayList<>();
     
     // Counters
     private int nbrColumns = 0;
@@ -141,11 +144,13 @@ public class ColumnMetadataBuilder {
         
         // Generate or use custom value expression
         String valueExpression = generateValueExpression(joColumn, columnName, dataType);
+        if (useDatabaseHash && isDigestCounterpart(columnObject, dataType)) {
+            valueExpression = castDigest(valueExpression, platform);
+        }
         joColumn.put("valueExpression", valueExpression);
         
-        LoggingUtils.write("debug", THREAD_NAME,
-            String.format("(%s) Mapping expression for column %s: %s", 
-                targetType, columnObject.getString("columnAlias"), valueExpression));
+        LoggingUtils.write("debug", THREAD_NAME, "(%s) Mapping expression for column %s: %s",
+                targetType, columnObject.getString("columnAlias"), valueExpression);
         
         // Process based on whether it's a primary key
         if (joColumn.getBoolean("primaryKey")) {
@@ -169,6 +174,7 @@ public class ColumnMetadataBuilder {
         pkHash.add(joColumn.getString("valueExpression"));
         pkList.add(columnName);
         pkJSON.add(buildJsonExpression(platform, columnName, dataClass, concatOperator, replaceSyntax));
+        pkNames.add(joColumn.getString("columnName"));
     }
     
     /**
@@ -225,6 +231,29 @@ public class ColumnMetadataBuilder {
             : cast(dataType, columnName, platform, joColumn);
     }
     
+    /**
+     * Indicates whether the column is mapped to an Oracle LOB on the other side.  The LOB is
+     * hashed by the database, so this side has to contribute the digest of its value too.
+     *
+     * @param columnObject JSON object representing the column
+     * @param dataType Data type on this side
+     * @return True if the value must be replaced with its digest
+     */
+    private boolean isDigestCounterpart(JSONObject columnObject, String dataType) {
+        String otherType = "source".equals(targetType) ? "target" : "source";
+        JSONObject joOther = columnObject.optJSONObject(otherType);
+        if (joOther == null || isOracleLob(dataType, platform)) {
+            return false;
+        }
+
+        // Custom expressions are used as given
+        JSONObject joColumn = columnObject.getJSONObject(targetType);
+        boolean customExpression = !joColumn.isNull("valueExpression") && !joColumn.getString("valueExpression").isEmpty();
+
+        return !customExpression && !joColumn.getBoolean("primaryKey")
+                && isOracleLob(joOther.getString("dataType").toLowerCase(), Props.getProperty(otherType + "-type"));
+    }
+
     /**
      * Log information about a skipped column.
      * 
@@ -264,7 +293,8 @@ public class ColumnMetadataBuilder {
             finalColumnExpressionList, 
             finalPkHash, 
             finalPkList, 
-            finalPkJson
+            finalPkJson,
+            List.copyOf(pkNames)
         );
     }
     
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.database;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Reads the rows of a Postgres query streamed with {@code COPY (query) TO STDOUT}.
+ *
+ * <p>The server sends one text format row per copy message.  Each row is split into field
+ * offsets in place and a field is only decoded to a String when it is read, so no per-row
+ * result objects are built and unread columns cost nothing beyond the scan for tabs.
+ * Values are the same text output functions used for a JDBC text result, so rows compare
+ * equal to those read through a ResultSet.  Unlike a JDBC query on an auto-commit
+ * connection, the rows are streamed instead of buffered in memory.</p>
+ *
+ * @author Brian Pace
+ */
+public class CopyRowReader implements RowReader {
+
+    private static final byte TAB = '\t';
+    private static final byte NEWLINE = '\n';
+    private static final byte BACKSLASH = '\\';
+
+    private final CopyOut copyOut;
+
+    private byte[] row;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fields = 0;
+    private byte[] unescaped = new byte[256];
+
+    /**
+     * Start streaming a query.
+     *
+     * @param conn Postgres connection
+     * @param sql Query to stream
+     * @throws SQLException if the copy cannot be started
+     */
+    public CopyRowReader(Connection conn, String sql) throws SQLException {
+        this.copyOut = conn.unwrap(PGConnection.class).getCopyAPI().copyOut("COPY (" + sql + ") TO STDOUT");
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        row = copyOut.readFromCopy();
+        if (row == null) {
+            return false;
+        }
+
+        int length = row.length;
+        if (length > 0 && row[length - 1] == NEWLINE) {
+            length--;
+        }
+
+        fields = 0;
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || row[i] == TAB) {
+                if (fields == starts.length) {
+                    starts = Arrays.copyOf(starts, fields * 2);
+                    ends = Arrays.copyOf(ends, fields * 2);
+                }
+                starts[fields] = start;
+                ends[fields] = i;
+                fields++;
+                start = i + 1;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getString(int column) throws SQLException {
+        if (column < 1 || column > fields) {
+            throw new SQLException(String.format("Column %d out of range, row has %d columns", column, fields));
+        }
+
+        int start = starts[column - 1];
+        int end = ends[column - 1];
+
+        // \N is the NULL marker, a backslash in data is always escaped
+        if (end - start == 2 && row[start] == BACKSLASH && row[start + 1] == 'N') {
+            return null;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (row[i] == BACKSLASH) {
+                return unescape(start, end);
+            }
+        }
+        return new String(row, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode a field containing backslash escapes.
+     */
+    private String unescape(int start, int end) {
+        if (unescaped.length < end - start) {
+            unescaped = new byte[end - start];
+        }
+
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            byte b = row[i++];
+            if (b != BACKSLASH || i == end) {
+                unescaped[n++] = b;
+                continue;
+            }
+
+            byte c = row[i++];
+            switch (c) {
+                case 'b' -> unescaped[n++] = '\b';
+                case 'f' -> unescaped[n++] = '\f';
+                case 'n' -> unescaped[n++] = '\n';
+                case 'r' -> unescaped[n++] = '\r';
+                case 't' -> unescaped[n++] = '\t';
+                case 'v' -> unescaped[n++] = 0x0B;
+                case 'x' -> {
+                    int value = 0;
+                    int digits = 0;
+                    while (digits < 2 && i < end && Character.digit(row[i], 16) >= 0) {
+                        value = value * 16 + Character.digit(row[i++], 16);
+                        digits++;
+                    }
+                    unescaped[n++] = (byte) ((digits == 0) ? 'x' : value);
+                }
+                default -> {
+                    if (c >= '0' && c <= '7') {
+                        int value = c - '0';
+                        int digits = 1;
+                        while (digits < 3 && i < end && row[i] >= '0' && row[i] <= '7') {
+                            value = value * 8 + (row[i++] - '0');
+                            digits++;
+                        }
+                        unescaped[n++] = (byte) value;
+                    } else {
+                        unescaped[n++] = c;
+                    }
+                }
+            }
+        }
+
+        return new String(unescaped, 0, n, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cancel the copy if it was not read to the end, so the connection can be reused or closed.
+     *
+     * @throws SQLException if the copy cannot be cancelled
+     */
+    @Override
+    public void close() throws SQLException {
+        if (copyOut.isActive()) {
+            copyOut.cancelCopy();
+        }
+    }
+
+}
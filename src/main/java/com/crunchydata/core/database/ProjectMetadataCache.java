@@ -0,0 +1,311 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.database;
+
+import com.crunchydata.model.DataComparisonTableMap;
+import com.crunchydata.util.LoggingUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.crunchydata.config.sql.RepoSQLConstants.*;
+import static com.crunchydata.util.DataProcessingUtils.ShouldQuoteString;
+
+/**
+ * Project scoped, read-only snapshot of the table and column mapping metadata.
+ *
+ * <p>The dc_table, dc_table_map, dc_table_column and dc_table_column_map rows for a
+ * project are read with one set-based query each and held as immutable records, so the
+ * per-table and per-row lookups during compare and check are served from memory.  The
+ * cache is safe to share between threads once loaded.</p>
+ *
+ * @author Brian Pace
+ */
+public class ProjectMetadataCache {
+
+    private static final String THREAD_NAME = "metadata-cache";
+
+    private final Map<Integer, TableEntry> tables;
+    private final Map<Integer, Map<String, TableMapEntry>> tableMaps;
+    private final Map<Integer, List<ColumnEntry>> columns;
+
+    private ProjectMetadataCache(Map<Integer, TableEntry> tables, Map<Integer, Map<String, TableMapEntry>> tableMaps,
+                                 Map<Integer, List<ColumnEntry>> columns) {
+        this.tables = tables;
+        this.tableMaps = tableMaps;
+        this.columns = columns;
+    }
+
+    /**
+     * Load the metadata for all tables in a project.
+     *
+     * @param connRepo Repository connection
+     * @param pid Project ID
+     * @return Loaded cache
+     * @throws SQLException if the repository queries fail
+     */
+    public static ProjectMetadataCache load(Connection connRepo, Integer pid) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        ArrayList<Object> binds = new ArrayList<>();
+        binds.add(pid);
+
+        Map<Integer, TableEntry> tables = new HashMap<>();
+        try (CachedRowSet crs = select(connRepo, SQL_REPO_CACHE_DCTABLE_BYPID, binds)) {
+            while (crs.next()) {
+                TableEntry t = new TableEntry(crs.getInt("pid"), crs.getInt("tid"), crs.getString("table_alias"),
+                        crs.getBoolean("enabled"), crs.getInt("batch_nbr"), crs.getInt("parallel_degree"));
+                tables.put(t.tid(), t);
+            }
+        }
+
+        Map<Integer, Map<String, TableMapEntry>> tableMaps = new HashMap<>();
+        try (CachedRowSet crs = select(connRepo, SQL_REPO_CACHE_DCTABLEMAP_BYPID, binds)) {
+            while (crs.next()) {
+                TableMapEntry m = new TableMapEntry(crs.getInt("tid"), crs.getString("dest_type"), crs.getString("schema_name"),
+                        crs.getString("table_name"), crs.getString("mod_column"), crs.getString("table_filter"),
+                        crs.getBoolean("schema_preserve_case"), crs.getBoolean("table_preserve_case"),
+                        (Integer) crs.getObject("scan_parallel"), crs.getString("query_hint"));
+                tableMaps.computeIfAbsent(m.tid(), k -> new HashMap<>()).put(m.destType(), m);
+            }
+        }
+
+        // Column maps keyed by tid, column_id and origin
+        Map<Integer, Map<Integer, Map<String, ColumnMapEntry>>> columnMaps = new HashMap<>();
+        try (CachedRowSet crs = select(connRepo, SQL_REPO_CACHE_DCTABLECOLUMNMAP_BYPID, binds)) {
+            while (crs.next()) {
+                ColumnMapEntry cm = new ColumnMapEntry(crs.getString("column_name"), crs.getString("data_type"),
+                        crs.getString("data_class"), (Integer) crs.getObject("data_length"),
+                        (Integer) crs.getObject("number_precision"), (Integer) crs.getObject("number_scale"),
+                        (Boolean) crs.getObject("column_nullable"), (Boolean) crs.getObject("column_primarykey"),
+                        crs.getString("map_expression"), (Boolean) crs.getObject("supported"),
+                        (Boolean) crs.getObject("preserve_case"), crs.getString("map_type"));
+                columnMaps.computeIfAbsent(crs.getInt("tid"), k -> new HashMap<>())
+                        .computeIfAbsent(crs.getInt("column_id"), k -> new HashMap<>())
+                        .put(crs.getString("column_origin"), cm);
+            }
+        }
+
+        // Only columns mapped on both sides take part in a compare
+        Map<Integer, List<ColumnEntry>> columns = new HashMap<>();
+        try (CachedRowSet crs = select(connRepo, SQL_REPO_CACHE_DCTABLECOLUMN_BYPID, binds)) {
+            while (crs.next()) {
+                int tid = crs.getInt("tid");
+                int columnId = crs.getInt("column_id");
+                Map<String, ColumnMapEntry> origins = columnMaps.getOrDefault(tid, Map.of()).getOrDefault(columnId, Map.of());
+
+                if (origins.containsKey("source") && origins.containsKey("target")) {
+                    columns.computeIfAbsent(tid, k -> new ArrayList<>()).add(new ColumnEntry(columnId, crs.getString("column_alias"),
+                            crs.getBoolean("enabled"), origins.get("source"), origins.get("target")));
+                }
+            }
+        }
+
+        Map<Integer, Map<String, TableMapEntry>> frozenMaps = new HashMap<>();
+        tableMaps.forEach((tid, m) -> frozenMaps.put(tid, Map.copyOf(m)));
+        Map<Integer, List<ColumnEntry>> frozenColumns = new HashMap<>();
+        columns.forEach((tid, c) -> frozenColumns.put(tid, List.copyOf(c)));
+
+        LoggingUtils.write("info", THREAD_NAME, String.format("Loaded metadata for %d tables in %d ms",
+                tables.size(), System.currentTimeMillis() - startTime));
+
+        return new ProjectMetadataCache(Map.copyOf(tables), Map.copyOf(frozenMaps), Map.copyOf(frozenColumns));
+    }
+
+    private static CachedRowSet select(Connection connRepo, String sql, ArrayList<Object> binds) throws SQLException {
+        CachedRowSet crs = SQLExecutionHelper.simpleSelect(connRepo, sql, binds);
+        if (crs == null) {
+            throw new SQLException("Unable to load project metadata");
+        }
+        return crs;
+    }
+
+    /**
+     * Get the cached dc_table row.
+     *
+     * @param tid Table ID
+     * @return Table entry, or null if the table is not part of the project
+     */
+    public TableEntry getTable(Integer tid) {
+        return tables.get(tid);
+    }
+
+    /**
+     * Get a new, mutable table map model for a table and destination.
+     *
+     * @param tid Table ID
+     * @param destType Destination type (source/target)
+     * @return Table map model (empty when no mapping exists)
+     */
+    public DataComparisonTableMap getTableMap(Integer tid, String destType) {
+        TableMapEntry m = tableMaps.getOrDefault(tid, Map.of()).get(destType);
+        DataComparisonTableMap dctm = new DataComparisonTableMap();
+
+        if (m != null) {
+            dctm.setTid(m.tid());
+            dctm.setDestType(m.destType());
+            dctm.setSchemaName(m.schemaName());
+            dctm.setTableName(m.tableName());
+            dctm.setModColumn(m.modColumn());
+            dctm.setTableFilter(m.tableFilter());
+            dctm.setSchemaPreserveCase(m.schemaPreserveCase());
+            dctm.setTablePreserveCase(m.tablePreserveCase());
+            dctm.setScanParallel(m.scanParallel());
+            dctm.setQueryHint(m.queryHint());
+        }
+
+        return dctm;
+    }
+
+    /**
+     * Get the columns mapped on both source and target for a table.
+     *
+     * @param tid Table ID
+     * @return Column entries ordered by column ID
+     */
+    public List<ColumnEntry> getColumns(Integer tid) {
+        return columns.getOrDefault(tid, List.of());
+    }
+
+    /**
+     * Build the column mapping document used by the column metadata builder and fix
+     * generation.  A new object is returned on each call since consumers modify it.
+     *
+     * @param tid Table ID
+     * @return Column mapping, or null when the table has no mapped columns
+     */
+    public JSONObject getColumnMapping(Integer tid) {
+        List<ColumnEntry> cols = columns.get(tid);
+        TableEntry table = tables.get(tid);
+
+        if (cols == null || table == null) {
+            return null;
+        }
+
+        JSONArray columnArray = new JSONArray();
+        for (ColumnEntry c : cols) {
+            JSONObject column = new JSONObject();
+            column.put("columnID", c.columnId());
+            column.put("columnAlias", c.columnAlias());
+            column.put("enabled", c.enabled());
+            column.put("source", c.source().toJSON());
+            column.put("target", c.target().toJSON());
+            columnArray.put(column);
+        }
+
+        JSONObject mapping = new JSONObject();
+        mapping.put("tid", tid);
+        mapping.put("tableAlias", table.tableAlias());
+        mapping.put("columns", columnArray);
+
+        return mapping;
+    }
+
+    /**
+     * Find the column alias for a column name on the given side.
+     *
+     * @param tid Table ID
+     * @param columnName Column name (case-insensitive)
+     * @param side Side to search (source/target)
+     * @return Column alias, or null if not found
+     */
+    public String findColumnAlias(Integer tid, String columnName, String side) {
+        for (ColumnEntry c : getColumns(tid)) {
+            ColumnMapEntry cm = "source".equals(side) ? c.source() : c.target();
+            if (columnName.equalsIgnoreCase(cm.columnName())) {
+                return c.columnAlias();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create an equality filter on the mapped column for a column alias.
+     *
+     * @param tid Table ID
+     * @param columnAlias Column alias
+     * @param side Side (source/target)
+     * @param quoteChar Platform quote character
+     * @return Filter clause of the form " AND column = ?", or an empty string
+     */
+    public String createColumnFilterClause(Integer tid, String columnAlias, String side, String quoteChar) {
+        for (ColumnEntry c : getColumns(tid)) {
+            if (c.columnAlias().equals(columnAlias)) {
+                ColumnMapEntry cm = "source".equals(side) ? c.source() : c.target();
+                return " AND " + ShouldQuoteString(Boolean.TRUE.equals(cm.preserveCase()), cm.columnName(), quoteChar) + " = ?";
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Cached dc_table row.
+     */
+    public record TableEntry(Integer pid, Integer tid, String tableAlias, boolean enabled, Integer batchNbr, Integer parallelDegree) { }
+
+    /**
+     * Cached dc_table_map row.
+     */
+    public record TableMapEntry(Integer tid, String destType, String schemaName, String tableName, String modColumn,
+                                String tableFilter, boolean schemaPreserveCase, boolean tablePreserveCase,
+                                Integer scanParallel, String queryHint) { }
+
+    /**
+     * Cached dc_table_column row with its source and target mappings.
+     */
+    public record ColumnEntry(Integer columnId, String columnAlias, boolean enabled, ColumnMapEntry source, ColumnMapEntry target) { }
+
+    /**
+     * Cached dc_table_column_map row.
+     */
+    public record ColumnMapEntry(String columnName, String dataType, String dataClass, Integer dataLength,
+                                 Integer numberPrecision, Integer numberScale, Boolean nullable, Boolean primaryKey,
+                                 String valueExpression, Boolean supported, Boolean preserveCase, String mapType) {
+
+        /**
+         * Render the mapping in the same shape as the repository column map aggregation.
+         *
+         * @return Column information as JSON
+         */
+        JSONObject toJSON() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("columnName", columnName);
+            values.put("dataType", dataType);
+            values.put("dataClass", dataClass);
+            values.put("dataLength", dataLength);
+            values.put("numberPrecision", numberPrecision);
+            values.put("numberScale", numberScale);
+            values.put("nullable", nullable);
+            values.put("primaryKey", primaryKey);
+            values.put("valueExpression", valueExpression);
+            values.put("supported", supported);
+            values.put("preserveCase", preserveCase);
+            values.put("mapType", mapType);
+
+            JSONObject jo = new JSONObject();
+            values.forEach((k, v) -> jo.put(k, v == null ? JSONObject.NULL : v));
+            return jo;
+        }
+    }
+}
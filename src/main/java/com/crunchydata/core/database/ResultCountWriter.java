@@ -0,0 +1,207 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.database;
+
+import com.crunchydata.util.LoggingUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.crunchydata.config.Settings.Props;
+import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCRESULT_UPDATE_ALLCOUNTS;
+import static com.crunchydata.service.DatabaseConnectionService.getConnection;
+
+/**
+ * Single background writer for the row counts of dc_result.
+ * Compare and observer threads add their count deltas to striped counters per compare ID
+ * without touching the repository.  A daemon thread drains the counters on a fixed interval
+ * and applies them with one batched update per flush, so each dc_result row is updated by
+ * one session instead of every thread.  Callers flush a compare ID explicitly before reading
+ * its final counts.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class ResultCountWriter {
+
+    private static final String THREAD_NAME = "result-writer";
+
+    // Private constructor to prevent instantiation
+    private ResultCountWriter() {
+        throw new UnsupportedOperationException("ResultCountWriter is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Pending deltas of one dc_result row.
+     */
+    private static class Counts {
+        final LongAdder equal = new LongAdder();
+        final LongAdder source = new LongAdder();
+        final LongAdder target = new LongAdder();
+    }
+
+    private static final Map<Integer, Counts> pending = new ConcurrentHashMap<>();
+    private static Thread flusher;
+
+    /**
+     * Add matched rows to the equal count.
+     *
+     * @param cid Compare ID
+     * @param rows Rows to add
+     */
+    public static void addEqual(Integer cid, long rows) {
+        counts(cid).equal.add(rows);
+    }
+
+    /**
+     * Add rows read from the source or target.
+     *
+     * @param cid Compare ID
+     * @param targetType source or target
+     * @param rows Rows to add
+     */
+    public static void addRows(Integer cid, String targetType, long rows) {
+        Counts counts = counts(cid);
+        if ("source".equals(targetType)) {
+            counts.source.add(rows);
+        } else {
+            counts.target.add(rows);
+        }
+    }
+
+    private static Counts counts(Integer cid) {
+        Counts counts = pending.get(cid);
+        if (counts == null) {
+            counts = pending.computeIfAbsent(cid, k -> new Counts());
+            startFlusher();
+        }
+        return counts;
+    }
+
+    /**
+     * Write the pending deltas of a compare ID and forget it.  Called once the compare
+     * threads of a table have finished, before its counts are summarized.
+     *
+     * @param conn Repository connection
+     * @param cid Compare ID
+     */
+    public static void flush(Connection conn, Integer cid) {
+        Counts counts = pending.remove(cid);
+        if (counts != null) {
+            write(conn, Map.of(cid, counts));
+        }
+    }
+
+    /**
+     * Write the pending deltas of every compare ID with one batch.  Synchronized so an
+     * explicit flush waits for a background write of the same counters to commit.  Deltas
+     * of a failed write are added back for the next flush.
+     */
+    private static synchronized void write(Connection conn, Map<Integer, Counts> deltas) {
+        List<Object[]> drained = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_REPO_DCRESULT_UPDATE_ALLCOUNTS)) {
+            for (Map.Entry<Integer, Counts> entry : deltas.entrySet()) {
+                Counts counts = entry.getValue();
+                long equal = counts.equal.sumThenReset();
+                long source = counts.source.sumThenReset();
+                long target = counts.target.sumThenReset();
+
+                if (equal == 0 && source == 0 && target == 0) {
+                    continue;
+                }
+
+                drained.add(new Object[]{counts, equal, source, target});
+                stmt.setLong(1, equal);
+                stmt.setLong(2, source);
+                stmt.setLong(3, target);
+                stmt.setInt(4, entry.getKey());
+                stmt.addBatch();
+            }
+
+            if (!drained.isEmpty()) {
+                stmt.executeBatch();
+                if (!conn.getAutoCommit()) {
+                    conn.commit();
+                }
+            }
+        } catch (SQLException e) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Error updating result counts: %s", e.getMessage()));
+            try {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+            } catch (SQLException re) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Error rolling back result counts: %s", re.getMessage()));
+            }
+
+            for (Object[] delta : drained) {
+                Counts counts = (Counts) delta[0];
+                counts.equal.add((long) delta[1]);
+                counts.source.add((long) delta[2]);
+                counts.target.add((long) delta[3]);
+            }
+        }
+    }
+
+    /**
+     * Start the daemon thread draining the counters, once per process.
+     */
+    private static synchronized void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+
+        long interval = Long.parseLong(Props.getProperty("result-flush-interval", "1000"));
+
+        flusher = new Thread(() -> {
+            Connection conn = getConnection("postgres", "repo");
+            if (conn == null) {
+                LoggingUtils.write("warning", THREAD_NAME, "Cannot connect to repository database, counts written at end of table");
+                return;
+            }
+
+            try {
+                conn.setAutoCommit(false);
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(interval);
+                    write(conn, pending);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (SQLException e) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Result count writer stopped: %s", e.getMessage()));
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    // Connection is discarded
+                }
+            }
+        }, THREAD_NAME);
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Forward-only access to the text columns of the rows returned by a compare query, either
+ * from a JDBC {@link ResultSet} or from a {@link CopyRowReader} stream.
+ *
+ * @author Brian Pace
+ */
+public interface RowReader extends AutoCloseable {
+
+    /**
+     * Advance to the next row.
+     *
+     * @return False when no rows are left
+     * @throws SQLException if reading fails
+     */
+    boolean next() throws SQLException;
+
+    /**
+     * Text value of a column of the current row.
+     *
+     * @param column Column position, starting at 1
+     * @return Column value, null for SQL NULL
+     * @throws SQLException if reading fails
+     */
+    String getString(int column) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * Read rows from a result set.  Closing the reader closes the result set.
+     *
+     * @param rs Result set
+     * @return Row reader
+     */
+    static RowReader of(ResultSet rs) {
+        return new RowReader() {
+            @Override
+            public boolean next() throws SQLException {
+                return rs.next();
+            }
+
+            @Override
+            public String getString(int column) throws SQLException {
+                return rs.getString(column);
+            }
+
+            @Override
+            public void close() throws SQLException {
+                rs.close();
+            }
+        };
+    }
+
+}
@@ -87,7 +87,7 @@ public class SQLExecutionHelper {
             
             long executionTime = System.currentTimeMillis() - startTime;
             LoggingUtils.write("debug", THREAD_NAME,
-                String.format("Query executed successfully in %dms: %s", executionTime, sql));
+                "Query executed successfully in %dms: %s", executionTime, sql);
                 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -207,7 +207,7 @@ public class SQLExecutionHelper {
             
             long executionTime = System.currentTimeMillis() - startTime;
             LoggingUtils.write("debug", THREAD_NAME,
-                String.format("Integer query executed successfully in %dms: %s", executionTime, sql));
+                "Integer query executed successfully in %dms: %s", executionTime, sql);
                 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -250,7 +250,7 @@ public class SQLExecutionHelper {
             
             long executionTime = System.currentTimeMillis() - startTime;
             LoggingUtils.write("debug", THREAD_NAME,
-                String.format("String query executed successfully in %dms: %s", executionTime, sql));
+                "String query executed successfully in %dms: %s", executionTime, sql);
                 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -273,22 +273,22 @@ public class SQLExecutionHelper {
      * @param sql The SQL query to execute, with placeholders for parameters
      * @param binds The ArrayList containing the parameters to bind to the PreparedStatement
      * @param commit Whether to commit the transaction after execution
-     * @return Integer containing the number of rows impacted by the query, -1 if error occurs
+     * @return Long containing the number of rows impacted by the query, -1 if error occurs
      * @throws IllegalArgumentException if required parameters are null
      */
-    public static Integer simpleUpdate(Connection conn, String sql, ArrayList<Object> binds, Boolean commit) {
+    public static Long simpleUpdate(Connection conn, String sql, ArrayList<Object> binds, Boolean commit) {
         validateParameters(conn, sql, binds);
         Objects.requireNonNull(commit, "Commit parameter cannot be null");
         
         long startTime = System.currentTimeMillis();
-        int cnt = -1;
+        long cnt = -1;
         
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setFetchSize(DEFAULT_FETCH_SIZE);
             bindParameters(stmt, binds);
             
             // Execute the query and get impacted row count
-            cnt = stmt.executeUpdate();
+            cnt = stmt.executeLargeUpdate();
             
             // Conditionally commit transaction
             if (commit) {
@@ -297,7 +297,7 @@ public class SQLExecutionHelper {
             
             long executionTime = System.currentTimeMillis() - startTime;
             LoggingUtils.write("debug", THREAD_NAME,
-                String.format("Update executed successfully in %dms, affected %d rows: %s", executionTime, cnt, sql));
+                "Update executed successfully in %dms, affected %d rows: %s", executionTime, cnt, sql);
                 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -366,7 +366,7 @@ public class SQLExecutionHelper {
             
             long executionTime = System.currentTimeMillis() - startTime;
             LoggingUtils.write("debug", THREAD_NAME,
-                String.format("Batch executed successfully in %dms, %d statements", executionTime, sqlStatements.size()));
+                "Batch executed successfully in %dms, %d statements", executionTime, sqlStatements.size());
                 
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
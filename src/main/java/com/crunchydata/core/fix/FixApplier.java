@@ -0,0 +1,369 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.fix;
+
+import com.crunchydata.service.DatabaseConnectionService;
+import com.crunchydata.util.LoggingUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.crunchydata.config.Settings.Props;
+
+/**
+ * Applies repairs directly to the target with parameterized, batched statements.
+ * Rows are grouped per repair type into transactions of a fixed size; each transaction
+ * runs as one JDBC batch on a connection borrowed from a small pool of target connections,
+ * so several transactions are applied in parallel.  An optional rate limit caps the
+ * rows written per second across all connections.
+ *
+ * @author Brian Pace
+ */
+public class FixApplier implements FixSink {
+
+    private static final String THREAD_NAME = "fix-apply";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private final FixTableMapping mapping;
+    private final int transactionSize;
+    private final double rowsPerSecond;
+
+    private final String insertSQL;
+    private final String updateSQL;
+    private final String deleteSQL;
+
+    private final List<Object[]> inserts = new ArrayList<>();
+    private final List<Object[]> updates = new ArrayList<>();
+    private final List<Object[]> deletes = new ArrayList<>();
+
+    private final BlockingQueue<Connection> connections;
+    private final ExecutorService executor;
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    // Connections returned by a transaction after close are closed instead of pooled
+    private boolean closed = false;
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long count = 0;
+    private long nextPermitNanos = System.nanoTime();
+
+    /**
+     * Open the target connections used to apply the repairs of a table.
+     *
+     * @param mapping Column mapping of the table
+     * @param threads Number of target connections applying transactions in parallel
+     * @param transactionSize Rows per transaction
+     * @param rowsPerSecond Maximum rows applied per second, 0 for no limit
+     */
+    public FixApplier(FixTableMapping mapping, int threads, int transactionSize, double rowsPerSecond) {
+        this.mapping = mapping;
+        this.transactionSize = Math.max(1, transactionSize);
+        this.rowsPerSecond = rowsPerSecond;
+
+        this.insertSQL = buildInsert();
+        this.updateSQL = buildUpdate();
+        this.deleteSQL = buildDelete();
+
+        int poolSize = Math.max(1, threads);
+        this.connections = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            Connection conn = DatabaseConnectionService.getConnection(Props.getProperty("target-type"), "target");
+            if (conn == null) {
+                closeConnections();
+                throw new RuntimeException("Cannot connect to target database to apply fixes");
+            }
+            connections.add(conn);
+        }
+        this.executor = Executors.newFixedThreadPool(poolSize);
+    }
+
+    @Override
+    public void insert(Object[] row) {
+        add(inserts, insertSQL, row);
+    }
+
+    @Override
+    public void update(Object[] row) {
+        // Key-only tables have nothing to update
+        if (updateSQL != null) {
+            add(updates, updateSQL, updateBinds(row));
+        }
+    }
+
+    @Override
+    public void delete(Object[] pkValues) {
+        add(deletes, deleteSQL, pkValues);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Rows committed on the target.
+     *
+     * @return Applied row count
+     */
+    public long getApplied() {
+        return applied.get();
+    }
+
+    /**
+     * Rows of transactions that were rolled back.
+     *
+     * @return Failed row count
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void add(List<Object[]> transaction, String sql, Object[] binds) {
+        transaction.add(binds);
+        count++;
+        if (transaction.size() >= transactionSize) {
+            submit(sql, transaction);
+        }
+    }
+
+    /**
+     * Hand a full transaction to the pool.
+     */
+    private void submit(String sql, List<Object[]> transaction) {
+        if (transaction.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(transaction);
+        transaction.clear();
+        pending.add(executor.submit(() -> apply(sql, rows)));
+    }
+
+    /**
+     * Run a transaction as one batch on a pooled connection.
+     */
+    private void apply(String sql, List<Object[]> rows) {
+        throttle(rows.size());
+
+        Connection conn;
+        try {
+            conn = connections.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.addAndGet(rows.size());
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Object[] binds : rows) {
+                for (int i = 0; i < binds.length; i++) {
+                    stmt.setObject(i + 1, binds[i]);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            applied.addAndGet(rows.size());
+        } catch (SQLException e) {
+            failed.addAndGet(rows.size());
+            LoggingUtils.write("severe", THREAD_NAME, String.format("Error applying %d fixes to %s: %s", rows.size(), mapping.getTargetTable(), e.getMessage()));
+            try {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+            } catch (SQLException re) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Error rolling back fixes: %s", re.getMessage()));
+            }
+        } finally {
+            release(conn);
+        }
+    }
+
+    /**
+     * Return a connection to the pool, or close it if the applier is already closed.
+     */
+    private void release(Connection conn) {
+        synchronized (connections) {
+            if (!closed) {
+                connections.add(conn);
+                return;
+            }
+        }
+        closeConnection(conn);
+    }
+
+    /**
+     * Wait until the rate limit allows another transaction of the given size.
+     */
+    private void throttle(int rows) {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextPermitNanos);
+            nextPermitNanos = start + (long) (rows * 1_000_000_000L / rowsPerSecond);
+            waitNanos = start - now;
+        }
+
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private String buildInsert() {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(mapping.getTargetTable())
+                .append(" (").append(String.join(", ", mapping.getTargetColumns())).append(") VALUES (");
+        for (int i = 0; i < mapping.getTargetColumns().size(); i++) {
+            sql.append((i == 0) ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+
+    private String buildUpdate() {
+        StringBuilder set = new StringBuilder();
+        for (int i = 0; i < mapping.getTargetColumns().size(); i++) {
+            if (!mapping.isPk(i)) {
+                set.append(set.isEmpty() ? "" : ", ").append(mapping.getTargetColumns().get(i)).append(" = ?");
+            }
+        }
+        if (set.isEmpty()) {
+            return null;
+        }
+        return "UPDATE " + mapping.getTargetTable() + " SET " + set + " WHERE " + pkPredicate();
+    }
+
+    private String buildDelete() {
+        return "DELETE FROM " + mapping.getTargetTable() + " WHERE " + pkPredicate();
+    }
+
+    private String pkPredicate() {
+        StringBuilder predicate = new StringBuilder();
+        for (int p : mapping.getPkPositions()) {
+            predicate.append(predicate.isEmpty() ? "" : " AND ").append(mapping.getTargetColumns().get(p)).append(" = ?");
+        }
+        return predicate.toString();
+    }
+
+    /**
+     * Reorder a row to the update binds: non-key values followed by the key values.
+     */
+    private Object[] updateBinds(Object[] row) {
+        Object[] binds = new Object[row.length];
+        int b = 0;
+        for (int i = 0; i < row.length; i++) {
+            if (!mapping.isPk(i)) {
+                binds[b++] = row[i];
+            }
+        }
+        for (int p : mapping.getPkPositions()) {
+            binds[b++] = row[p];
+        }
+        return binds;
+    }
+
+    private void closeConnections() {
+        List<Connection> pooled = new ArrayList<>();
+        synchronized (connections) {
+            closed = true;
+            connections.drainTo(pooled);
+        }
+        pooled.forEach(FixApplier::closeConnection);
+    }
+
+    private static void closeConnection(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Error closing target connection: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the pool, cancelling the queued transactions unless all completed, and wait a
+     * bounded time for running transactions to return their connections.
+     */
+    private void shutdown(boolean completed) {
+        if (completed) {
+            executor.shutdown();
+        } else {
+            executor.shutdownNow();
+        }
+
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Fixes to %s still running after %d seconds, their connections are closed when they finish", mapping.getTargetTable(), SHUTDOWN_TIMEOUT_SECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Apply the remaining rows, wait for all transactions and close the target connections.
+     * When interrupted while waiting, the interrupt status is restored.
+     *
+     * @throws IOException if waiting for a transaction is interrupted or a transaction fails unexpectedly
+     */
+    @Override
+    public void close() throws IOException {
+        boolean completed = false;
+        try {
+            submit(deleteSQL, deletes);
+            submit(insertSQL, inserts);
+            if (updateSQL != null) {
+                submit(updateSQL, updates);
+            }
+
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while applying fixes to " + mapping.getTargetTable());
+        } catch (ExecutionException e) {
+            throw new IOException("Error applying fixes to " + mapping.getTargetTable(), e.getCause());
+        } finally {
+            shutdown(completed);
+            closeConnections();
+        }
+    }
+
+}
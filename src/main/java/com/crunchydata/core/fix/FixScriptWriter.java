@@ -0,0 +1,314 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.fix;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.crunchydata.service.SQLFixGenerationService.formatValue;
+
+/**
+ * Streams fix statements for one table to SQL scripts as they are generated.
+ * Rows are grouped into chunks rendered as a single multi-row statement per chunk:
+ * INSERT with a VALUES list (INSERT ALL on Oracle), an upsert for updates (ON CONFLICT,
+ * ON DUPLICATE KEY or MERGE depending on the target platform) and DELETE with an IN list.
+ * When a maximum file size is set the script is rotated into numbered files.
+ *
+ * @author Brian Pace
+ */
+public class FixScriptWriter implements FixSink {
+
+    private static final String NL = System.lineSeparator();
+
+    // SQL Server limits a table value constructor to 1000 rows
+    private static final int MSSQL_MAX_VALUES_ROWS = 1000;
+
+    private final FixTableMapping mapping;
+    private final String platform;
+    private final Path baseFile;
+    private final int chunkRows;
+    private final long maxFileBytes;
+
+    private final List<Object[]> inserts = new ArrayList<>();
+    private final List<Object[]> updates = new ArrayList<>();
+    private final List<Object[]> deletes = new ArrayList<>();
+
+    @Getter
+    private final List<Path> files = new ArrayList<>();
+    private OutputStream out;
+    private long fileBytes;
+    @Getter
+    private long count = 0;
+    @Getter
+    private long statementCount = 0;
+
+    /**
+     * Create the first script file.
+     *
+     * @param file Script file, replaced if it exists; rotated files get a numbered suffix
+     * @param mapping Column mapping of the table
+     * @param chunkRows Rows per statement
+     * @param maxFileBytes Size after which a new file is started, 0 for a single file
+     * @throws IOException if the file cannot be created
+     */
+    public FixScriptWriter(Path file, FixTableMapping mapping, int chunkRows, long maxFileBytes) throws IOException {
+        this.baseFile = file;
+        this.mapping = mapping;
+        this.platform = mapping.getTargetPlatform();
+        this.chunkRows = "mssql".equals(platform) ? Math.min(Math.max(1, chunkRows), MSSQL_MAX_VALUES_ROWS) : Math.max(1, chunkRows);
+        this.maxFileBytes = maxFileBytes;
+        openFile();
+    }
+
+    @Override
+    public void insert(Object[] row) throws IOException {
+        add(inserts, row);
+    }
+
+    @Override
+    public void update(Object[] row) throws IOException {
+        // Key-only tables have nothing to update
+        if (mapping.getPkPositions().length < row.length) {
+            add(updates, row);
+        }
+    }
+
+    @Override
+    public void delete(Object[] pkValues) throws IOException {
+        add(deletes, pkValues);
+    }
+
+    private void add(List<Object[]> chunk, Object[] values) throws IOException {
+        chunk.add(values);
+        count++;
+        if (chunk.size() >= chunkRows) {
+            flush(chunk);
+        }
+    }
+
+    /**
+     * Render and write a chunk as one statement.
+     */
+    private void flush(List<Object[]> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        if (chunk == inserts) {
+            appendInsert(sql, chunk);
+        } else if (chunk == updates) {
+            appendUpsert(sql, chunk);
+        } else {
+            appendDelete(sql, chunk);
+        }
+        chunk.clear();
+
+        write(sql.append(NL));
+    }
+
+    private void appendInsert(StringBuilder sql, List<Object[]> rows) {
+        String columns = String.join(", ", mapping.getTargetColumns());
+
+        if ("oracle".equals(platform)) {
+            sql.append("INSERT ALL");
+            for (Object[] row : rows) {
+                sql.append(NL).append("  INTO ").append(mapping.getTargetTable()).append(" (").append(columns).append(") VALUES ");
+                appendValues(sql, row);
+            }
+            sql.append(NL).append("SELECT 1 FROM dual;");
+            return;
+        }
+
+        sql.append("INSERT INTO ").append(mapping.getTargetTable()).append(" (").append(columns).append(") VALUES");
+        appendValuesList(sql, rows);
+        sql.append(";");
+    }
+
+    private void appendUpsert(StringBuilder sql, List<Object[]> rows) {
+        List<String> columns = mapping.getTargetColumns();
+        String columnList = String.join(", ", columns);
+
+        switch (platform) {
+            case "postgres" -> {
+                sql.append("INSERT INTO ").append(mapping.getTargetTable()).append(" (").append(columnList).append(") VALUES");
+                appendValuesList(sql, rows);
+                sql.append(NL).append("ON CONFLICT (").append(pkColumnList()).append(") DO UPDATE SET ");
+                appendNonPk(sql, "%1$s = EXCLUDED.%1$s");
+                sql.append(";");
+            }
+            case "mysql", "mariadb" -> {
+                sql.append("INSERT INTO ").append(mapping.getTargetTable()).append(" (").append(columnList).append(") VALUES");
+                appendValuesList(sql, rows);
+                sql.append(NL).append("ON DUPLICATE KEY UPDATE ");
+                appendNonPk(sql, "%1$s = VALUES(%1$s)");
+                sql.append(";");
+            }
+            default -> {
+                sql.append("MERGE INTO ").append(mapping.getTargetTable()).append(" t").append(NL).append("USING (");
+                if ("oracle".equals(platform)) {
+                    for (int r = 0; r < rows.size(); r++) {
+                        sql.append((r == 0) ? "" : NL + "  UNION ALL ").append("SELECT ");
+                        Object[] row = rows.get(r);
+                        for (int i = 0; i < row.length; i++) {
+                            sql.append((i == 0) ? "" : ", ").append(formatValue(row[i], platform)).append(" AS ").append(columns.get(i));
+                        }
+                        sql.append(" FROM dual");
+                    }
+                    sql.append(") s");
+                } else if ("snowflake".equals(platform)) {
+                    sql.append("SELECT * FROM VALUES");
+                    appendValuesList(sql, rows);
+                    sql.append(" AS v (").append(columnList).append(")) s");
+                } else {
+                    sql.append("VALUES");
+                    appendValuesList(sql, rows);
+                    sql.append(") AS s (").append(columnList).append(")");
+                }
+
+                sql.append(NL).append("ON (");
+                int[] pk = mapping.getPkPositions();
+                for (int k = 0; k < pk.length; k++) {
+                    sql.append((k == 0) ? "" : " AND ").append("t.").append(columns.get(pk[k])).append(" = s.").append(columns.get(pk[k]));
+                }
+                sql.append(")").append(NL).append("WHEN MATCHED THEN UPDATE SET ");
+                appendNonPk(sql, "t.%1$s = s.%1$s");
+                sql.append(NL).append("WHEN NOT MATCHED THEN INSERT (").append(columnList).append(") VALUES (");
+                for (int i = 0; i < columns.size(); i++) {
+                    sql.append((i == 0) ? "" : ", ").append("s.").append(columns.get(i));
+                }
+                sql.append(");");
+            }
+        }
+    }
+
+    private void appendDelete(StringBuilder sql, List<Object[]> keys) {
+        int[] pk = mapping.getPkPositions();
+        sql.append("DELETE FROM ").append(mapping.getTargetTable()).append(" WHERE ");
+
+        if (pk.length == 1) {
+            sql.append(mapping.getTargetColumns().get(pk[0])).append(" IN (");
+            for (int r = 0; r < keys.size(); r++) {
+                sql.append((r == 0) ? "" : ", ").append(formatValue(keys.get(r)[0], platform));
+            }
+            sql.append(");");
+            return;
+        }
+
+        // Row value IN lists are not available on every platform
+        for (int r = 0; r < keys.size(); r++) {
+            sql.append((r == 0) ? "(" : NL + "   OR (");
+            for (int k = 0; k < pk.length; k++) {
+                sql.append((k == 0) ? "" : " AND ").append(mapping.getTargetColumns().get(pk[k]))
+                        .append(" = ").append(formatValue(keys.get(r)[k], platform));
+            }
+            sql.append(")");
+        }
+        sql.append(";");
+    }
+
+    private void appendValuesList(StringBuilder sql, List<Object[]> rows) {
+        for (int r = 0; r < rows.size(); r++) {
+            sql.append((r == 0) ? NL + "  " : "," + NL + "  ");
+            appendValues(sql, rows.get(r));
+        }
+    }
+
+    private void appendValues(StringBuilder sql, Object[] row) {
+        sql.append("(");
+        for (int i = 0; i < row.length; i++) {
+            sql.append((i == 0) ? "" : ", ").append(formatValue(row[i], platform));
+        }
+        sql.append(")");
+    }
+
+    private void appendNonPk(StringBuilder sql, String template) {
+        boolean first = true;
+        for (int i = 0; i < mapping.getTargetColumns().size(); i++) {
+            if (!mapping.isPk(i)) {
+                sql.append(first ? "" : ", ").append(String.format(template, mapping.getTargetColumns().get(i)));
+                first = false;
+            }
+        }
+    }
+
+    private String pkColumnList() {
+        StringBuilder list = new StringBuilder();
+        for (int p : mapping.getPkPositions()) {
+            list.append((list.isEmpty()) ? "" : ", ").append(mapping.getTargetColumns().get(p));
+        }
+        return list.toString();
+    }
+
+    private void write(CharSequence statement) throws IOException {
+        byte[] bytes = statement.toString().getBytes(StandardCharsets.UTF_8);
+
+        if (maxFileBytes > 0 && fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+            out.close();
+            openFile();
+        }
+
+        out.write(bytes);
+        fileBytes += bytes.length;
+        statementCount++;
+    }
+
+    private void openFile() throws IOException {
+        Path file = files.isEmpty() ? baseFile : numbered(baseFile, files.size() + 1);
+        out = new BufferedOutputStream(Files.newOutputStream(file), 256 * 1024);
+        files.add(file);
+
+        byte[] header = String.format("-- pgCompare fix script for %s (part %d)%n", mapping.getTargetTable(), files.size())
+                .getBytes(StandardCharsets.UTF_8);
+        out.write(header);
+        fileBytes = header.length;
+    }
+
+    private static Path numbered(Path file, int part) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String numberedName = (dot > 0)
+                ? String.format("%s-%d%s", name.substring(0, dot), part, name.substring(dot))
+                : String.format("%s-%d", name, part);
+        return file.resolveSibling(numberedName);
+    }
+
+    /**
+     * Write the remaining chunks and close the current file.
+     *
+     * @throws IOException if a write fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush(deletes);
+            flush(inserts);
+            flush(updates);
+        } finally {
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.fix;
+
+import java.io.IOException;
+
+/**
+ * Destination of the repairs produced by fix generation.  Rows are passed as values in
+ * the column position order of the table's {@link FixTableMapping}.
+ *
+ * @author Brian Pace
+ */
+public interface FixSink extends AutoCloseable {
+
+    /**
+     * Insert a row missing on the target.
+     *
+     * @param row Source row values
+     * @throws Exception if the repair cannot be written
+     */
+    void insert(Object[] row) throws Exception;
+
+    /**
+     * Update a target row to the source values.
+     *
+     * @param row Source row values
+     * @throws Exception if the repair cannot be written
+     */
+    void update(Object[] row) throws Exception;
+
+    /**
+     * Delete a row missing on the source.
+     *
+     * @param pkValues Primary key values, in primary key position order
+     * @throws Exception if the repair cannot be written
+     */
+    void delete(Object[] pkValues) throws Exception;
+
+    /**
+     * Number of repairs accepted by the sink.
+     *
+     * @return Repair count
+     */
+    long getCount();
+
+    /**
+     * Flush any remaining repairs and release the destination.
+     *
+     * @throws IOException if the remaining repairs cannot be written
+     */
+    @Override
+    void close() throws IOException;
+
+}
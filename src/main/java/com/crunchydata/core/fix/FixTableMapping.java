@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.fix;
+
+import com.crunchydata.model.DataComparisonTableMap;
+import lombok.Getter;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.crunchydata.config.Settings.Props;
+import static com.crunchydata.service.DatabaseMetadataService.getQuoteChar;
+import static com.crunchydata.util.DataProcessingUtils.ShouldQuoteString;
+
+/**
+ * Source to target column mapping of a table, resolved once before fixes are generated.
+ * Columns are held in a single positional order shared by the source select, the target
+ * statements and the row values, with the primary key columns identified by position.
+ *
+ * @author Brian Pace
+ */
+@Getter
+public class FixTableMapping {
+
+    private final String sourceTable;
+    private final String targetTable;
+    private final List<String> sourceColumns = new ArrayList<>();
+    private final List<String> targetColumns = new ArrayList<>();
+    private final int[] pkPositions;
+    private final String sourcePlatform;
+    private final String targetPlatform;
+
+    // Unquoted, lower case source and target column names to column position
+    private final Map<String, Integer> positionByName = new HashMap<>();
+
+    private FixTableMapping(DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, JSONArray columns) {
+        String sourceQuoteChar = getQuoteChar(Props.getProperty("source-type"));
+        String targetQuoteChar = getQuoteChar(Props.getProperty("target-type"));
+        List<Integer> pk = new ArrayList<>();
+
+        this.sourcePlatform = Props.getProperty("source-type");
+        this.targetPlatform = Props.getProperty("target-type");
+        this.sourceTable = ShouldQuoteString(dctmSource.isSchemaPreserveCase(), dctmSource.getSchemaName(), sourceQuoteChar)
+                + "." + ShouldQuoteString(dctmSource.isTablePreserveCase(), dctmSource.getTableName(), sourceQuoteChar);
+        this.targetTable = ShouldQuoteString(dctmTarget.isSchemaPreserveCase(), dctmTarget.getSchemaName(), targetQuoteChar)
+                + "." + ShouldQuoteString(dctmTarget.isTablePreserveCase(), dctmTarget.getTableName(), targetQuoteChar);
+
+        for (int i = 0; i < columns.length(); i++) {
+            JSONObject columnDef = columns.getJSONObject(i);
+            JSONObject sourceCol = columnDef.optJSONObject("source");
+            JSONObject targetCol = columnDef.optJSONObject("target");
+
+            if (sourceCol == null || targetCol == null || sourceCol.isNull("columnName") || targetCol.isNull("columnName")) {
+                continue;
+            }
+
+            boolean primaryKey = sourceCol.optBoolean("primaryKey", false);
+            if (!primaryKey && !columnDef.optBoolean("enabled", true)) {
+                continue;
+            }
+
+            int position = sourceColumns.size();
+            String sourceName = sourceCol.getString("columnName");
+            String targetName = targetCol.getString("columnName");
+
+            sourceColumns.add(ShouldQuoteString(sourceCol.optBoolean("preserveCase", false), sourceName, sourceQuoteChar));
+            targetColumns.add(ShouldQuoteString(targetCol.optBoolean("preserveCase", false), targetName, targetQuoteChar));
+            positionByName.putIfAbsent(sourceName.toLowerCase(), position);
+            positionByName.putIfAbsent(targetName.toLowerCase(), position);
+
+            if (primaryKey) {
+                pk.add(position);
+            }
+        }
+
+        this.pkPositions = pk.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Resolve the mapping of a table from its column mapping JSON.
+     *
+     * @param columnMapping Column mapping from the project metadata cache
+     * @param dctmSource Source table map
+     * @param dctmTarget Target table map
+     * @return Column mapping for fix generation
+     */
+    public static FixTableMapping of(JSONObject columnMapping, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget) {
+        return new FixTableMapping(dctmSource, dctmTarget, columnMapping.getJSONArray("columns"));
+    }
+
+    /**
+     * Primary key values of a finding, in primary key position order.
+     *
+     * @param pk Primary key JSON of the finding
+     * @return Key values, or null when a key column is not part of the mapping
+     */
+    public Object[] pkValues(JSONObject pk) {
+        Object[] values = new Object[pkPositions.length];
+        int found = 0;
+
+        Iterator<String> keys = pk.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Integer position = positionByName.get(key.replace("`", "").replace("\"", "").toLowerCase());
+            if (position == null) {
+                return null;
+            }
+            for (int k = 0; k < pkPositions.length; k++) {
+                if (pkPositions[k] == position) {
+                    values[k] = pk.isNull(key) ? null : pk.get(key);
+                    found++;
+                }
+            }
+        }
+
+        return (found == pkPositions.length) ? values : null;
+    }
+
+    /**
+     * Determine if a column position is part of the primary key.
+     *
+     * @param position Column position
+     * @return True for primary key columns
+     */
+    public boolean isPk(int position) {
+        for (int p : pkPositions) {
+            if (p == position) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalized lookup key for primary key values, so numbers of different scale compare
+     * equal when duplicate findings are folded.
+     *
+     * @param pkValues Key values
+     * @return Lookup key
+     */
+    public static String keyOf(Object[] pkValues) {
+        StringBuilder key = new StringBuilder();
+        for (Object value : pkValues) {
+            if (value instanceof Number number) {
+                BigDecimal decimal = new BigDecimal(number.toString());
+                key.append((decimal.signum() == 0) ? "0" : decimal.stripTrailingZeros().toPlainString());
+            } else {
+                key.append(value);
+            }
+            key.append('\u0001');
+        }
+        return key.toString();
+    }
+
+}
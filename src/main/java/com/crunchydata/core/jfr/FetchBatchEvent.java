@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one commit batch of rows fetched and hashed by a compare
+ * thread, including the hand off to the loader queue, staging table or spill files.
+ *
+ * @author Brian Pace
+ */
+@Name("pgcompare.FetchBatch")
+@Label("Fetch Batch")
+@Category({"pgCompare", "Compare"})
+@Description("Batch of rows fetched and hashed from the source or target")
+@StackTrace(false)
+public class FetchBatchEvent extends jdk.jfr.Event {
+
+    @Label("Table Alias")
+    final String tableAlias;
+
+    @Label("Side")
+    @Description("source or target")
+    final String targetType;
+
+    @Label("Thread Number")
+    final int threadNumber;
+
+    @Label("Rows")
+    long rows;
+
+    public FetchBatchEvent(String tableAlias, String targetType, int threadNumber) {
+        this.tableAlias = tableAlias;
+        this.targetType = targetType;
+        this.threadNumber = threadNumber;
+    }
+
+    /**
+     * End the event and commit it when recorded.
+     *
+     * @param rows Rows in the batch
+     */
+    public void complete(long rows) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+
+}
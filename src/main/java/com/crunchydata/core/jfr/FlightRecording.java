@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import com.crunchydata.util.LoggingUtils;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Flight Recorder recording started with the {@code --jfr} option.
+ * The JDK default settings are used, which keep the overhead low enough for production
+ * compares, and the pgCompare pipeline events are enabled on top of them.  The recording
+ * is written to the given file when the action completes, or when the JVM exits early.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class FlightRecording {
+
+    private static final String THREAD_NAME = "jfr";
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            TableSetupEvent.class, FetchBatchEvent.class, StagingFlushEvent.class,
+            ObserverMatchEvent.class, ResultSummaryEvent.class);
+
+    private static Recording recording;
+
+    // Private constructor to prevent instantiation
+    private FlightRecording() {
+        throw new UnsupportedOperationException("FlightRecording is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Start recording to a file.
+     *
+     * @param fileName Destination of the recording
+     */
+    public static synchronized void start(String fileName) {
+        if (recording != null) {
+            return;
+        }
+
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("pgcompare");
+            for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+                recording.enable(event);
+            }
+            recording.setDestination(Path.of(fileName));
+            recording.setDumpOnExit(true);
+            recording.start();
+            LoggingUtils.write("info", THREAD_NAME, String.format("Flight recording started, writing to %s", fileName));
+        } catch (Exception e) {
+            recording = null;
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Cannot start flight recording to %s: %s", fileName, e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the recording, writing it to its destination.
+     */
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+
+        try {
+            recording.stop();
+            LoggingUtils.write("info", THREAD_NAME, String.format("Flight recording written to %s", recording.getDestination()));
+        } catch (Exception e) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Error writing flight recording: %s", e.getMessage()));
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one observer cycle removing the rows that match between
+ * the source and target staging tables.  Cycles finding no match are recorded as well, so
+ * idle polling shows up next to the fetch batches.
+ *
+ * @author Brian Pace
+ */
+@Name("pgcompare.ObserverMatch")
+@Label("Observer Match")
+@Category({"pgCompare", "Observer"})
+@Description("Cycle matching and removing equal rows from the staging tables")
+@StackTrace(false)
+public class ObserverMatchEvent extends jdk.jfr.Event {
+
+    @Label("Table Alias")
+    final String tableAlias;
+
+    @Label("Thread Number")
+    final int threadNumber;
+
+    @Label("Rows Matched")
+    long rows;
+
+    public ObserverMatchEvent(String tableAlias, int threadNumber) {
+        this.tableAlias = tableAlias;
+        this.threadNumber = threadNumber;
+    }
+
+    /**
+     * End the event and commit it when recorded.
+     *
+     * @param rows Rows matched in the cycle
+     */
+    public void complete(long rows) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the classification and summary of the findings of a table
+ * once its compare threads have finished.
+ *
+ * @author Brian Pace
+ */
+@Name("pgcompare.ResultSummary")
+@Label("Result Summary")
+@Category({"pgCompare", "Table"})
+@Description("Classification of the remaining findings and update of dc_result")
+@StackTrace(false)
+public class ResultSummaryEvent extends jdk.jfr.Event {
+
+    @Label("Table Alias")
+    final String tableAlias;
+
+    @Label("Compare ID")
+    final int cid;
+
+    @Label("Equal")
+    long equal;
+
+    @Label("Missing Source")
+    long missingSource;
+
+    @Label("Missing Target")
+    long missingTarget;
+
+    @Label("Not Equal")
+    long notEqual;
+
+    public ResultSummaryEvent(String tableAlias, int cid) {
+        this.tableAlias = tableAlias;
+        this.cid = cid;
+    }
+
+    /**
+     * End the event and commit it when recorded.
+     *
+     * @param equal Rows equal
+     * @param missingSource Rows missing on the source
+     * @param missingTarget Rows missing on the target
+     * @param notEqual Rows with different values
+     */
+    public void complete(long equal, long missingSource, long missingTarget, long notEqual) {
+        if (shouldCommit()) {
+            this.equal = equal;
+            this.missingSource = missingSource;
+            this.missingTarget = missingTarget;
+            this.notEqual = notEqual;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one batch inserted and committed into a staging table by
+ * a loader thread.
+ *
+ * @author Brian Pace
+ */
+@Name("pgcompare.StagingFlush")
+@Label("Staging Flush")
+@Category({"pgCompare", "Loader"})
+@Description("Batch of hashed rows written to a staging table")
+@StackTrace(false)
+public class StagingFlushEvent extends jdk.jfr.Event {
+
+    @Label("Table Alias")
+    final String tableAlias;
+
+    @Label("Side")
+    @Description("source or target")
+    final String targetType;
+
+    @Label("Thread Number")
+    final int threadNumber;
+
+    @Label("Loader Instance")
+    final int instanceNumber;
+
+    @Label("Rows")
+    long rows;
+
+    public StagingFlushEvent(String tableAlias, String targetType, int threadNumber, int instanceNumber) {
+        this.tableAlias = tableAlias;
+        this.targetType = targetType;
+        this.threadNumber = threadNumber;
+        this.instanceNumber = instanceNumber;
+    }
+
+    /**
+     * End the event and commit it when recorded.
+     *
+     * @param rows Rows written
+     */
+    public void complete(long rows) {
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the setup of a table before its compare threads start:
+ * resolving the table maps, column metadata and compare SQL, starting the table history
+ * and clearing the previous findings.
+ *
+ * @author Brian Pace
+ */
+@Name("pgcompare.TableSetup")
+@Label("Table Setup")
+@Category({"pgCompare", "Table"})
+@Description("Preparation of a table before it is compared")
+@StackTrace(false)
+public class TableSetupEvent extends jdk.jfr.Event {
+
+    @Label("Table Alias")
+    final String tableAlias;
+
+    @Label("Table ID")
+    final long tid;
+
+    @Label("Batch Number")
+    final int batchNbr;
+
+    @Label("Prefetched")
+    @Description("Metadata and SQL were prepared ahead by the table prefetcher")
+    boolean prefetched;
+
+    public TableSetupEvent(String tableAlias, long tid, int batchNbr) {
+        this.tableAlias = tableAlias;
+        this.tid = tid;
+        this.batchNbr = batchNbr;
+    }
+
+    /**
+     * End the event and commit it when recorded.
+     *
+     * @param prefetched Whether the metadata was prefetched
+     */
+    public void complete(boolean prefetched) {
+        if (shouldCommit()) {
+            this.prefetched = prefetched;
+            commit();
+        }
+    }
+
+}
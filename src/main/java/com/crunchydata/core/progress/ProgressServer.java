@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.progress;
+
+import com.crunchydata.util.LoggingUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP endpoint serving {@link ProgressTracker} snapshots as JSON at {@code /progress},
+ * for the UI or scripts to poll while a compare runs.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class ProgressServer {
+
+    private static final String THREAD_NAME = "progress-server";
+
+    private static HttpServer server;
+
+    // Private constructor to prevent instantiation
+    private ProgressServer() {
+        throw new UnsupportedOperationException("ProgressServer is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Start the endpoint.
+     *
+     * @param bindAddress Address to listen on
+     * @param port Port to listen on
+     */
+    public static synchronized void start(String bindAddress, int port) {
+        if (server != null) {
+            return;
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+            server.createContext("/progress", ProgressServer::handle);
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, THREAD_NAME);
+                t.setDaemon(true);
+                return t;
+            }));
+            server.start();
+            LoggingUtils.write("info", THREAD_NAME, String.format("Serving progress at http://%s:%d/progress", bindAddress, port));
+        } catch (IOException e) {
+            server = null;
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Cannot start progress endpoint on %s:%d: %s", bindAddress, port, e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop the endpoint if it is running.
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = ProgressTracker.toJSON().toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.progress;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process progress model of the running compare.
+ * Each compare thread registers a {@link ThreadProgress} for its table and side and bumps
+ * its counters as rows are fetched, hashed and staged; matches are added per table.  All
+ * counters are {@link LongAdder}s, so recording is contention free and a snapshot only
+ * sums them.  Snapshots are served by {@link ProgressServer} without touching the
+ * repository.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class ProgressTracker {
+
+    // Private constructor to prevent instantiation
+    private ProgressTracker() {
+        throw new UnsupportedOperationException("ProgressTracker is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Counters of one compare thread.
+     */
+    public static class ThreadProgress {
+        public final LongAdder fetched = new LongAdder();
+        public final LongAdder hashed = new LongAdder();
+        public final LongAdder staged = new LongAdder();
+        public final LongAdder blockedMillis = new LongAdder();
+    }
+
+    /**
+     * Counters of one table.
+     */
+    private static class TableProgress {
+        final Integer cid;
+        final long expectedRows;
+        final long startTime = System.currentTimeMillis();
+        final Map<String, ThreadProgress> threads = new ConcurrentSkipListMap<>();
+        final LongAdder matched = new LongAdder();
+        volatile boolean complete = false;
+
+        // Previous snapshot, for the current rate
+        long lastSampleTime = startTime;
+        long lastSampleRows = 0;
+        double rowsPerSecond = 0;
+
+        TableProgress(Integer cid, long expectedRows) {
+            this.cid = cid;
+            this.expectedRows = expectedRows;
+        }
+    }
+
+    // Window over which the current rate is measured
+    private static final long RATE_WINDOW_MS = 2000;
+
+    private static final Map<String, TableProgress> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a table, replacing any earlier run of the same table.
+     *
+     * @param tableAlias Table alias
+     * @param cid Compare ID
+     * @param expectedRows Rows per side expected from the previous compare, 0 when unknown
+     */
+    public static void startTable(String tableAlias, Integer cid, long expectedRows) {
+        tables.put(tableAlias, new TableProgress(cid, expectedRows));
+    }
+
+    /**
+     * Mark a table as complete.  Its final counters stay visible until the next run of the table.
+     *
+     * @param tableAlias Table alias
+     */
+    public static void finishTable(String tableAlias) {
+        TableProgress table = tables.get(tableAlias);
+        if (table != null) {
+            table.complete = true;
+        }
+    }
+
+    /**
+     * Register a compare thread.
+     *
+     * @param tableAlias Table alias
+     * @param targetType source or target
+     * @param threadNumber Thread number within the side
+     * @return Counters to update, not tracked when the table was not started
+     */
+    public static ThreadProgress thread(String tableAlias, String targetType, int threadNumber) {
+        ThreadProgress progress = new ThreadProgress();
+        TableProgress table = tables.get(tableAlias);
+        if (table != null) {
+            table.threads.put(targetType + "-" + threadNumber, progress);
+        }
+        return progress;
+    }
+
+    /**
+     * Add matched rows of a table.
+     *
+     * @param tableAlias Table alias
+     * @param rows Rows matched
+     */
+    public static void addMatched(String tableAlias, long rows) {
+        TableProgress table = tables.get(tableAlias);
+        if (table != null) {
+            table.matched.add(rows);
+        }
+    }
+
+    /**
+     * Snapshot of all tracked tables.
+     *
+     * @return JSON object with one entry per table, including per side and per thread counters
+     */
+    public static JSONObject toJSON() {
+        JSONArray tableArray = new JSONArray();
+        long now = System.currentTimeMillis();
+
+        for (Map.Entry<String, TableProgress> entry : tables.entrySet()) {
+            TableProgress table = entry.getValue();
+            JSONObject sides = new JSONObject();
+            JSONArray threadArray = new JSONArray();
+            long fetchedTotal = 0;
+
+            for (Map.Entry<String, ThreadProgress> thread : table.threads.entrySet()) {
+                String side = thread.getKey().substring(0, thread.getKey().indexOf('-'));
+                long fetched = thread.getValue().fetched.sum();
+                long hashed = thread.getValue().hashed.sum();
+                long staged = thread.getValue().staged.sum();
+                fetchedTotal += fetched;
+
+                threadArray.put(new JSONObject()
+                        .put("thread", thread.getKey())
+                        .put("fetched", fetched)
+                        .put("hashed", hashed)
+                        .put("staged", staged)
+                        .put("blockedMillis", thread.getValue().blockedMillis.sum()));
+
+                JSONObject totals = sides.optJSONObject(side);
+                if (totals == null) {
+                    totals = new JSONObject().put("fetched", 0L).put("hashed", 0L).put("staged", 0L);
+                    sides.put(side, totals);
+                }
+                totals.put("fetched", totals.getLong("fetched") + fetched);
+                totals.put("hashed", totals.getLong("hashed") + hashed);
+                totals.put("staged", totals.getLong("staged") + staged);
+            }
+
+            double rate = currentRate(table, now, fetchedTotal);
+            long expectedTotal = table.expectedRows * 2;
+            long eta = (!table.complete && expectedTotal > fetchedTotal && rate > 0)
+                    ? Math.round((expectedTotal - fetchedTotal) / rate) : -1;
+
+            tableArray.put(new JSONObject()
+                    .put("tableName", entry.getKey())
+                    .put("cid", table.cid)
+                    .put("status", table.complete ? "complete" : "running")
+                    .put("elapsedSeconds", (now - table.startTime) / 1000)
+                    .put("expectedRows", table.expectedRows)
+                    .put("source", sides.optJSONObject("source", new JSONObject()))
+                    .put("target", sides.optJSONObject("target", new JSONObject()))
+                    .put("matched", table.matched.sum())
+                    .put("rowsPerSecond", Math.round(rate))
+                    .put("etaSeconds", eta)
+                    .put("threads", threadArray));
+        }
+
+        return new JSONObject().put("timestamp", now).put("tables", tableArray);
+    }
+
+    /**
+     * Rows per second fetched over the last rate window, falling back to the average of the
+     * run until a window has passed.
+     */
+    private static double currentRate(TableProgress table, long now, long fetchedTotal) {
+        synchronized (table) {
+            long elapsed = now - table.lastSampleTime;
+            if (elapsed >= RATE_WINDOW_MS) {
+                table.rowsPerSecond = (fetchedTotal - table.lastSampleRows) * 1000.0 / elapsed;
+                table.lastSampleTime = now;
+                table.lastSampleRows = fetchedTotal;
+            } else if (table.lastSampleRows == 0 && now > table.startTime) {
+                table.rowsPerSecond = fetchedTotal * 1000.0 / (now - table.startTime);
+            }
+            return table.complete ? 0 : table.rowsPerSecond;
+        }
+    }
+
+}
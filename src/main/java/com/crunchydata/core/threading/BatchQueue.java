@@ -0,0 +1,296 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.threading;
+
+import com.crunchydata.model.DataComparisonResult;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of row batches handed from a compare thread to the loaders of its table.
+ *
+ * <p>The queue is bounded both by the number of batches and by the estimated heap used by
+ * their rows, so wide rows cannot exhaust memory before the batch limit is reached.  A
+ * producer offering to a full queue blocks up to a timeout; the time spent blocked is
+ * accumulated for the end of table summary.</p>
+ *
+ * <p>Batches are taken by the threads of a {@link LoaderPool}, which is told about every
+ * queued batch so it can wake a loader or grow.  A taken batch stays in flight until the
+ * loader reports it committed, and the queue counts as drained only once nothing is queued
+ * or in flight.</p>
+ *
+ * @author Brian Pace
+ */
+public class BatchQueue {
+
+    // Approximate heap per row beyond its characters: the result object, its strings and the array slot
+    private static final int ROW_OVERHEAD_BYTES = 160;
+
+    private record Entry(DataComparisonResult[] batch, long bytes) {}
+
+    private final String name;
+    private final String targetType;
+    private final int partition;
+    private final String stagingTable;
+    private final int maxBatches;
+    private final long maxBytes;
+    private LoaderPool pool;
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+
+    // Guarded by lock
+    private long bytes = 0;
+    private int inFlight = 0;
+    private int peakBatches = 0;
+    private long peakBytes = 0;
+
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder blockedPuts = new LongAdder();
+
+    /**
+     * Create a queue.
+     *
+     * @param name Name used in log messages
+     * @param targetType source or target
+     * @param partition Parallel partition of the compare thread
+     * @param stagingTable Staging table the batches are loaded into
+     * @param maxBatches Maximum number of batches queued
+     * @param maxBytes Maximum estimated bytes queued
+     */
+    public BatchQueue(String name, String targetType, int partition, String stagingTable, int maxBatches, long maxBytes) {
+        this.name = name;
+        this.targetType = targetType;
+        this.partition = partition;
+        this.stagingTable = stagingTable;
+        this.maxBatches = Math.max(1, maxBatches);
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    /**
+     * Estimate the heap used by one queued row.
+     *
+     * @param pkHash Primary key hash
+     * @param columnHash Column hash
+     * @param pk Primary key JSON
+     * @return Estimated bytes
+     */
+    public static long estimateBytes(String pkHash, String columnHash, String pk) {
+        return ROW_OVERHEAD_BYTES + length(pkHash) + length(columnHash) + length(pk);
+    }
+
+    private static int length(String value) {
+        return (value == null) ? 0 : value.length();
+    }
+
+    /**
+     * Attach the pool whose loaders take from this queue.
+     *
+     * @param pool Loader pool
+     */
+    void setPool(LoaderPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Queue a batch, waiting up to the timeout for space.  A batch larger than the byte limit
+     * is accepted once the queue is empty.
+     *
+     * @param batch Rows of the batch
+     * @param batchBytes Estimated bytes of the batch
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return True if queued, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(DataComparisonResult[] batch, long batchBytes, long timeout, TimeUnit unit) throws InterruptedException {
+        double fill;
+        long start = System.nanoTime();
+
+        lock.lockInterruptibly();
+        try {
+            long nanos = unit.toNanos(timeout);
+            boolean blocked = false;
+            while (entries.size() >= maxBatches || (!entries.isEmpty() && bytes + batchBytes > maxBytes)) {
+                blocked = true;
+                if (nanos <= 0) {
+                    recordBlocked(start);
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (blocked) {
+                recordBlocked(start);
+            }
+
+            entries.addLast(new Entry(batch, batchBytes));
+            bytes += batchBytes;
+            peakBatches = Math.max(peakBatches, entries.size());
+            peakBytes = Math.max(peakBytes, bytes);
+            fill = Math.max((double) entries.size() / maxBatches, (double) bytes / maxBytes);
+        } finally {
+            lock.unlock();
+        }
+
+        if (pool != null) {
+            pool.batchQueued(fill);
+        }
+        return true;
+    }
+
+    private void recordBlocked(long start) {
+        blockedNanos.add(System.nanoTime() - start);
+        blockedPuts.increment();
+    }
+
+    /**
+     * Take the next batch without waiting.  The batch is in flight until
+     * {@link #batchLoaded()} is called.
+     *
+     * @return The batch, or null if the queue is empty
+     */
+    DataComparisonResult[] tryTake() {
+        lock.lock();
+        try {
+            Entry entry = entries.pollFirst();
+            if (entry == null) {
+                return null;
+            }
+
+            bytes -= entry.bytes();
+            inFlight++;
+            notFull.signalAll();
+            return entry.batch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report a taken batch as committed, or abandoned after an error.
+     */
+    void batchLoaded() {
+        lock.lock();
+        try {
+            inFlight--;
+            if (entries.isEmpty() && inFlight == 0) {
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait up to the timeout until every queued batch is committed.
+     *
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return True if the queue is drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (!entries.isEmpty() || inFlight > 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = drained.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether any loader is left to take from the queue.
+     *
+     * @return True if the pool has running loaders
+     */
+    public boolean hasLoaders() {
+        return pool != null && pool.getLoaders() > 0;
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One line summary of the queue for the end of table log.
+     *
+     * @return Summary of blocked time and peaks
+     */
+    public String summary() {
+        lock.lock();
+        try {
+            return String.format("%s: producers blocked %d times for %d ms, peak %d batches / %d KB",
+                    name, blockedPuts.sum(), TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()),
+                    peakBatches, peakBytes / 1024);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public String getStagingTable() {
+        return stagingTable;
+    }
+
+}
@@ -16,18 +16,27 @@
 
 package com.crunchydata.core.threading;
 
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.text.DecimalFormat;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-import com.crunchydata.controller.RepoController;
+import com.crunchydata.core.comparison.SpillWriter;
 import com.crunchydata.model.ColumnMetadata;
 import com.crunchydata.model.DataComparisonTable;
 import com.crunchydata.model.DataComparisonTableMap;
 import com.crunchydata.model.DataComparisonResult;
+import com.crunchydata.core.database.CopyRowReader;
+import com.crunchydata.core.database.ResultCountWriter;
+import com.crunchydata.core.database.RowReader;
+import com.crunchydata.core.jfr.FetchBatchEvent;
+import com.crunchydata.core.progress.ProgressTracker;
+import com.crunchydata.core.database.SQLExecutionHelper;
+import com.crunchydata.service.SQLSyntaxService;
 import com.crunchydata.util.*;
 
 import static com.crunchydata.service.DatabaseConnectionService.getConnection;
@@ -41,29 +50,36 @@ import static com.crunchydata.config.Settings.Props;
  * @author Brian Pace
  */
 public class DataComparisonThread extends Thread {
-    private final Integer tid, batchNbr, cid, nbrColumns, parallelDegree, threadNumber;
-    private final String modColumn, pkList, stagingTable, targetType;
+    private final Integer tid, batchNbr, cid, nbrColumns, nbrPKColumns, parallelDegree, threadNumber;
+    private final String modColumn, pkList, stagingTable, tableAlias, targetType;
     private String sql;
-    private final BlockingQueue<DataComparisonResult[]> q;
+    private final BatchQueue q;
     private final ThreadSync ts;
     private final Boolean useDatabaseHash;
+    private final DataComparisonTableMap dctm;
+    private final boolean compactKey;
+    private final SpillWriter spill;
+    private final boolean finalPass;
+    private final ProgressTracker.ThreadProgress progress;
+    private volatile boolean failed = false;
     
     // Constants for better maintainability
-    private static final int QUEUE_WAIT_THRESHOLD = 100;
-    private static final int QUEUE_WAIT_TARGET = 50;
-    private static final int QUEUE_WAIT_SLEEP_MS = 1000;
+    private static final int QUEUE_WAIT_MS = 1000;
     private static final int OBSERVER_SLEEP_MS = 1000;
     private static final int PROGRESS_REPORT_INTERVAL = 10000;
     private static final String SOURCE_TYPE = "source";
 
-    public DataComparisonThread(Integer threadNumber, DataComparisonTable dct, DataComparisonTableMap dctm, ColumnMetadata cm, Integer cid, ThreadSync ts, Boolean useDatabaseHash, String stagingTable, BlockingQueue<DataComparisonResult[]> q) {
+    public DataComparisonThread(Integer threadNumber, DataComparisonTable dct, DataComparisonTableMap dctm, ColumnMetadata cm, Integer cid, ThreadSync ts, Boolean useDatabaseHash, String stagingTable, BatchQueue q, SpillWriter spill) {
         this.q = q;
         this.modColumn = dctm.getModColumn();
         this.parallelDegree = dct.getParallelDegree();
-        this.sql = dctm.getCompareSQL();
+        this.compactKey = CompactKeyUtils.isEnabled(cm);
+        this.sql = compactKey ? SQLSyntaxService.buildCompactLoadSQL(Props.getProperty("column-hash-method"), dctm, cm) : dctm.getCompareSQL();
         this.targetType = dctm.getDestType();
+        this.tableAlias = dct.getTableAlias();
         this.threadNumber = threadNumber;
         this.nbrColumns = cm.getNbrColumns();
+        this.nbrPKColumns = cm.getNbrPKColumns();
         this.tid = dct.getTid();
         this.cid = cid;
         this.ts = ts;
@@ -71,6 +87,10 @@ public class DataComparisonThread extends Thread {
         this.useDatabaseHash = useDatabaseHash;
         this.batchNbr = dct.getBatchNbr();
         this.stagingTable = stagingTable;
+        this.dctm = dctm;
+        this.spill = spill;
+        this.finalPass = "final-pass".equals(Props.getProperty("match-strategy"));
+        this.progress = ProgressTracker.thread(dct.getTableAlias(), targetType, threadNumber);
     }
 
     public void run() {
@@ -78,11 +98,11 @@ public class DataComparisonThread extends Thread {
         LoggingUtils.write("info", threadName, String.format("(%s) Start database reconcile thread", targetType));
 
         // Configuration variables
-        int totalRows = 0;
-        int reportedRows = 0; // Track rows already reported to database
+        long totalRows = 0;
+        long reportedRows = 0; // Track rows already reported to database
         int batchCommitSize = Integer.parseInt(Props.getProperty("batch-commit-size"));
         int fetchSize = Integer.parseInt(Props.getProperty("batch-fetch-size"));
-        boolean useLoaderThreads = Integer.parseInt(Props.getProperty("loader-threads")) > 0;
+        boolean useLoaderThreads = spill == null && Integer.parseInt(Props.getProperty("loader-threads")) > 0;
         boolean observerThrottle = Boolean.parseBoolean(Props.getProperty("observer-throttle"));
         int cntRecord = 0;
         boolean firstPass = true;
@@ -94,11 +114,10 @@ public class DataComparisonThread extends Thread {
         Connection conn = null;
         Connection connRepo = null;
         ResultSet rs = null;
+        RowReader rows = null;
         PreparedStatement stmt = null;
         PreparedStatement stmtLoad = null;
         
-        RepoController rpc = new RepoController();
-
         try {
             // Connect to Repository
             connRepo = initializeRepositoryConnection(threadName);
@@ -115,42 +134,116 @@ public class DataComparisonThread extends Thread {
                 }
             }
 
-            if (!pkList.isEmpty() && Props.getProperty("database-sort").equals("true")) {
+            // Hash matching of spill partitions does not depend on row order
+            if (!pkList.isEmpty() && Props.getProperty("database-sort").equals("true") && spill == null) {
                 sql += " ORDER BY " + pkList;
             }
 
-            //conn.setAutoCommit(false);
-            stmt = conn.prepareStatement(sql);
-            stmt.setFetchSize(fetchSize);
-            rs = stmt.executeQuery();
+            // Let the database parallelize the full scan and hash computation
+            sql = SQLSyntaxService.applyScanHints(sql, dctm);
+            for (String setting : SQLSyntaxService.getScanSessionSettings(dctm)) {
+                LoggingUtils.write("info", threadName, String.format("(%s) Session setting: %s", targetType, setting));
+                SQLExecutionHelper.simpleExecute(conn, setting);
+            }
+
+            // Postgres streams text columns through COPY, compact keys need the typed key columns
+            if (!compactKey && useCopyFetch()) {
+                LoggingUtils.write("info", threadName, String.format("(%s) Streaming rows with COPY", targetType));
+                rows = new CopyRowReader(conn, sql);
+            } else {
+                //conn.setAutoCommit(false);
+                stmt = conn.prepareStatement(sql);
+                stmt.setFetchSize(fetchSize);
+                rs = stmt.executeQuery();
+                rows = RowReader.of(rs);
+            }
 
             StringBuilder columnValue = new StringBuilder();
 
-            if (!useLoaderThreads) {
+            // Compact key mode returns the raw PK columns first, followed by the column values
+            int firstColumn = compactKey ? nbrPKColumns + 1 : 3;
+
+            // LOB columns are streamed into the row hash instead of being read as one string
+            boolean[] lobColumns = (rs != null && !useDatabaseHash) ? findLobColumns(rs, firstColumn) : null;
+            HashingUtils.Md5Stream lobDigest = (lobColumns != null) ? new HashingUtils.Md5Stream() : null;
+            if (lobDigest != null) {
+                LoggingUtils.write("info", threadName, String.format("(%s) Streaming LOB columns into the row hash", targetType));
+            }
+            int[] pkTypes = new int[compactKey ? nbrPKColumns : 0];
+            String[] pkTypeNames = new String[pkTypes.length];
+            boolean[] pkNumeric = new boolean[pkTypes.length];
+            String[] pkValues = new String[pkTypes.length];
+            for (int i = 0; i < pkTypes.length; i++) {
+                pkTypes[i] = rs.getMetaData().getColumnType(i + 1);
+                pkTypeNames[i] = rs.getMetaData().getColumnTypeName(i + 1);
+                pkNumeric[i] = CompactKeyUtils.isNumeric(pkTypes[i]);
+            }
+
+            if (!useLoaderThreads && spill == null) {
                 String sqlLoad = String.format(SQL_REPO_STAGETABLE_INSERT, stagingTable);
                 connRepo.setAutoCommit(false);
                 stmtLoad = connRepo.prepareStatement(sqlLoad);
             }
 
             DataComparisonResult[] dc = new DataComparisonResult[batchCommitSize];
+            long batchBytes = 0;
 
-            while (rs.next()) {
+            // Without a mod column the sample cannot be pushed to the database, filter on the key hash
+            int sampleBuckets = (SampleUtils.isEnabled() && modColumn.isEmpty()) ? SampleUtils.getSampleBuckets() : 0;
+
+            FetchBatchEvent batchEvent = new FetchBatchEvent(tableAlias, targetType, threadNumber);
+            batchEvent.begin();
+
+            while (rows.next()) {
+                progress.fetched.increment();
                 columnValue.setLength(0);
 
-                if (! useDatabaseHash) {
-                    for (int i = 3; i < nbrColumns + 3; i++) {
-                        columnValue.append(rs.getString(i));
+                String pkHash;
+                String pkJSON;
+                if (compactKey) {
+                    for (int i = 0; i < pkValues.length; i++) {
+                        pkValues[i] = CompactKeyUtils.readValue(rs, i + 1, pkTypes[i], pkTypeNames[i]);
+                    }
+                    pkHash = getMd5(CompactKeyUtils.encode(pkValues));
+                    pkJSON = CompactKeyUtils.toJsonArray(pkValues, pkNumeric);
+                } else {
+                    // Standard load query starts with pk_hash and pk
+                    pkHash = useDatabaseHash ? rows.getString(1) : getMd5(rows.getString(1));
+                    pkJSON = rows.getString(2).replace(",}","}");
+                }
+                // Filter on the sample before any column is read, so skipped rows never reach the LOB digest
+                if (sampleBuckets > 0 && !SampleUtils.inSample(pkHash, sampleBuckets)) {
+                    continue;
+                }
+
+                if (lobDigest != null) {
+                    for (int i = firstColumn; i < nbrColumns + firstColumn; i++) {
+                        if (lobColumns[i - firstColumn]) {
+                            try (Reader reader = rs.getCharacterStream(i)) {
+                                lobDigest.append(reader);
+                            }
+                        } else {
+                            lobDigest.append(rows.getString(i));
+                        }
+                    }
+                } else if (! useDatabaseHash) {
+                    for (int i = firstColumn; i < nbrColumns + firstColumn; i++) {
+                        columnValue.append(rows.getString(i));
                     }
                 } else {
-                    columnValue.append(rs.getString(3));
+                    columnValue.append(rows.getString(firstColumn));
                 }
 
-                String pkHash = useDatabaseHash ? rs.getString("PK_HASH") : getMd5(rs.getString("PK_HASH"));
-                String columnHash = useDatabaseHash ? columnValue.toString() : getMd5(columnValue.toString());
-                String pkJSON = rs.getString("PK").replace(",}","}");
+                String columnHash = (lobDigest != null) ? lobDigest.digest()
+                        : useDatabaseHash ? columnValue.toString() : getMd5(columnValue.toString());
+                progress.hashed.increment();
 
-                if (useLoaderThreads) {
+                if (spill != null) {
+                    spill.write(pkHash, columnHash, pkJSON);
+                    progress.staged.increment();
+                } else if (useLoaderThreads) {
                     dc[cntRecord] = new DataComparisonResult(tid,null, pkHash, columnHash, pkJSON,null,threadNumber,batchNbr);
+                    batchBytes += BatchQueue.estimateBytes(pkHash, columnHash, pkJSON);
                 } else {
                     stmtLoad.setInt(1, tid);
                     stmtLoad.setString(2, pkHash);
@@ -164,10 +257,18 @@ public class DataComparisonThread extends Thread {
 
                 if (totalRows % batchCommitSize == 0) {
                     if (useLoaderThreads) {
-                        handleLoaderThreadBatch(threadName, dc, batchCommitSize);
-                    } else {
+                        queueBatch(threadName, dc, batchBytes);
+                        dc = new DataComparisonResult[batchCommitSize];
+                        batchBytes = 0;
+                    } else if (spill == null) {
                         handleDirectDatabaseBatch(stmtLoad, connRepo);
                     }
+                    if (spill == null) {
+                        progress.staged.add(cntRecord);
+                    }
+                    batchEvent.complete(cntRecord);
+                    batchEvent = new FetchBatchEvent(tableAlias, targetType, threadNumber);
+                    batchEvent.begin();
                     cntRecord = 0;
                 }
 
@@ -178,8 +279,8 @@ public class DataComparisonThread extends Thread {
 
                 // Handle observer coordination
                 if (totalRows % ((firstPass) ? PROGRESS_REPORT_INTERVAL : observerRowCount) == 0) {
-                    int rowsToReport = totalRows - reportedRows;
-                    handleObserverCoordination(threadName, firstPass, observerThrottle, rpc, connRepo, rowsToReport);
+                    long rowsToReport = totalRows - reportedRows;
+                    handleObserverCoordination(threadName, firstPass, observerThrottle, connRepo, rowsToReport);
                     reportedRows = totalRows;
                     if (firstPass) {
                         firstPass = false;
@@ -190,8 +291,12 @@ public class DataComparisonThread extends Thread {
 
             // Process remaining records
             if (cntRecord > 0) {
-                int rowsToReport = totalRows - reportedRows;
-                processRemainingRecords(useLoaderThreads, dc, stmtLoad, rpc, connRepo, rowsToReport);
+                long rowsToReport = totalRows - reportedRows;
+                processRemainingRecords(threadName, useLoaderThreads, dc, batchBytes, stmtLoad, connRepo, rowsToReport);
+                if (spill == null) {
+                    progress.staged.add(cntRecord);
+                }
+                batchEvent.complete(cntRecord);
                 reportedRows = totalRows;
             }
 
@@ -203,15 +308,20 @@ public class DataComparisonThread extends Thread {
             }
 
         } catch (SQLException e) {
+            failed = true;
             LoggingUtils.write("severe", threadName, String.format("(%s) Database error: %s", targetType, e.getMessage()));
         } catch (Exception e) {
+            failed = true;
             LoggingUtils.write("severe", threadName, String.format("(%s) Error in reconciliation thread: %s", targetType, e.getMessage()));
         } finally {
+            // Flush spill files before signaling completion
+            closeSpill(threadName);
+
             // Signal completion
             signalThreadCompletion();
             
             // Clean up resources
-            cleanupResources(threadName, rs, stmt, stmtLoad, connRepo, conn);
+            cleanupResources(threadName, rows, stmt, stmtLoad, connRepo, conn);
         }
     }
     
@@ -243,22 +353,54 @@ public class DataComparisonThread extends Thread {
     }
     
     /**
-     * Handles batch processing for loader threads.
+     * Hands a batch to the loader threads, blocking while the queue is full.  The batch array
+     * belongs to the loaders afterwards, the caller must start a new one.
      */
-    private void handleLoaderThreadBatch(String threadName, DataComparisonResult[] dc, int batchCommitSize) throws InterruptedException {
-        if (q != null && q.size() == QUEUE_WAIT_THRESHOLD) {
-            LoggingUtils.write("info", threadName, String.format("(%s) Waiting for Queue space", targetType));
-            while (q.size() > QUEUE_WAIT_TARGET) {
-                Thread.sleep(QUEUE_WAIT_SLEEP_MS);
-            }
+    private void queueBatch(String threadName, DataComparisonResult[] dc, long batchBytes) throws InterruptedException {
+        if (q == null) {
+            return;
         }
-        if (q != null) {
-            q.put(dc);
+
+        long start = System.nanoTime();
+        boolean waiting = false;
+
+        while (!q.offer(dc, batchBytes, QUEUE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+            if (!q.hasLoaders()) {
+                throw new IllegalStateException("No loader thread is consuming the queue");
+            }
+            if (!waiting) {
+                LoggingUtils.write("info", threadName, "(%s) Waiting for queue space (%d batches, %d KB queued)", targetType, q.size(), q.bytes() / 1024);
+                waiting = true;
+            }
         }
-        dc = null;
-        dc = new DataComparisonResult[batchCommitSize];
+
+        progress.blockedMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
     
+    /**
+     * Flags the character LOB columns of the compare query.
+     *
+     * @return One flag per compared column, null when the query returns no LOB
+     */
+    private boolean[] findLobColumns(ResultSet rs, int firstColumn) throws SQLException {
+        boolean[] lobColumns = new boolean[nbrColumns];
+        boolean found = false;
+        for (int i = 0; i < nbrColumns; i++) {
+            int type = rs.getMetaData().getColumnType(firstColumn + i);
+            lobColumns[i] = (type == Types.CLOB || type == Types.NCLOB);
+            found |= lobColumns[i];
+        }
+        return found ? lobColumns : null;
+    }
+
+    /**
+     * Indicates whether rows are streamed with COPY instead of a JDBC result set.
+     */
+    private boolean useCopyFetch() {
+        return "postgres".equals(Props.getProperty(targetType + "-type"))
+                && Boolean.parseBoolean(Props.getProperty("postgres-copy-fetch"));
+    }
+
     /**
      * Handles batch processing for direct database insertion.
      */
@@ -274,11 +416,14 @@ public class DataComparisonThread extends Thread {
      * Handles observer coordination logic.
      */
     private void handleObserverCoordination(String threadName, boolean firstPass, boolean observerThrottle, 
-                                         RepoController rpc, Connection connRepo, int cntRecord) throws Exception {
-        if (firstPass || observerThrottle) {
+                                         Connection connRepo, long cntRecord) throws Exception {
+        if (spill != null || finalPass) {
+            // No observer matching while loading, only record progress
+            ResultCountWriter.addRows(cid, targetType, cntRecord);
+        } else if (firstPass || observerThrottle) {
             LoggingUtils.write("info", threadName, String.format("(%s) Wait for Observer", targetType));
             
-            rpc.dcrUpdateRowCount(connRepo, targetType, cid, cntRecord);
+            ResultCountWriter.addRows(cid, targetType, cntRecord);
             connRepo.commit();
             
             // Set waiting flags
@@ -307,33 +452,57 @@ public class DataComparisonThread extends Thread {
     /**
      * Processes remaining records after main loop.
      */
-    private void processRemainingRecords(boolean useLoaderThreads, DataComparisonResult[] dc, PreparedStatement stmtLoad,
-                                         RepoController rpc, Connection connRepo, int cntRecord) throws Exception {
+    private void processRemainingRecords(String threadName, boolean useLoaderThreads, DataComparisonResult[] dc, long batchBytes,
+                                         PreparedStatement stmtLoad, Connection connRepo, long cntRecord) throws Exception {
         if (useLoaderThreads) {
-            if (q != null) {
-                q.put(dc);
-            }
+            queueBatch(threadName, dc, batchBytes);
         } else {
             if (stmtLoad != null) {
                 stmtLoad.executeBatch();
+                connRepo.commit();
             }
         }
-        rpc.dcrUpdateRowCount(connRepo, targetType, cid, cntRecord);
+        ResultCountWriter.addRows(cid, targetType, cntRecord);
     }
     
     /**
-     * Waits for queues to empty if using loader threads.
+     * Waits until the loader threads have committed every queued batch, so the observer
+     * sees all rows once this thread signals completion.
      */
     private void waitForQueuesToEmpty(String threadName) throws InterruptedException {
         if (q != null) {
-            while (!q.isEmpty()) {
-                LoggingUtils.write("info", threadName, String.format("(%s) Waiting for message queue to empty", targetType));
-                Thread.sleep(QUEUE_WAIT_SLEEP_MS);
+            while (!q.awaitDrained(QUEUE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                if (!q.hasLoaders()) {
+                    throw new IllegalStateException("No loader thread is consuming the queue");
+                }
+                LoggingUtils.write("info", threadName, "(%s) Waiting for message queue to drain", targetType);
             }
-            Thread.sleep(QUEUE_WAIT_SLEEP_MS);
         }
     }
     
+    /**
+     * Indicates whether the thread stopped on an error.
+     *
+     * @return True if loading failed
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Flushes and closes the spill files, if spilling.
+     */
+    private void closeSpill(String threadName) {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (Exception e) {
+                failed = true;
+                LoggingUtils.write("severe", threadName, String.format("(%s) Error closing spill files: %s", targetType, e.getMessage()));
+            }
+        }
+    }
+
     /**
      * Signals thread completion.
      */
@@ -348,11 +517,11 @@ public class DataComparisonThread extends Thread {
     /**
      * Cleans up database resources.
      */
-    private void cleanupResources(String threadName, ResultSet rs, PreparedStatement stmt, 
+    private void cleanupResources(String threadName, RowReader rows, PreparedStatement stmt,
                                 PreparedStatement stmtLoad, Connection connRepo, Connection conn) {
         try {
-            if (rs != null) {
-                rs.close();
+            if (rows != null) {
+                rows.close();
             }
             if (stmt != null) {
                 stmt.close();
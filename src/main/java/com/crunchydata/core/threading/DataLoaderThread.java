@@ -18,12 +18,14 @@ package com.crunchydata.core.threading;
 
 import com.crunchydata.model.DataComparisonResult;
 import com.crunchydata.core.database.SQLExecutionHelper;
+import com.crunchydata.core.jfr.StagingFlushEvent;
 import com.crunchydata.util.LoggingUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.concurrent.BlockingQueue;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static com.crunchydata.service.DatabaseConnectionService.getConnection;
@@ -32,24 +34,25 @@ import static com.crunchydata.service.DatabaseConnectionService.getConnection;
 /**
  * Thread class responsible for loading data into the repository database.
  *
- * <p>This class extends Thread and implements the logic to retrieve DataCompare objects
- * from a blocking queue and insert them into a staging table in the repository database.</p>
+ * <p>This class extends Thread and implements the logic to take DataCompare batches
+ * from the queues of a {@link LoaderPool} and insert them into the staging table of
+ * each queue in the repository database.  One connection is used for every staging
+ * table, with an INSERT statement prepared per staging table as batches arrive.</p>
  *
- * <p>The loader thread runs until both source and target complete flags are set to true
- * in the ThreadSync object provided during initialization.</p>
+ * <p>The loader thread runs until its pool is closed and the queues are drained, or
+ * until it retires after finding every queue empty while the pool is above its minimum.</p>
  *
  * @author Brian Pace
  */
 public class DataLoaderThread extends Thread  {
-    private final BlockingQueue<DataComparisonResult[]> q;
+    private final LoaderPool pool;
     private final Integer instanceNumber;
-    private final String stagingTable;
-    private final String targetType;
-    private final Integer threadNumber;
-    private final ThreadSync ts;
+    private final String tableAlias;
+    private boolean retired = false;
     
     // Constants for better maintainability
     private static final int DEFAULT_QUEUE_POLL_TIMEOUT_MS = 500;
+    private static final long IDLE_RETIRE_MS = 5000;
     private static final String STAGING_INSERT_SQL = "INSERT INTO %s (tid, pk_hash, column_hash, pk) VALUES (?, ?,?,(?)::jsonb)";
     private static final String POSTGRES_OPTIMIZATION_SYNC_COMMIT = "set synchronous_commit='off'";
     private static final String POSTGRES_OPTIMIZATION_WORK_MEM = "set work_mem='256MB'";
@@ -57,47 +60,38 @@ public class DataLoaderThread extends Thread  {
     /**
      * Constructor for initializing a dbLoader instance.
      *
-     * @param threadNumber The number identifying the thread within its type.
-     * @param instanceNumber The instance number of the thread.
-     * @param targetType The type of data being loaded ("source" or "target").
-     * @param q The BlockingQueue containing DataCompare objects to load.
-     * @param stagingTable The name of the staging table in the repository database.
-     * @param ts The ThreadSync object for coordinating thread synchronization.
+     * @param pool The pool whose queues the loader takes batches from.
+     * @param instanceNumber The instance number of the thread within the pool.
+     * @param tableAlias The alias of the table being compared.
      */
-    public DataLoaderThread(Integer threadNumber, Integer instanceNumber, String targetType, BlockingQueue<DataComparisonResult[]> q, String stagingTable, ThreadSync ts) {
-        this.q = q;
+    public DataLoaderThread(LoaderPool pool, Integer instanceNumber, String tableAlias) {
+        this.pool = pool;
         this.instanceNumber = instanceNumber;
-        this.stagingTable = stagingTable;
-        this.targetType = targetType;
-        this.threadNumber = threadNumber;
-        this.ts = ts;
+        this.tableAlias = tableAlias;
     }
 
     /**
      * Runs the loader thread logic.
      *
-     * <p>The thread connects to the repository database, prepares an INSERT statement
-     * for the staging table, and continuously polls the blocking queue for DataCompare
-     * objects to insert. It commits batches of inserts and checks ThreadSync flags to
-     * determine when to stop loading.</p>
+     * <p>The thread connects to the repository database and continuously takes
+     * DataCompare batches from the pool, inserting each into the staging table of the
+     * queue it came from. It commits every batch and stops once the pool is closed and
+     * drained.</p>
      */
     @Override
     public void run() {
-        String threadName = String.format("loader-%s-t%s-i%s", targetType, threadNumber, instanceNumber);
+        String threadName = String.format("loader-%s-i%s", tableAlias, instanceNumber);
         LoggingUtils.write("info", threadName, "Start repository loader thread");
 
         Connection connRepo = null;
-        PreparedStatement stmtLoad = null;
+        Map<String, PreparedStatement> statements = new HashMap<>();
 
         try {
             // Initialize repository connection
             connRepo = initializeRepositoryConnection(threadName);
-            
-            // Prepare INSERT statement for the staging table
-            stmtLoad = prepareStagingInsertStatement(connRepo);
 
             // Main data loading loop
-            executeDataLoading(threadName, stmtLoad, connRepo);
+            executeDataLoading(threadName, statements, connRepo);
 
             LoggingUtils.write("info", threadName, "Loader thread complete.");
 
@@ -107,7 +101,7 @@ public class DataLoaderThread extends Thread  {
             LoggingUtils.write("severe", threadName, String.format("Error in loader thread: %s", e.getMessage()));
         } finally {
             // Clean up resources and signal completion
-            cleanupResources(threadName, stmtLoad, connRepo);
+            cleanupResources(threadName, statements, connRepo);
             signalThreadCompletion();
         }
     }
@@ -132,31 +126,44 @@ public class DataLoaderThread extends Thread  {
     }
     
     /**
-     * Prepares the staging table INSERT statement.
+     * Returns the INSERT statement for a staging table, preparing it on first use.
      */
-    private PreparedStatement prepareStagingInsertStatement(Connection connRepo) throws SQLException {
-        String sqlLoad = String.format(STAGING_INSERT_SQL, stagingTable);
-        return connRepo.prepareStatement(sqlLoad);
+    private PreparedStatement stagingInsertStatement(Map<String, PreparedStatement> statements, String stagingTable,
+                                                     Connection connRepo) throws SQLException {
+        PreparedStatement stmtLoad = statements.get(stagingTable);
+        if (stmtLoad == null) {
+            stmtLoad = connRepo.prepareStatement(String.format(STAGING_INSERT_SQL, stagingTable));
+            statements.put(stagingTable, stmtLoad);
+        }
+        return stmtLoad;
     }
     
     /**
      * Executes the main data loading logic.
      */
-    private void executeDataLoading(String threadName, PreparedStatement stmtLoad, Connection connRepo) throws Exception {
-        boolean stillLoading = true;
+    private void executeDataLoading(String threadName, Map<String, PreparedStatement> statements, Connection connRepo) throws Exception {
+        long lastBatch = System.currentTimeMillis();
 
         // Main loop to load data into the repository
-        while (stillLoading) {
-            // Poll for DataCompare array from the blocking queue
-            DataComparisonResult[] dc = q.poll(DEFAULT_QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-
-            if (dc != null && dc.length > 0) {
-                processDataCompareArray(dc, stmtLoad, connRepo);
-            }
-
-            // Check if both source and target are complete
-            if (ts.sourceComplete && ts.targetComplete) {
-                stillLoading = false;
+        while (true) {
+            // Take the next DataCompare array from any queue of the pool
+            LoaderPool.QueuedBatch batch = pool.take(DEFAULT_QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            if (batch != null) {
+                try {
+                    PreparedStatement stmtLoad = stagingInsertStatement(statements, batch.queue().getStagingTable(), connRepo);
+                    processDataCompareArray(batch, stmtLoad, connRepo);
+                } finally {
+                    batch.queue().batchLoaded();
+                }
+                lastBatch = System.currentTimeMillis();
+            } else if (pool.isClosed()) {
+                // Closed and every queue drained
+                return;
+            } else if (System.currentTimeMillis() - lastBatch > IDLE_RETIRE_MS && pool.tryRetire()) {
+                LoggingUtils.write("info", threadName, "Queues idle, retiring loader thread");
+                retired = true;
+                return;
             }
         }
     }
@@ -164,8 +171,12 @@ public class DataLoaderThread extends Thread  {
     /**
      * Processes a DataCompare array and inserts into database.
      */
-    private void processDataCompareArray(DataComparisonResult[] dc, PreparedStatement stmtLoad, Connection connRepo) throws SQLException {
-        for (DataComparisonResult dataComparisonResult : dc) {
+    private void processDataCompareArray(LoaderPool.QueuedBatch batch, PreparedStatement stmtLoad, Connection connRepo) throws SQLException {
+        StagingFlushEvent flushEvent = new StagingFlushEvent(tableAlias, batch.queue().getTargetType(), batch.queue().getPartition(), instanceNumber);
+        flushEvent.begin();
+        int rows = 0;
+
+        for (DataComparisonResult dataComparisonResult : batch.rows()) {
             if (dataComparisonResult != null && dataComparisonResult.getPk() != null) {
                 stmtLoad.setInt(1, dataComparisonResult.getTid());
                 stmtLoad.setString(2, dataComparisonResult.getPkHash());
@@ -173,6 +184,7 @@ public class DataLoaderThread extends Thread  {
                 stmtLoad.setString(4, dataComparisonResult.getPk());
                 stmtLoad.addBatch();
                 stmtLoad.clearParameters();
+                rows++;
             } else {
                 // Exit loop if null or incomplete DataCompare object
                 break;
@@ -183,14 +195,16 @@ public class DataLoaderThread extends Thread  {
         stmtLoad.executeBatch();
         stmtLoad.clearBatch();
         connRepo.commit();
+
+        flushEvent.complete(rows);
     }
     
     /**
      * Cleans up database resources.
      */
-    private void cleanupResources(String threadName, PreparedStatement stmtLoad, Connection connRepo) {
+    private void cleanupResources(String threadName, Map<String, PreparedStatement> statements, Connection connRepo) {
         try {
-            if (stmtLoad != null) {
+            for (PreparedStatement stmtLoad : statements.values()) {
                 stmtLoad.close();
             }
             if (connRepo != null) {
@@ -205,6 +219,8 @@ public class DataLoaderThread extends Thread  {
      * Signals thread completion.
      */
     private void signalThreadCompletion() {
-        ts.incrementLoaderThreadComplete();
+        if (!retired) {
+            pool.loaderStopped();
+        }
     }
 }
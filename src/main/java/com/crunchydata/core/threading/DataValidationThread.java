@@ -21,15 +21,24 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import javax.sql.RowSetMetaData;
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.serial.SerialClob;
 
+import com.crunchydata.core.comparison.ColumnDriftStats;
+import com.crunchydata.core.fix.FixApplier;
+import com.crunchydata.core.fix.FixScriptWriter;
+import com.crunchydata.core.fix.FixTableMapping;
 import com.crunchydata.model.ColumnMetadata;
 import com.crunchydata.model.DataComparisonTable;
 import com.crunchydata.model.DataComparisonTableMap;
 import com.crunchydata.model.DataComparisonResult;
+import com.crunchydata.model.FixCandidate;
+import com.crunchydata.core.database.ProjectMetadataCache;
 import com.crunchydata.core.database.SQLExecutionHelper;
 import com.crunchydata.service.SQLFixGenerationService;
 import com.crunchydata.util.DataProcessingUtils;
@@ -39,8 +48,6 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import static com.crunchydata.service.DatabaseMetadataService.getQuoteChar;
-import static com.crunchydata.util.ColumnMetadataUtils.createColumnFilterClause;
-import static com.crunchydata.util.ColumnMetadataUtils.findColumnAlias;
 import static com.crunchydata.config.sql.RepoSQLConstants.*;
 import static com.crunchydata.config.Settings.Props;
 
@@ -73,8 +80,9 @@ public class DataValidationThread {
      * @param ciSource           Column metadata from source database.
      * @param ciTarget           Column metadata from target database.
      * @param cid                Identifier for the reconciliation process.
+     * @param metadataCache      Project metadata cache.
      */
-    public static JSONObject checkRows (Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, ColumnMetadata ciSource, ColumnMetadata ciTarget, Integer cid) {
+    public static JSONObject checkRows (Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, ColumnMetadata ciSource, ColumnMetadata ciTarget, Integer cid, ProjectMetadataCache metadataCache) {
         ArrayList<Object> binds = new ArrayList<>();
         JSONObject result = new JSONObject();
         JSONArray rows = new JSONArray();
@@ -83,8 +91,15 @@ public class DataValidationThread {
 
         PreparedStatement stmt = null;
         ResultSet rs = null;
+        ColumnDriftStats drift = new ColumnDriftStats();
+        boolean apply = "true".equals(Props.getProperty("apply-fixes"));
+        boolean fix = apply || "true".equals(Props.getProperty("fix"));
+        List<FixCandidate> fixCandidates = new ArrayList<>();
         
         try {
+            // Column mapping is the same for every row of the table
+            JSONObject columnMapping = metadataCache.getColumnMapping(dct.getTid());
+
             stmt = repoConn.prepareStatement(SQL_REPO_SELECT_OUTOFSYNC_ROWS);
             stmt.setObject(1, dct.getTid());
             stmt.setObject(2, dct.getTid());
@@ -100,70 +115,40 @@ public class DataValidationThread {
                 dcRow.setPk(rs.getString("pk"));
                 dcRow.setCompareResult(COMPARE_RESULT_FIELD);
 
-                // Get Column Info and Mapping
-                binds.clear();
-                binds.addFirst(dct.getTid());
-                JSONObject columnMapping = new JSONObject(SQLExecutionHelper.simpleSelectReturnString(repoConn, SQL_REPO_DCTABLECOLUMNMAP_FULLBYTID, binds));
-
-                int pkColumnCount = 0;
-                binds.clear();
-                dctmSource.setTableFilter(" ");
-                dctmTarget.setTableFilter(" ");
-
                 JSONObject pk = new JSONObject(dcRow.getPk());
-                Iterator<String> keys = pk.keys();
-                while (keys.hasNext()) {
-                    String key = keys.next();
-                    String columnAlias = findColumnAlias(columnMapping.getJSONArray("columns"),  key.replace("`","").replace("\"",""),  "source");
-                    if (pk.get(key) instanceof String) {
-                        String value = pk.getString(key);
-                        binds.add(pkColumnCount,value);
-                    } else {
-                        Integer value = pk.getInt(key);
-                        binds.add(pkColumnCount,value);
-                    }
-                    dctmSource.setTableFilter(dctmSource.getTableFilter() + createColumnFilterClause(repoConn, dct.getTid(), columnAlias, "source", getQuoteChar(Props.getProperty("source-type"))));
-                    dctmTarget.setTableFilter(dctmTarget.getTableFilter() + createColumnFilterClause(repoConn, dct.getTid(), columnAlias, "target", getQuoteChar(Props.getProperty("target-type"))));
-                    pkColumnCount++;
-                }
+                bindPrimaryKey(pk, dct, dctmSource, dctmTarget, metadataCache, binds);
 
-                LoggingUtils.write("info", THREAD_NAME, String.format("Primary Key:  %s (WHERE = '%s')", pk, dctmSource.getTableFilter()));
+                LoggingUtils.write("info", THREAD_NAME, "Primary Key:  %s (WHERE = '%s')", dcRow.getPk(), dctmSource.getTableFilter());
 
-                JSONObject recheckResult = compareRowforCheck(repoConn, sourceConn, targetConn, dctmSource, dctmTarget, ciTarget.pkList, binds, dcRow, cid, columnMapping);
+                JSONObject recheckResult = compareRowforCheck(repoConn, sourceConn, targetConn, dctmSource, dctmTarget, ciTarget.pkList, binds, dcRow, cid, drift);
 
                 if ( rows.length() < MAX_ROWS_TO_PROCESS ) {
                     rows.put(recheckResult);
                 }
+
+                // Fixes are generated in batches once all rows are checked
+                String fixAction = fix ? SQLFixGenerationService.fixAction(recheckResult) : null;
+                if (fixAction != null) {
+                    fixCandidates.add(new FixCandidate(fixAction, dcRow.getPk(), dcRow.getPkHash()));
+                }
                 
                 processedRows++;
             }
             
             LoggingUtils.write("info", THREAD_NAME, String.format("Processed %d out-of-sync rows for table %s", processedRows, dct.getTableAlias()));
             result.put("data", rows);
+
+            // Column level view of the drift found in this table
+            int driftColumns = drift.save(repoConn, cid, dct.getTid());
+            result.put("columnSummary", drift.toJSON());
+            if (driftColumns > 0) {
+                LoggingUtils.write("info", THREAD_NAME, String.format("%d columns out of sync for table %s", driftColumns, dct.getTableAlias()));
+            }
             
-            // Collect all fix SQL statements into a separate array for easy access
-            if (Props.getProperty("fix").equals("true")) {
-                JSONArray fixSQLStatements = new JSONArray();
-                int fixSQLCount = 0;
-                
-                for (int i = 0; i < rows.length(); i++) {
-                    JSONObject row = rows.getJSONObject(i);
-                    if (row.has("fixSQL")) {
-                        JSONObject fixSQLEntry = new JSONObject();
-                        fixSQLEntry.put("pk", row.get("pk"));
-                        fixSQLEntry.put("sql", row.getString("fixSQL"));
-                        fixSQLStatements.put(fixSQLEntry);
-                        fixSQLCount++;
-                    }
-                }
-                
-                if (fixSQLCount > 0) {
-                    result.put("fixSQL", fixSQLStatements);
-                    result.put("fixSQLCount", fixSQLCount);
-                    LoggingUtils.write("info", THREAD_NAME, 
-                        String.format("Generated %d fix SQL statements for table %s", 
-                                     fixSQLCount, dct.getTableAlias()));
-                }
+            if (apply && !fixCandidates.isEmpty()) {
+                applyFixes(repoConn, sourceConn, targetConn, dct, dctmSource, dctmTarget, columnMapping, cid, fixCandidates, metadataCache, result);
+            } else if (fix && !fixCandidates.isEmpty()) {
+                generateFixScript(sourceConn, dct, dctmSource, dctmTarget, columnMapping, cid, fixCandidates, result);
             }
 
         } catch (SQLException e) {
@@ -200,9 +185,19 @@ public class DataValidationThread {
      * @param pkList             Array of primary key columns.
      * @param dcRow              DataCompare object with row to be compared.
      * @param cid                Identifier for the reconciliation process.
+     * @param drift              Per-column drift counters updated with the differing columns.
      */
-    public static JSONObject compareRowforCheck (Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, String pkList, ArrayList<Object> binds, DataComparisonResult dcRow, Integer cid, JSONObject columnMapping) {
-        JSONArray arr = new JSONArray();
+    public static JSONObject compareRowforCheck (Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, String pkList, ArrayList<Object> binds, DataComparisonResult dcRow, Integer cid, ColumnDriftStats drift) {
+        return compareRow(repoConn, sourceConn, targetConn, dctmSource, dctmTarget, binds, dcRow, cid, drift, false);
+    }
+
+    /**
+     * Compare a row on source and target.  When verifying applied fixes the source and target
+     * row counts were already recorded by the first check, so only rows now equal are counted.
+     * A row gone from both sides is resolved rather than equal and is not added to the equal count.
+     */
+    private static JSONObject compareRow (Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget, ArrayList<Object> binds, DataComparisonResult dcRow, Integer cid, ColumnDriftStats drift, boolean verify) {
+        StringBuilder differences = new StringBuilder("[");
         int columnOutofSync = 0;
         JSONObject rowResult = new JSONObject();
 
@@ -213,6 +208,7 @@ public class DataValidationThread {
         rowResult.put("notEqual", 0);
         rowResult.put("missingSource", 0);
         rowResult.put("missingTarget", 0);
+        rowResult.put("resolved", 0);
 
         CachedRowSet sourceRow = SQLExecutionHelper.simpleSelect(sourceConn, dctmSource.getCompareSQL() + dctmSource.getTableFilter(), binds);
         CachedRowSet targetRow = SQLExecutionHelper.simpleSelect(targetConn, dctmTarget.getCompareSQL() + dctmTarget.getTableFilter(), binds);
@@ -224,17 +220,28 @@ public class DataValidationThread {
                 rowResult.put("compareStatus", OUT_OF_SYNC_STATUS);
                 rowResult.put("compareResult", MISSING_TARGET);
                 rowResult.put("missingTarget", 1);
-                rowResult.put("result", new JSONArray().put(0, MISSING_TARGET));
             } else if (targetRow.size() > 0 && sourceRow.size() == 0 ) {
                 rowResult.put("compareStatus", OUT_OF_SYNC_STATUS);
                 rowResult.put("compareResult", MISSING_SOURCE);
                 rowResult.put("missingSource", 1);
-                rowResult.put("result", new JSONArray().put(0, MISSING_SOURCE));
+            } else if (sourceRow.size() == 0) {
+                // Row gone from both sides, e.g. after a delete was applied
+                LoggingUtils.write("info", THREAD_NAME, "Row not found on source or target, pk %s", dcRow.getPk());
+                rowResult.put("resolved", 1);
             } else {
                 // Both rows exist, perform detailed comparison
                 RowSetMetaData rowMetadata = (RowSetMetaData) sourceRow.getMetaData();
                 sourceRow.next();
                 targetRow.next();
+
+                // Compare columns start at position 3, after pk_hash and pk
+                if (!drift.isInitialized()) {
+                    String[] columnNames = new String[rowMetadata.getColumnCount() - 2];
+                    for (int i = 3; i <= rowMetadata.getColumnCount(); i++) {
+                        columnNames[i - 3] = rowMetadata.getColumnName(i);
+                    }
+                    drift.init(columnNames);
+                }
                 
                 for (int i = 3; i <= rowMetadata.getColumnCount(); i++) {
                     String column = rowMetadata.getColumnName(i);
@@ -243,11 +250,12 @@ public class DataValidationThread {
                         String sourceValue = extractColumnValue(sourceRow, i);
                         String targetValue = extractColumnValue(targetRow, i);
 
-                        if (!sourceValue.equals(targetValue)) {
-                            JSONObject col = new JSONObject();
-                            String jsonString = "{ source: " + ((sourceValue.equals(" ")) ? "\" \"" : sourceValue) + ", target: " + ((targetValue.equals(" ")) ? "\" \"" : targetValue) + "}";
-                            col.put(column, new JSONObject(jsonString));
-                            arr.put(columnOutofSync, col);
+                        if (!Objects.equals(sourceValue, targetValue)) {
+                            drift.record(i - 3, dcRow.getPk(), sourceValue, targetValue);
+
+                            differences.append((columnOutofSync == 0) ? "{" : ",{")
+                                    .append(JSONObject.quote(column)).append(":{\"source\":").append(quoteValue(sourceValue))
+                                    .append(",\"target\":").append(quoteValue(targetValue)).append("}}");
                             columnOutofSync++;
                         }
                     } catch (Exception e) {
@@ -261,45 +269,27 @@ public class DataValidationThread {
 
                 if (columnOutofSync > 0) {
                     rowResult.put("compareStatus", OUT_OF_SYNC_STATUS);
-                    rowResult.put("compareResult", arr.toString());
+                    rowResult.put("compareResult", differences.append(']').toString());
                     rowResult.put("pk", dcRow.getPk());
                     rowResult.put("notEqual", 1);
-                    rowResult.put("result", arr);
                 }
             }
 
             // Handle in-sync rows
             if (IN_SYNC_STATUS.equals(rowResult.get("compareStatus"))) {
-                rowResult.put("equal", 1);
+                rowResult.put("equal", 1 - rowResult.getLong("resolved"));
                 removeInSyncRow(repoConn, dcRow);
             } else {
                 // Handle out-of-sync rows
-                LoggingUtils.write("warning", THREAD_NAME, String.format("Out-of-Sync:  PK = %s; Differences = %s", dcRow.getPk(), rowResult.getJSONArray("result").toString()));
-
-                if ( Props.getProperty("fix").equals("true") ) {
-                    // Generate SQL to fix out of sync
-                    String fixSQL = SQLFixGenerationService.generateFixSQL(
-                            sourceConn,
-                            targetConn,
-                            dctmSource,
-                            dctmTarget,
-                            binds,
-                            dcRow,
-                            rowResult,
-                            sourceRow,
-                            targetRow,
-                            columnMapping
-                    );
-
-                    if (fixSQL != null) {
-                        // Add fix SQL to the row result for output with other results
-                        rowResult.put("fixSQL", fixSQL);                        
-                    }
-                }
+                LoggingUtils.write("warning", THREAD_NAME, "Out-of-Sync:  PK = %s; Differences = %s", dcRow.getPk(), rowResult.getString("compareResult"));
             }
 
             // Update result counts
-            updateResultCounts(repoConn, rowResult, sourceRow, targetRow, cid);
+            if (verify) {
+                updateResultCounts(repoConn, rowResult.getLong("equal"), 0, 0, cid);
+            } else {
+                updateResultCounts(repoConn, rowResult.getLong("equal"), sourceRow.size(), targetRow.size(), cid);
+            }
 
         } catch (SQLException e) {
             LoggingUtils.write("severe", THREAD_NAME, String.format("SQL error comparing source and target values: %s", e.getMessage()));
@@ -311,6 +301,135 @@ public class DataValidationThread {
         return rowResult;
     }
     
+    /**
+     * Generate the fix script of a table from the rows confirmed out of sync.
+     *
+     * @param sourceConn    Source database connection.
+     * @param dct           Table being checked.
+     * @param dctmSource    Source table map.
+     * @param dctmTarget    Target table map.
+     * @param columnMapping Column mapping of the table.
+     * @param cid           Identifier for the reconciliation process.
+     * @param fixCandidates Rows to repair.
+     * @param result        Check result, updated with the script location and statement count.
+     * @throws Exception if the source rows cannot be read or the script written.
+     */
+    private static void generateFixScript(Connection sourceConn, DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
+                                          JSONObject columnMapping, Integer cid, List<FixCandidate> fixCandidates, JSONObject result) throws Exception {
+        FixTableMapping mapping = FixTableMapping.of(columnMapping, dctmSource, dctmTarget);
+        Path file = Path.of(Props.getProperty("fix-directory"), String.format("pgcompare-fix-%s-%d.sql", dct.getTableAlias(), cid));
+
+        FixScriptWriter writer = new FixScriptWriter(file, mapping, Integer.parseInt(Props.getProperty("fix-statement-rows")),
+                Long.parseLong(Props.getProperty("fix-file-max-mb")) * 1024 * 1024);
+        long fixRowCount;
+        try (writer) {
+            fixRowCount = SQLFixGenerationService.generateFixes(sourceConn, mapping, fixCandidates, writer);
+        }
+
+        result.put("fixRowCount", fixRowCount);
+        result.put("fixSQLCount", writer.getStatementCount());
+        result.put("fixFile", String.join(", ", writer.getFiles().stream().map(Path::toString).toList()));
+        LoggingUtils.write("info", THREAD_NAME, String.format("Generated fixes for %d rows of table %s in %d statements, %d file(s) starting at %s",
+                fixRowCount, dct.getTableAlias(), writer.getStatementCount(), writer.getFiles().size(), file));
+    }
+
+    /**
+     * Apply the repairs of a table directly to the target, then recheck the touched rows.
+     *
+     * @param repoConn      Repository database connection.
+     * @param sourceConn    Source database connection.
+     * @param targetConn    Target database connection used for the recheck.
+     * @param dct           Table being checked.
+     * @param dctmSource    Source table map.
+     * @param dctmTarget    Target table map.
+     * @param columnMapping Column mapping of the table.
+     * @param cid           Identifier for the reconciliation process.
+     * @param fixCandidates Rows to repair.
+     * @param metadataCache Project metadata cache.
+     * @param result        Check result, updated with the applied, failed and verified counts.
+     * @throws Exception if the source rows cannot be read or the target connections opened.
+     */
+    private static void applyFixes(Connection repoConn, Connection sourceConn, Connection targetConn, DataComparisonTable dct, DataComparisonTableMap dctmSource,
+                                   DataComparisonTableMap dctmTarget, JSONObject columnMapping, Integer cid, List<FixCandidate> fixCandidates,
+                                   ProjectMetadataCache metadataCache, JSONObject result) throws Exception {
+        FixTableMapping mapping = FixTableMapping.of(columnMapping, dctmSource, dctmTarget);
+
+        FixApplier applier = new FixApplier(mapping, Integer.parseInt(Props.getProperty("apply-threads")),
+                Integer.parseInt(Props.getProperty("apply-transaction-size")), Double.parseDouble(Props.getProperty("apply-rate-limit")));
+        try (applier) {
+            SQLFixGenerationService.generateFixes(sourceConn, mapping, fixCandidates, applier);
+        }
+
+        LoggingUtils.write("info", THREAD_NAME, String.format("Applied fixes for %d rows of table %s (%d failed), verifying",
+                applier.getApplied(), dct.getTableAlias(), applier.getFailed()));
+
+        // Targeted recheck of the touched primary keys
+        if (!targetConn.getAutoCommit()) {
+            targetConn.commit();
+        }
+        ArrayList<Object> binds = new ArrayList<>();
+        ColumnDriftStats remainingDrift = new ColumnDriftStats();
+        long verified = 0;
+
+        for (FixCandidate candidate : fixCandidates) {
+            DataComparisonResult dcRow = new DataComparisonResult(null,null,null,null,null,null, 0, dct.getBatchNbr());
+            dcRow.setTid(dct.getTid());
+            dcRow.setTableName(dct.getTableAlias());
+            dcRow.setPkHash(candidate.getPkHash());
+            dcRow.setPk(candidate.getPk());
+            dcRow.setCompareResult(COMPARE_RESULT_FIELD);
+
+            bindPrimaryKey(new JSONObject(candidate.getPk()), dct, dctmSource, dctmTarget, metadataCache, binds);
+            JSONObject recheckResult = compareRow(repoConn, sourceConn, targetConn, dctmSource, dctmTarget, binds, dcRow, cid, remainingDrift, true);
+            verified += recheckResult.getLong("equal") + recheckResult.getLong("resolved");
+        }
+
+        result.put("fixRowCount", applier.getCount());
+        result.put("fixApplied", applier.getApplied());
+        result.put("fixFailed", applier.getFailed());
+        result.put("fixVerified", verified);
+        result.put("fixRemaining", fixCandidates.size() - verified);
+        LoggingUtils.write("info", THREAD_NAME, String.format("Verified %d of %d repaired rows in sync for table %s",
+                verified, fixCandidates.size(), dct.getTableAlias()));
+    }
+
+    /**
+     * Set the binds and the primary key filters of the source and target compare queries for one row.
+     */
+    private static void bindPrimaryKey(JSONObject pk, DataComparisonTable dct, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
+                                       ProjectMetadataCache metadataCache, ArrayList<Object> binds) {
+        String sourceQuoteChar = getQuoteChar(Props.getProperty("source-type"));
+        String targetQuoteChar = getQuoteChar(Props.getProperty("target-type"));
+        int pkColumnCount = 0;
+
+        binds.clear();
+        dctmSource.setTableFilter(" ");
+        dctmTarget.setTableFilter(" ");
+
+        Iterator<String> keys = pk.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            String columnAlias = metadataCache.findColumnAlias(dct.getTid(), key.replace("`","").replace("\"",""), "source");
+            if (pk.get(key) instanceof String) {
+                String value = pk.getString(key);
+                binds.add(pkColumnCount,value);
+            } else {
+                Integer value = pk.getInt(key);
+                binds.add(pkColumnCount,value);
+            }
+            dctmSource.setTableFilter(dctmSource.getTableFilter() + metadataCache.createColumnFilterClause(dct.getTid(), columnAlias, "source", sourceQuoteChar));
+            dctmTarget.setTableFilter(dctmTarget.getTableFilter() + metadataCache.createColumnFilterClause(dct.getTid(), columnAlias, "target", targetQuoteChar));
+            pkColumnCount++;
+        }
+    }
+
+    /**
+     * Quotes a column value for the differences JSON, with SQL NULL as JSON null.
+     */
+    private static String quoteValue(String value) {
+        return (value == null) ? "null" : JSONObject.quote(value);
+    }
+
     /**
      * Extracts a column value, handling CLOB types properly.
      */
@@ -340,11 +459,11 @@ public class DataValidationThread {
     /**
      * Updates result counts in the repository.
      */
-    private static void updateResultCounts(Connection repoConn, JSONObject rowResult, CachedRowSet sourceRow, CachedRowSet targetRow, Integer cid) {
+    private static void updateResultCounts(Connection repoConn, long equal, long sourceCount, long targetCount, Integer cid) {
         ArrayList<Object> binds = new ArrayList<>();
-        binds.add(0, rowResult.getInt("equal"));
-        binds.add(1, sourceRow.size());
-        binds.add(2, targetRow.size());
+        binds.add(0, equal);
+        binds.add(1, sourceCount);
+        binds.add(2, targetCount);
         binds.add(3, cid);
         
         SQLExecutionHelper.simpleUpdate(repoConn, SQL_REPO_DCRESULT_UPDATE_ALLCOUNTS, binds, true);
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.threading;
+
+import com.crunchydata.model.DataComparisonResult;
+import com.crunchydata.util.LoggingUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elastic pool of loader threads shared by every partition of a table.
+ *
+ * <p>Each compare thread hands its batches to its own {@link BatchQueue}; the loaders of the
+ * pool take from all queues in turn and insert each batch into the staging table of its
+ * queue.  Every loader holds one repository connection, so the pool size caps the
+ * repository connections used for loading regardless of the parallel degree.</p>
+ *
+ * <p>The pool starts with the minimum number of loaders.  When a queue is at least half full
+ * after a batch is queued, another loader is started, at most once per second and up to the
+ * maximum.  A loader that finds every queue empty for a while retires as long as the pool
+ * stays at or above the minimum.</p>
+ *
+ * @author Brian Pace
+ */
+public class LoaderPool implements AutoCloseable {
+
+    private static final String THREAD_NAME = "loader-pool";
+    private static final double SCALE_UP_FILL = 0.5;
+    private static final long SCALE_UP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Batch taken from a queue.
+     *
+     * @param queue Queue the batch was taken from
+     * @param rows Rows of the batch
+     */
+    public record QueuedBatch(BatchQueue queue, DataComparisonResult[] rows) {}
+
+    private final String tableAlias;
+    private final int minLoaders;
+    private final int maxLoaders;
+
+    private final List<BatchQueue> queues = new CopyOnWriteArrayList<>();
+    private final List<DataLoaderThread> threads = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+
+    // Guarded by lock
+    private int loaders = 0;
+    private int loadersStarted = 0;
+    private int peakLoaders = 0;
+    private long lastScaleUp = 0;
+    private int nextQueue = 0;
+    private boolean closed = false;
+
+    /**
+     * Create the pool of a table.
+     *
+     * @param tableAlias Table alias
+     * @param minLoaders Loaders kept running while the table is compared
+     * @param maxLoaders Maximum loaders, and so repository connections, of the pool
+     */
+    public LoaderPool(String tableAlias, int minLoaders, int maxLoaders) {
+        this.tableAlias = tableAlias;
+        this.maxLoaders = Math.max(1, maxLoaders);
+        this.minLoaders = Math.min(Math.max(1, minLoaders), this.maxLoaders);
+    }
+
+    /**
+     * Add a queue served by the pool.
+     *
+     * @param queue Queue of a compare thread
+     */
+    public void register(BatchQueue queue) {
+        queue.setPool(this);
+        queues.add(queue);
+    }
+
+    /**
+     * Start the minimum number of loaders.
+     */
+    public void start() {
+        for (int i = 0; i < minLoaders; i++) {
+            startLoader(false);
+        }
+    }
+
+    /**
+     * Start a loader unless the pool is full.
+     *
+     * @param scaleUp Whether the loader is added because of backlog
+     */
+    private void startLoader(boolean scaleUp) {
+        int instance;
+        lock.lock();
+        try {
+            if (closed || loaders >= maxLoaders) {
+                return;
+            }
+            loaders++;
+            instance = ++loadersStarted;
+            peakLoaders = Math.max(peakLoaders, loaders);
+            lastScaleUp = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+
+        if (scaleUp) {
+            LoggingUtils.write("info", THREAD_NAME, "Queue backlog, starting loader %d for %s", instance, tableAlias);
+        }
+
+        DataLoaderThread loader = new DataLoaderThread(this, instance, tableAlias);
+        threads.add(loader);
+        loader.start();
+    }
+
+    /**
+     * Called by a queue after a batch is queued: wake a loader and grow while the queue backs up.
+     *
+     * @param fill Fill ratio of the queue
+     */
+    void batchQueued(double fill) {
+        boolean scaleUp;
+        lock.lock();
+        try {
+            workAvailable.signal();
+            scaleUp = !closed && loaders < maxLoaders && fill >= SCALE_UP_FILL
+                    && System.nanoTime() - lastScaleUp >= SCALE_UP_INTERVAL_NANOS;
+        } finally {
+            lock.unlock();
+        }
+
+        if (scaleUp) {
+            startLoader(true);
+        }
+    }
+
+    /**
+     * Take the next batch from the queues in turn, waiting up to the timeout for one.
+     *
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return The batch, or null if the timeout elapsed or the pool is closed and drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    QueuedBatch take(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (true) {
+                int size = queues.size();
+                for (int i = 0; i < size; i++) {
+                    BatchQueue queue = queues.get((nextQueue + i) % size);
+                    DataComparisonResult[] rows = queue.tryTake();
+                    if (rows != null) {
+                        nextQueue = (nextQueue + i + 1) % size;
+                        return new QueuedBatch(queue, rows);
+                    }
+                }
+
+                if (closed || nanos <= 0) {
+                    return null;
+                }
+                nanos = workAvailable.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the pool is closed.  Loaders stop once it is closed and the queues are empty.
+     *
+     * @return True if closed
+     */
+    boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire the calling loader if the pool stays at or above its minimum.
+     *
+     * @return True if the caller should stop
+     */
+    boolean tryRetire() {
+        lock.lock();
+        try {
+            if (loaders > minLoaders) {
+                loaders--;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record that a loader stopped without retiring.
+     */
+    void loaderStopped() {
+        lock.lock();
+        try {
+            loaders--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of running loaders.
+     *
+     * @return Running loaders
+     */
+    public int getLoaders() {
+        lock.lock();
+        try {
+            return loaders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One line summary of the pool for the end of table log.
+     *
+     * @return Summary of loaders started and peak size
+     */
+    public String summary() {
+        lock.lock();
+        try {
+            return String.format("Loader pool for %s: %d loaders started, peak %d of %d, %d queues",
+                    tableAlias, loadersStarted, peakLoaders, maxLoaders, queues.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the loaders once the queues are empty and wait for them.  If interrupted while
+     * waiting, the interrupt status is restored and the remaining loaders are left to finish.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            for (DataLoaderThread loader : threads) {
+                loader.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LoggingUtils.write("warning", THREAD_NAME, "Interrupted while waiting for loaders of %s", tableAlias);
+        }
+    }
+
+}
@@ -21,16 +21,19 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.crunchydata.controller.RepoController;
 import com.crunchydata.model.DataComparisonTable;
+import com.crunchydata.core.database.ResultCountWriter;
+import com.crunchydata.core.jfr.ObserverMatchEvent;
+import com.crunchydata.core.progress.ProgressTracker;
 import com.crunchydata.core.database.SQLExecutionHelper;
 import com.crunchydata.service.StagingTableService;
 import com.crunchydata.util.LoggingUtils;
 
 import static com.crunchydata.service.DatabaseConnectionService.getConnection;
 import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_CLEARMATCH;
-import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCRESULT_UPDATECNT;
 import static com.crunchydata.config.Settings.Props;
 
 /**
@@ -58,7 +61,9 @@ public class ObserverThread extends Thread  {
     private final String stagingTableSource;
     private final String stagingTableTarget;
     private final ThreadSync ts;
-    private final Boolean useLoaderThreads;
+    private final List<String> pkNamesSource;
+    private final List<String> pkNamesTarget;
+    private final boolean finalPass;
     
     // Constants for better maintainability
     private static final int DEFAULT_SLEEP_TIME_MS = 1000;
@@ -78,10 +83,13 @@ public class ObserverThread extends Thread  {
      * @param threadNbr          Thread number identifier.
      * @param stagingTableSource Staging table name for the source data.
      * @param stagingTableTarget Staging table name for the target data.
+     * @param pkNamesSource      Source primary key column names when compact keys are staged, otherwise null.
+     * @param pkNamesTarget      Target primary key column names when compact keys are staged, otherwise null.
      *
      * @author Brian Pace
      */
-    public ObserverThread(DataComparisonTable dct, Integer cid, ThreadSync ts, Integer threadNbr, String stagingTableSource, String stagingTableTarget) {
+    public ObserverThread(DataComparisonTable dct, Integer cid, ThreadSync ts, Integer threadNbr, String stagingTableSource, String stagingTableTarget,
+                          List<String> pkNamesSource, List<String> pkNamesTarget) {
         this.tid = dct.getTid();
         this.tableAlias = dct.getTableAlias();
         this.cid = cid;
@@ -90,7 +98,9 @@ public class ObserverThread extends Thread  {
         this.batchNbr = dct.getBatchNbr();
         this.stagingTableSource = stagingTableSource;
         this.stagingTableTarget = stagingTableTarget;
-        this.useLoaderThreads =  (Integer.parseInt(Props.getProperty("loader-threads")) > 0);
+        this.pkNamesSource = pkNamesSource;
+        this.pkNamesTarget = pkNamesTarget;
+        this.finalPass = "final-pass".equals(Props.getProperty("match-strategy"));
     }
 
     /**
@@ -104,9 +114,8 @@ public class ObserverThread extends Thread  {
 
         // Configuration variables
         ArrayList<Object> binds = new ArrayList<>();
-        int cntEqual = 0;
-        int deltaCount = 0;
-        int loaderThreads = Integer.parseInt(Props.getProperty("loader-threads"));
+        long cntEqual = 0;
+        long deltaCount = 0;
         DecimalFormat formatter = new DecimalFormat("#,###");
         int lastRun = 0;
         RepoController rpc = new RepoController();
@@ -120,9 +129,14 @@ public class ObserverThread extends Thread  {
             // Initialize repository connection
             repoConn = initializeRepositoryConnection(threadName);
             
-            // Execute main reconciliation observer logic
-            executeReconciliationObserver(threadName, repoConn, binds, cntEqual, deltaCount, loaderThreads, 
-                                        formatter, lastRun, rpc, sleepTime);
+            if (finalPass) {
+                // Match once both sides are fully staged
+                executeFinalPass(threadName, repoConn, formatter);
+            } else {
+                // Execute main reconciliation observer logic
+                executeReconciliationObserver(threadName, repoConn, binds, cntEqual, deltaCount,
+                                            formatter, lastRun, rpc, sleepTime);
+            }
 
         } catch (Exception e) {
             LoggingUtils.write("severe", threadName, String.format("Error in observer process: %s", e.getMessage()));
@@ -166,33 +180,37 @@ public class ObserverThread extends Thread  {
      * Executes the main reconciliation observer logic.
      */
     private void executeReconciliationObserver(String threadName, Connection repoConn, ArrayList<Object> binds,
-                                             int cntEqual, int deltaCount, int loaderThreads, DecimalFormat formatter,
+                                             long cntEqual, long deltaCount, DecimalFormat formatter,
                                              int lastRun, RepoController rpc, int sleepTime) throws Exception {
         String sqlClearMatch = SQL_REPO_CLEARMATCH.replaceAll("dc_target", stagingTableTarget)
                                                  .replaceAll("dc_source", stagingTableSource);
 
-        try (PreparedStatement stmtSU = repoConn.prepareStatement(sqlClearMatch);
-             PreparedStatement stmtSUS = repoConn.prepareStatement(SQL_REPO_DCRESULT_UPDATECNT)) {
+        try (PreparedStatement stmtSU = repoConn.prepareStatement(sqlClearMatch)) {
 
             repoConn.setAutoCommit(false);
-            int tmpRowCount;
+            long tmpRowCount;
 
             while (lastRun <= MAX_LAST_RUN_COUNT) {
+                ObserverMatchEvent matchEvent = new ObserverMatchEvent(tableAlias, threadNbr);
+                matchEvent.begin();
+
                 // Remove matching rows
-                tmpRowCount = stmtSU.executeUpdate();
+                tmpRowCount = stmtSU.executeLargeUpdate();
                 cntEqual += tmpRowCount;
 
                 if (tmpRowCount > 0) {
                     repoConn.commit();
+                    matchEvent.complete(tmpRowCount);
                     deltaCount += tmpRowCount;
                     LoggingUtils.write("info", threadName, String.format("Matched %s rows", formatter.format(tmpRowCount)));
                 } else {
-                    handleNoMatches(cntEqual, deltaCount, binds, rpc, repoConn, stmtSUS);
+                    matchEvent.complete(0);
+                    handleNoMatches(cntEqual, deltaCount, binds, repoConn);
                     deltaCount = 0;
                 }
 
                 // Update and check status
-                if (isReconciliationComplete(tmpRowCount, loaderThreads)) {
+                if (isReconciliationComplete(tmpRowCount)) {
                     lastRun++;
                 }
 
@@ -205,20 +223,42 @@ public class ObserverThread extends Thread  {
         }
     }
     
+    /**
+     * Waits for both sides to be staged, then matches them with a single statement that
+     * writes the findings directly.  The staging tables are only inserted into, so no
+     * dead tuples accumulate and no vacuum is needed.
+     */
+    private void executeFinalPass(String threadName, Connection repoConn, DecimalFormat formatter) throws Exception {
+        LoggingUtils.write("info", threadName, "Waiting for source and target to be staged");
+        while (!(ts.sourceComplete && ts.targetComplete)) {
+            Thread.sleep(DEFAULT_SLEEP_TIME_MS);
+        }
+
+        ObserverMatchEvent matchEvent = new ObserverMatchEvent(tableAlias, threadNbr);
+        matchEvent.begin();
+
+        long cntEqual = StagingTableService.matchFinalPass(repoConn, tid, stagingTableSource, stagingTableTarget, batchNbr, threadNbr,
+                tableAlias, pkNamesSource, pkNamesTarget);
+
+        matchEvent.complete(cntEqual);
+        LoggingUtils.write("info", threadName, String.format("Matched %s rows", formatter.format(cntEqual)));
+
+        ResultCountWriter.addEqual(cid, cntEqual);
+        ProgressTracker.addMatched(tableAlias, cntEqual);
+
+        dropStagingTables(threadName, repoConn);
+    }
+
     /**
      * Handles the case when no matches are found.
      */
-    private void handleNoMatches(int cntEqual, int deltaCount, ArrayList<Object> binds, RepoController rpc,
-                                Connection repoConn, PreparedStatement stmtSUS) throws Exception {
+    private void handleNoMatches(long cntEqual, long deltaCount, ArrayList<Object> binds, Connection repoConn) throws Exception {
         if (cntEqual > 0 || ts.sourceComplete || ts.targetComplete || 
             (cntEqual == 0 && ts.sourceWaiting && ts.targetWaiting)) {
             
-            // Update result counts
-            stmtSUS.clearParameters();
-            stmtSUS.setInt(1, deltaCount);
-            stmtSUS.setInt(2, cid);
-            stmtSUS.executeUpdate();
-            repoConn.commit();
+            // Update result counts through the shared writer
+            ResultCountWriter.addEqual(cid, deltaCount);
+            ProgressTracker.addMatched(tableAlias, deltaCount);
             ts.observerNotify();
             
             // Handle vacuum if enabled
@@ -240,17 +280,17 @@ public class ObserverThread extends Thread  {
     }
     
     /**
-     * Checks if reconciliation is complete.
+     * Checks if reconciliation is complete.  Compare threads using loaders only signal
+     * completion once their queue is drained, so every row is staged by then.
      */
-    private boolean isReconciliationComplete(int tmpRowCount, int loaderThreads) {
-        return ts.sourceComplete && ts.targetComplete && tmpRowCount == 0 && 
-               (ts.loaderThreadComplete == loaderThreads * 2 || !useLoaderThreads);
+    private boolean isReconciliationComplete(long tmpRowCount) {
+        return ts.sourceComplete && ts.targetComplete && tmpRowCount == 0;
     }
     
     /**
      * Handles sleep timing based on processing volume.
      */
-    private void handleSleepTiming(int tmpRowCount, int cntEqual, int sleepTime) throws InterruptedException {
+    private void handleSleepTiming(long tmpRowCount, long cntEqual, int sleepTime) throws InterruptedException {
         if (tmpRowCount == 0) {
             if (Props.getProperty("database-sort", "true").equals("false") && cntEqual == 0) {
                 ts.observerNotify();
@@ -271,10 +311,16 @@ public class ObserverThread extends Thread  {
         LoggingUtils.write("info", threadName, "Staging table cleanup");
 
         // Move out-of-sync rows from temporary staging tables to dc_source and dc_target
-        rpc.loadFindings(repoConn, "source", tid, tableAlias, stagingTableSource, batchNbr, threadNbr);
-        rpc.loadFindings(repoConn, "target", tid, tableAlias, stagingTableTarget, batchNbr, threadNbr);
+        rpc.loadFindings(repoConn, "source", tid, tableAlias, stagingTableSource, batchNbr, threadNbr, pkNamesSource);
+        rpc.loadFindings(repoConn, "target", tid, tableAlias, stagingTableTarget, batchNbr, threadNbr, pkNamesTarget);
 
-        // Drop staging tables
+        dropStagingTables(threadName, repoConn);
+    }
+
+    /**
+     * Drops the staging tables of this partition.
+     */
+    private void dropStagingTables(String threadName, Connection repoConn) {
         try {
             StagingTableService.dropStagingTable(repoConn, stagingTableSource);
             StagingTableService.dropStagingTable(repoConn, stagingTableTarget);
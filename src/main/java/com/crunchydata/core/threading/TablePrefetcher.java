@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.core.threading;
+
+import com.crunchydata.controller.CompareController;
+import com.crunchydata.core.database.ProjectMetadataCache;
+import com.crunchydata.model.DataComparisonTable;
+import com.crunchydata.model.PreparedTable;
+import com.crunchydata.util.LoggingUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepares table metadata and compare SQL for upcoming tables on a background thread
+ * so building the next tables' column expressions overlaps the current reconciliation.
+ *
+ * <p>Any table whose preparation fails or was never submitted is prepared synchronously
+ * by the caller instead.</p>
+ *
+ * @author Brian Pace
+ */
+public class TablePrefetcher implements AutoCloseable {
+
+    private static final String THREAD_NAME = "table-prefetch";
+
+    private final ExecutorService executor;
+    private final ProjectMetadataCache metadataCache;
+    private final Map<Integer, Future<PreparedTable>> pending = new HashMap<>();
+    private final boolean check;
+
+    /**
+     * Create a prefetcher.
+     *
+     * @param metadataCache Project metadata cache
+     * @param check Whether this is a recheck operation
+     */
+    public TablePrefetcher(ProjectMetadataCache metadataCache, boolean check) {
+        this.check = check;
+        this.metadataCache = metadataCache;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, THREAD_NAME);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a table for background preparation.
+     *
+     * @param table Table to prepare
+     */
+    public void submit(DataComparisonTable table) {
+        if (pending.containsKey(table.getTid())) {
+            return;
+        }
+
+        pending.put(table.getTid(), executor.submit(() -> CompareController.prepareTable(metadataCache, table, check)));
+    }
+
+    /**
+     * Retrieve the prepared metadata for a table, waiting for the background work if needed.
+     *
+     * @param table Table to retrieve
+     * @return Prepared table, or null if it was not submitted or preparation failed
+     */
+    public PreparedTable take(DataComparisonTable table) {
+        Future<PreparedTable> future = pending.remove(table.getTid());
+
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LoggingUtils.write("warning", THREAD_NAME,
+                    String.format("Prefetch failed for table %s, preparing inline: %s", table.getTableAlias(), e.getMessage()));
+        }
+
+        return null;
+    }
+
+    /**
+     * Stop the background thread.
+     */
+    @Override
+    public void close() {
+        pending.values().forEach(f -> f.cancel(true));
+        pending.clear();
+        executor.shutdownNow();
+    }
+}
@@ -17,19 +17,26 @@
 package com.crunchydata.core.threading;
 
 import com.crunchydata.controller.RepoController;
+import com.crunchydata.core.comparison.SpillMatcher;
+import com.crunchydata.core.comparison.SpillWriter;
+import com.crunchydata.core.database.ResultCountWriter;
+import com.crunchydata.core.progress.ProgressTracker;
 import com.crunchydata.model.ColumnMetadata;
 import com.crunchydata.model.DataComparisonTable;
 import com.crunchydata.model.DataComparisonTableMap;
-import com.crunchydata.model.DataComparisonResult;
 import com.crunchydata.service.StagingTableService;
+import com.crunchydata.util.CompactKeyUtils;
 import com.crunchydata.util.LoggingUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
 
 import static com.crunchydata.config.Settings.Props;
 
@@ -44,11 +51,10 @@ import static com.crunchydata.config.Settings.Props;
 public class ThreadManager {
     
     private static final String THREAD_NAME = "thread-manager";
-    private static final int THREAD_SLEEP_MS = 2000;
     
     // Thread collections
     private static final List<DataComparisonThread> compareList = new ArrayList<>();
-    private static final List<DataLoaderThread> loaderList = new ArrayList<>();
+    private static final List<BatchQueue> queueList = new ArrayList<>();
     private static final List<ObserverThread> observerList = new ArrayList<>();
     
     /**
@@ -69,31 +75,137 @@ public class ThreadManager {
         
         // Clear previous thread lists
         clearThreadLists();
+
+        int spillPartitions = Integer.parseInt(Props.getProperty("spill-partitions"));
+        if (spillPartitions > 0) {
+            executeSpillReconciliation(dct, cid, dctmSource, dctmTarget, ciSource, ciTarget, connRepo, spillPartitions);
+            return;
+        }
         
         // Configure thread settings
-        boolean useLoaderThreads = (Integer.parseInt(Props.getProperty("loader-threads")) > 0);
-        int messageQueueSize = Integer.parseInt(Props.getProperty("message-queue-size"));
-        
-        // Create blocking queues for thread communication
-        BlockingQueue<DataComparisonResult[]> qs = useLoaderThreads ? new ArrayBlockingQueue<>(messageQueueSize) : null;
-        BlockingQueue<DataComparisonResult[]> qt = useLoaderThreads ? new ArrayBlockingQueue<>(messageQueueSize) : null;
-        
+        int loaderThreads = Integer.parseInt(Props.getProperty("loader-threads"));
+
+        // One pool of loaders serves the queues of every partition of the table
+        LoaderPool loaderPool = (loaderThreads > 0)
+                ? new LoaderPool(dct.getTableAlias(), Integer.parseInt(Props.getProperty("loader-threads-min")), loaderThreads)
+                : null;
+
         LoggingUtils.write("info", THREAD_NAME, "Starting compare hash threads");
-        
-        // Start reconciliation threads
-        startReconcileThreads(dct, cid, dctmSource, dctmTarget, ciSource, ciTarget, qs, qt, useLoaderThreads, connRepo);
-        
-        // Wait for completion
-        waitForThreadCompletion();
+
+        try {
+            // Start reconciliation threads
+            startReconcileThreads(dct, cid, dctmSource, dctmTarget, ciSource, ciTarget, loaderPool, connRepo);
+
+            // Wait for completion
+            waitForThreadCompletion(loaderPool);
+        } finally {
+            if (loaderPool != null) {
+                loaderPool.close();
+            }
+        }
     }
     
+    /**
+     * Execute reconciliation by spilling both sides to hash-partitioned files on the compare
+     * host and matching each partition pair in parallel.  Findings collect in local logs and
+     * the repository is only written with one findings export per side and the final counts,
+     * no staging tables or observer are used.
+     *
+     * @param dct Table information
+     * @param cid Compare ID
+     * @param dctmSource Source table map
+     * @param dctmTarget Target table map
+     * @param ciSource Source column metadata
+     * @param ciTarget Target column metadata
+     * @param connRepo Repository connection
+     * @param partitions Number of spill partitions
+     * @throws InterruptedException if thread operations are interrupted
+     */
+    private static void executeSpillReconciliation(DataComparisonTable dct, Integer cid, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
+                                                   ColumnMetadata ciSource, ColumnMetadata ciTarget, Connection connRepo, int partitions)
+                                                  throws InterruptedException {
+        boolean useDatabaseHash = Props.getProperty("column-hash-method").equals("database");
+        List<SpillWriter> sourceWriters = new ArrayList<>();
+        List<SpillWriter> targetWriters = new ArrayList<>();
+        Path directory = null;
+
+        try {
+            directory = Files.createTempDirectory(Path.of(Props.getProperty("spill-directory")), String.format("pgcompare-t%s-", dct.getTid()));
+            LoggingUtils.write("info", THREAD_NAME, String.format("Spilling to %d partitions in %s", partitions, directory));
+
+            for (int i = 0; i < dct.getParallelDegree(); i++) {
+                ThreadSync ts = new ThreadSync();
+                SpillWriter srcSpill = new SpillWriter(directory, "source", i, partitions);
+                SpillWriter tgtSpill = new SpillWriter(directory, "target", i, partitions);
+                sourceWriters.add(srcSpill);
+                targetWriters.add(tgtSpill);
+
+                DataComparisonThread srcThread = new DataComparisonThread(i, dct, dctmSource, ciSource, cid, ts, useDatabaseHash, null, null, srcSpill);
+                DataComparisonThread tgtThread = new DataComparisonThread(i, dct, dctmTarget, ciTarget, cid, ts, useDatabaseHash, null, null, tgtSpill);
+
+                srcThread.start();
+                compareList.add(srcThread);
+
+                tgtThread.start();
+                compareList.add(tgtThread);
+            }
+
+            LoggingUtils.write("info", THREAD_NAME, "Waiting for compare threads to complete");
+            joinThreads(compareList);
+
+            // Partial spill files would report every missing row as a finding
+            if (compareList.stream().anyMatch(DataComparisonThread::isFailed)) {
+                throw new RuntimeException("Compare thread failed, spill partitions not matched");
+            }
+
+            long equal;
+            try (SpillMatcher matcher = new SpillMatcher(dct, directory, sourceWriters, targetWriters,
+                    CompactKeyUtils.isEnabled(ciSource) ? ciSource.getPkNames() : null,
+                    CompactKeyUtils.isEnabled(ciTarget) ? ciTarget.getPkNames() : null)) {
+                equal = matcher.match(Runtime.getRuntime().availableProcessors());
+
+                // Findings stay local until every partition is matched, then one COPY per side
+                matcher.exportFindings(connRepo);
+            }
+
+            ResultCountWriter.addEqual(cid, equal);
+            ProgressTracker.addMatched(dct.getTableAlias(), equal);
+
+            LoggingUtils.write("info", THREAD_NAME, "All spill partitions matched");
+        } catch (InterruptedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            LoggingUtils.write("severe", THREAD_NAME, String.format("Error matching spill partitions: %s", e.getMessage()));
+            throw new RuntimeException("Failed to match spill partitions", e);
+        } finally {
+            deleteSpillDirectory(directory);
+        }
+    }
+
+    /**
+     * Remove a spill directory and its files.
+     *
+     * @param directory Spill directory, may be null
+     */
+    private static void deleteSpillDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("Error removing spill directory %s: %s", directory, e.getMessage()));
+        }
+    }
+
     /**
      * Clear all thread lists.
      */
     private static void clearThreadLists() {
         compareList.clear();
-        loaderList.clear();
         observerList.clear();
+        queueList.clear();
     }
     
     /**
@@ -105,21 +217,22 @@ public class ThreadManager {
      * @param dctmTarget Target table map
      * @param ciSource Source column metadata
      * @param ciTarget Target column metadata
-     * @param qs Source queue
-     * @param qt Target queue
-     * @param useLoaderThreads Whether to use loader threads
+     * @param loaderPool Loader pool, or null when rows are staged by the compare threads
      * @param connRepo Repository connection
      * @throws InterruptedException if thread operations are interrupted
      */
     private static void startReconcileThreads(DataComparisonTable dct, Integer cid, DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
                                               ColumnMetadata ciSource, ColumnMetadata ciTarget,
-                                              BlockingQueue<DataComparisonResult[]> qs, BlockingQueue<DataComparisonResult[]> qt,
-                                              boolean useLoaderThreads, Connection connRepo)
+                                              LoaderPool loaderPool, Connection connRepo)
                                              throws InterruptedException {
         
         RepoController rpc = new RepoController();
         String columnHashMethod = Props.getProperty("column-hash-method");
         boolean useDatabaseHash = columnHashMethod.equals("database");
+
+        if (loaderPool != null) {
+            loaderPool.start();
+        }
         
         for (int i = 0; i < dct.getParallelDegree(); i++) {
             // Create thread synchronization object
@@ -139,64 +252,68 @@ public class ThreadManager {
             }
             
             // Create and start observer thread
-            ObserverThread observer = new ObserverThread(dct, cid, ts, i, stagingSource, stagingTarget);
+            ObserverThread observer = new ObserverThread(dct, cid, ts, i, stagingSource, stagingTarget,
+                    CompactKeyUtils.isEnabled(ciSource) ? ciSource.getPkNames() : null,
+                    CompactKeyUtils.isEnabled(ciTarget) ? ciTarget.getPkNames() : null);
             observer.start();
             observerList.add(observer);
-            
+
+            // Each partition has its own queues, so batches are loaded into the staging tables of their partition
+            BatchQueue qs = null;
+            BatchQueue qt = null;
+            if (loaderPool != null) {
+                qs = createQueue(loaderPool, dct, "source", i, stagingSource);
+                qt = createQueue(loaderPool, dct, "target", i, stagingTarget);
+            }
+
             // Create and start compare threads
-            DataComparisonThread srcThread = new DataComparisonThread(i, dct, dctmSource, ciSource, cid, ts, useDatabaseHash, stagingSource, qs);
-            DataComparisonThread tgtThread = new DataComparisonThread(i, dct, dctmTarget, ciTarget, cid, ts, useDatabaseHash, stagingTarget, qt);
+            DataComparisonThread srcThread = new DataComparisonThread(i, dct, dctmSource, ciSource, cid, ts, useDatabaseHash, stagingSource, qs, null);
+            DataComparisonThread tgtThread = new DataComparisonThread(i, dct, dctmTarget, ciTarget, cid, ts, useDatabaseHash, stagingTarget, qt, null);
             
             srcThread.start();
             compareList.add(srcThread);
             
             tgtThread.start();
             compareList.add(tgtThread);
-            
-            // Create and start loader threads if enabled
-            if (useLoaderThreads) {
-                startLoaderThreads(i, qs, qt, stagingSource, stagingTarget, ts);
-            }
-            
-            // Brief pause between thread creation
-            Thread.sleep(THREAD_SLEEP_MS);
         }
     }
     
     /**
-     * Start loader threads for data processing.
-     * 
-     * @param threadIndex Thread index
-     * @param qs Source queue
-     * @param qt Target queue
-     * @param stagingSource Source staging table
-     * @param stagingTarget Target staging table
-     * @param ts Thread synchronization object
+     * Create the queue between a compare thread and the loader pool, bounded by
+     * message-queue-size batches and message-queue-mb of estimated row data.
+     *
+     * @param loaderPool Loader pool serving the queue
+     * @param dct Table information
+     * @param targetType source or target
+     * @param partition Parallel partition of the compare thread
+     * @param stagingTable Staging table of the partition
+     * @return The queue
      */
-    private static void startLoaderThreads(int threadIndex, BlockingQueue<DataComparisonResult[]> qs, BlockingQueue<DataComparisonResult[]> qt,
-                                           String stagingSource, String stagingTarget, ThreadSync ts) {
-        int loaderThreads = Integer.parseInt(Props.getProperty("loader-threads"));
-        
-        for (int li = 1; li <= loaderThreads; li++) {
-            DataLoaderThread loaderSrc = new DataLoaderThread(threadIndex, li, "source", qs, stagingSource, ts);
-            DataLoaderThread loaderTgt = new DataLoaderThread(threadIndex, li, "target", qt, stagingTarget, ts);
-            
-            loaderSrc.start();
-            loaderList.add(loaderSrc);
-            
-            loaderTgt.start();
-            loaderList.add(loaderTgt);
-        }
+    private static BatchQueue createQueue(LoaderPool loaderPool, DataComparisonTable dct, String targetType, int partition, String stagingTable) {
+        BatchQueue queue = new BatchQueue(String.format("queue-%s-t%s-%s", targetType, dct.getTid(), partition), targetType, partition, stagingTable,
+                Integer.parseInt(Props.getProperty("message-queue-size")),
+                Long.parseLong(Props.getProperty("message-queue-mb")) * 1024 * 1024);
+        loaderPool.register(queue);
+        queueList.add(queue);
+        return queue;
     }
-    
+
     /**
      * Wait for all threads to complete.
      * 
+     * @param loaderPool Loader pool, or null when loader threads are disabled
      * @throws InterruptedException if thread operations are interrupted
      */
-    private static void waitForThreadCompletion() throws InterruptedException {
+    private static void waitForThreadCompletion(LoaderPool loaderPool) throws InterruptedException {
         LoggingUtils.write("info", THREAD_NAME, "Waiting for compare threads to complete");
         joinThreads(compareList);
+
+        for (BatchQueue queue : queueList) {
+            LoggingUtils.write("info", THREAD_NAME, queue.summary());
+        }
+        if (loaderPool != null) {
+            LoggingUtils.write("info", THREAD_NAME, loaderPool.summary());
+        }
         
         LoggingUtils.write("info", THREAD_NAME, "Waiting for reconcile threads to complete");
         joinThreads(observerList);
@@ -21,7 +21,7 @@ package com.crunchydata.core.threading;
  *
  * <p>This class provides synchronized methods for threads to wait and notify each other.</p>
  *
- * <p>It includes flags to indicate the status of source and target operations, as well as a counter for completed loader threads.</p>
+ * <p>It includes flags to indicate the status of source and target operations.</p>
  *
  * <p>Usage example:</p>
  * <pre>
@@ -50,15 +50,6 @@ public class ThreadSync {
     public volatile boolean sourceWaiting = false;
     public volatile boolean targetWaiting = false;
 
-    public volatile int loaderThreadComplete = 0;
-
-    /**
-     * Increase the number of threads complete.
-     */
-    public synchronized void incrementLoaderThreadComplete() {
-        loaderThreadComplete++;
-    }
-
     /**
      * Causes the current thread to wait until it is notified.
      * This method must be called from a synchronized context.
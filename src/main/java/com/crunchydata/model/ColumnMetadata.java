@@ -21,6 +21,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,4 +35,5 @@ public class ColumnMetadata {
     public String pkExpressionList;
     public String pkList;
     public String pkJSON;
+    public List<String> pkNames;
 }
@@ -33,6 +33,8 @@ public class DataComparisonTableMap {
     private String tableFilter;
     private boolean tablePreserveCase = false;
     private boolean schemaPreserveCase = false;
+    private Integer scanParallel;
+    private String queryHint;
     //Not from Table
     private Integer batchNbr;
     private String compareSQL;
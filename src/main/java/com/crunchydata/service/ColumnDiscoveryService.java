@@ -17,25 +17,36 @@
 package com.crunchydata.service;
 
 import com.crunchydata.core.database.SQLExecutionHelper;
-import com.crunchydata.model.DataComparisonTableColumn;
-import com.crunchydata.model.DataComparisonTableColumnMap;
 import com.crunchydata.util.LoggingUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import javax.sql.rowset.CachedRowSet;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.crunchydata.util.ColumnMetadataUtils.getColumns;
+import static com.crunchydata.util.ColumnMetadataUtils.getSchemaColumns;
 import static com.crunchydata.config.sql.RepoSQLConstants.*;
 
 /**
  * Service class for handling column discovery operations.
- * This class provides optimized methods for discovering and processing
- * database columns from source and target databases.
+ *
+ * <p>Catalog metadata is read with one query per schema (or per table when a table
+ * filter is given), with the source and target catalogs read in parallel.  The results
+ * are written to dc_table_column and dc_table_column_map with batched, array-bound
+ * statements instead of one round trip per column.</p>
  * 
  * @author Brian Pace
  */
@@ -62,12 +73,42 @@ public class ColumnDiscoveryService {
         
         // Clear previous mappings
         clearPreviousMappings(connRepo, pid, table);
-        
-        // Discover target columns first
-        discoverColumnsForRole(props, pid, table, connRepo, connTarget, TARGET_ROLE);
-        
-        // Discover source columns
-        discoverColumnsForRole(props, pid, table, connRepo, connSource, SOURCE_ROLE);
+
+        List<TableMapRow> targetTables = getTableMaps(connRepo, pid, table, TARGET_ROLE);
+        List<TableMapRow> sourceTables = getTableMaps(connRepo, pid, table, SOURCE_ROLE);
+
+        // Read the target and source catalogs in parallel, each on its own connection
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Map<Integer, JSONArray> targetColumns;
+        Map<Integer, JSONArray> sourceColumns;
+
+        try {
+            Future<Map<Integer, JSONArray>> targetFuture = executor.submit(() -> readCatalog(props, connTarget, targetTables, !table.isEmpty(), TARGET_ROLE));
+            Future<Map<Integer, JSONArray>> sourceFuture = executor.submit(() -> readCatalog(props, connSource, sourceTables, !table.isEmpty(), SOURCE_ROLE));
+
+            targetColumns = targetFuture.get();
+            sourceColumns = sourceFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Column discovery interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Error reading catalog metadata", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        // Target columns first so column IDs follow the target column order
+        Map<Integer, List<String>> aliases = new LinkedHashMap<>();
+        collectAliases(aliases, targetColumns);
+        collectAliases(aliases, sourceColumns);
+
+        Map<String, Integer> columnIds = saveColumns(props, connRepo, aliases);
+
+        int mapCount = saveColumnMaps(props, connRepo, columnIds, targetColumns, TARGET_ROLE)
+                     + saveColumnMaps(props, connRepo, columnIds, sourceColumns, SOURCE_ROLE);
+
+        LoggingUtils.write("info", THREAD_NAME,
+            String.format("Discovered %d columns and %d column mappings for %d tables", columnIds.size(), mapCount, aliases.size()));
     }
     
     /**
@@ -90,22 +131,18 @@ public class ColumnDiscoveryService {
             
         SQLExecutionHelper.simpleUpdate(connRepo, sql, binds, true);
     }
-    
+
     /**
-     * Discover columns for a specific role (source or target).
-     * 
-     * @param props Application properties
+     * Get the table maps for a role.
+     *
+     * @param connRepo Repository connection
      * @param pid Project ID
      * @param table Table name filter
-     * @param connRepo Repository connection
-     * @param connDest Destination database connection
      * @param role Role (source or target)
+     * @return Table maps
      * @throws SQLException if database operations fail
      */
-    private static void discoverColumnsForRole(Properties props, Integer pid, String table,
-                                             Connection connRepo, Connection connDest, String role) 
-                                             throws SQLException {
-        
+    private static List<TableMapRow> getTableMaps(Connection connRepo, Integer pid, String table, String role) throws SQLException {
         String sql = table.isEmpty() 
             ? SQL_REPO_DCTABLEMAP_SELECTBYPIDORIGIN 
             : SQL_REPO_DCTABLEMAP_SELECTBYPIDORIGINTABLE;
@@ -116,138 +153,231 @@ public class ColumnDiscoveryService {
         if (!table.isEmpty()) {
             binds.add(table);
         }
+
+        List<TableMapRow> tables = new ArrayList<>();
         
         try (CachedRowSet crs = SQLExecutionHelper.simpleSelect(connRepo, sql, binds)) {
             while (crs.next()) {
-                loadColumns(props, crs.getInt("tid"), 
-                    crs.getString("schema_name"), crs.getString("table_name"), 
-                    connRepo, connDest, role, true);
+                tables.add(new TableMapRow(crs.getInt("tid"), crs.getString("schema_name"), crs.getString("table_name")));
             }
         }
+
+        return tables;
     }
-    
+
     /**
-     * Load columns for a specific table.
-     * 
+     * Read the catalog column metadata for the mapped tables of one role.
+     *
      * @param props Application properties
-     * @param tid Table ID
-     * @param schema Schema name
-     * @param tableName Table name
-     * @param connRepo Repository connection
-     * @param connDest Destination database connection
+     * @param connDest Source or target connection
+     * @param tables Table maps for the role
+     * @param perTable Read the catalog per table instead of per schema
      * @param destRole Destination role
-     * @param populateDCTableColumn Whether to populate DCTableColumn
+     * @return Column metadata by table ID
      */
-    public static void loadColumns(Properties props, Integer tid, String schema, String tableName,
-                                 Connection connRepo, Connection connDest, String destRole, 
-                                 Boolean populateDCTableColumn) {
-        
-        String destType = props.getProperty(destRole + "-type");
-        int columnCount = 0;
-        
-        LoggingUtils.write("info", THREAD_NAME,
-            String.format("(%s) Performing column discovery on %s for table %s", 
-                destRole, destType, tableName));
-        
-        // Get columns from the database
-        JSONArray columns = getColumns(props, connDest, schema, tableName, destRole);
-        
-        // Process each column
-        for (int i = 0; i < columns.length(); i++) {
-            JSONObject columnInfo = columns.getJSONObject(i);
-            String columnName = columnInfo.getString("columnName");
-            
-            // Check if column already exists
-            Integer cid = findExistingColumn(connRepo, tid, columnName);
-            
-            // Create or update column record
-            DataComparisonTableColumn dtc = createOrUpdateColumn(tid, columnName, cid, populateDCTableColumn, connRepo);
-            
-            if (dtc.getColumnID() != null) {
-                columnCount++;
-                createColumnMapping(connRepo, tid, dtc.getColumnID(), destRole, columnInfo);
-                LoggingUtils.write("info", THREAD_NAME,
-                    String.format("(%s) Discovered Column: %s", destRole, columnName));
+    private static Map<Integer, JSONArray> readCatalog(Properties props, Connection connDest, List<TableMapRow> tables,
+                                                       boolean perTable, String destRole) {
+        Map<Integer, JSONArray> columnsByTid = new HashMap<>();
+
+        if (perTable) {
+            for (TableMapRow t : tables) {
+                columnsByTid.put(t.tid(), getColumns(props, connDest, t.schemaName(), t.tableName(), destRole));
             }
+            return columnsByTid;
         }
-        
-        LoggingUtils.write("info", THREAD_NAME,
-            String.format("(%s) Discovered %d columns for table %s", destRole, columnCount, tableName));
+
+        Map<String, List<TableMapRow>> bySchema = new LinkedHashMap<>();
+        for (TableMapRow t : tables) {
+            bySchema.computeIfAbsent(t.schemaName(), k -> new ArrayList<>()).add(t);
+        }
+
+        for (Map.Entry<String, List<TableMapRow>> schema : bySchema.entrySet()) {
+            LoggingUtils.write("info", THREAD_NAME,
+                String.format("(%s) Performing column discovery on %s for schema %s (%d tables)",
+                    destRole, props.getProperty(destRole + "-type"), schema.getKey(), schema.getValue().size()));
+
+            Map<String, JSONArray> schemaColumns = getSchemaColumns(props, connDest, schema.getKey(), destRole);
+
+            for (TableMapRow t : schema.getValue()) {
+                columnsByTid.put(t.tid(), schemaColumns.getOrDefault(t.tableName().toLowerCase(), new JSONArray()));
+            }
+        }
+
+        return columnsByTid;
     }
-    
+
     /**
-     * Find existing column by table ID and column name.
-     * 
-     * @param connRepo Repository connection
-     * @param tid Table ID
-     * @param columnName Column name
-     * @return Column ID if found, null otherwise
+     * Add the lower case column aliases of each table, skipping ones already present.
+     *
+     * @param aliases Aliases by table ID
+     * @param columnsByTid Column metadata by table ID
      */
-    private static Integer findExistingColumn(Connection connRepo, Integer tid, String columnName)  {
-        ArrayList<Object> binds = new ArrayList<>();
-        binds.add(tid);
-        binds.add(columnName);
-        
-        return SQLExecutionHelper.simpleSelectReturnInteger(connRepo, SQL_REPO_DCTABLECOLUMN_SELECTBYTIDALIAS, binds);
+    private static void collectAliases(Map<Integer, List<String>> aliases, Map<Integer, JSONArray> columnsByTid) {
+        for (Map.Entry<Integer, JSONArray> entry : columnsByTid.entrySet()) {
+            List<String> tableAliases = aliases.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+            for (int i = 0; i < entry.getValue().length(); i++) {
+                String alias = entry.getValue().getJSONObject(i).getString("columnName").toLowerCase();
+                if (!tableAliases.contains(alias)) {
+                    tableAliases.add(alias);
+                }
+            }
+        }
     }
-    
+
     /**
-     * Create or update a column record.
-     * 
-     * @param tid Table ID
-     * @param columnName Column name
-     * @param cid Existing column ID
-     * @param populateDCTableColumn Whether to populate DCTableColumn
+     * Insert dc_table_column rows in batches and return the column IDs.
+     *
+     * @param props Application properties
      * @param connRepo Repository connection
-     * @return DCTableColumn object
+     * @param aliases Aliases by table ID
+     * @return Column ID keyed by "tid.alias"
+     * @throws SQLException if database operations fail
      */
-    private static DataComparisonTableColumn createOrUpdateColumn(Integer tid, String columnName, Integer cid,
-                                                                  Boolean populateDCTableColumn, Connection connRepo) {
-        DataComparisonTableColumn dtc = new DataComparisonTableColumn();
-        dtc.setTid(tid);
-        dtc.setColumnAlias(columnName.toLowerCase());
-        
-        if (cid == null) {
-            if (populateDCTableColumn) {
-                dtc = com.crunchydata.controller.RepoController.saveTableColumn(connRepo, dtc);
-            } else {
-                LoggingUtils.write("warning", THREAD_NAME,
-                    String.format("Skipping column since no column alias found for %s", columnName));
+    private static Map<String, Integer> saveColumns(Properties props, Connection connRepo, Map<Integer, List<String>> aliases) throws SQLException {
+        int batchSize = Integer.parseInt(props.getProperty("batch-commit-size"));
+        List<Long> tids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        for (Map.Entry<Integer, List<String>> entry : aliases.entrySet()) {
+            for (String alias : entry.getValue()) {
+                tids.add(entry.getKey().longValue());
+                names.add(alias);
+
+                if (tids.size() >= batchSize) {
+                    insertColumnBatch(connRepo, tids, names);
+                }
             }
-        } else {
-            dtc.setColumnID(cid);
         }
-        
-        return dtc;
+        insertColumnBatch(connRepo, tids, names);
+
+        Map<String, Integer> columnIds = new HashMap<>();
+        ArrayList<Object> binds = new ArrayList<>();
+        binds.add(connRepo.createArrayOf("int8", aliases.keySet().stream().map(Integer::longValue).toArray()));
+
+        try (CachedRowSet crs = SQLExecutionHelper.simpleSelect(connRepo, SQL_REPO_DCTABLECOLUMN_SELECTBYTIDS, binds)) {
+            while (crs.next()) {
+                columnIds.put(crs.getInt("tid") + "." + crs.getString("column_alias"), crs.getInt("column_id"));
+            }
+        }
+
+        return columnIds;
     }
-    
+
+    private static void insertColumnBatch(Connection connRepo, List<Long> tids, List<String> names) throws SQLException {
+        if (tids.isEmpty()) {
+            return;
+        }
+
+        ArrayList<Object> binds = new ArrayList<>();
+        binds.add(connRepo.createArrayOf("int8", tids.toArray()));
+        binds.add(connRepo.createArrayOf("text", names.toArray()));
+
+        if (SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTABLECOLUMN_INSERTBATCH, binds, true) < 0) {
+            throw new SQLException("Error saving table columns");
+        }
+
+        tids.clear();
+        names.clear();
+    }
+
     /**
-     * Create column mapping record.
-     * 
+     * Upsert dc_table_column_map rows for one role in batches.
+     *
+     * @param props Application properties
      * @param connRepo Repository connection
-     * @param tid Table ID
-     * @param columnID Column ID
+     * @param columnIds Column ID keyed by "tid.alias"
+     * @param columnsByTid Column metadata by table ID
      * @param destRole Destination role
-     * @param columnInfo Column information JSON
+     * @return Number of column mappings written
+     * @throws SQLException if database operations fail
      */
-    private static void createColumnMapping(Connection connRepo, Integer tid, Integer columnID,
-                                         String destRole, JSONObject columnInfo)  {
-        DataComparisonTableColumnMap dctcm = new DataComparisonTableColumnMap();
-        
-        dctcm.setTid(tid);
-        dctcm.setColumnID(columnID);
-        dctcm.setColumnOrigin(destRole);
-        dctcm.setColumnName(columnInfo.getString("columnName"));
-        dctcm.setDataType(columnInfo.getString("dataType"));
-        dctcm.setDataClass(columnInfo.getString("dataClass"));
-        dctcm.setDataLength(columnInfo.getInt("dataLength"));
-        dctcm.setNumberPrecision(columnInfo.getInt("dataPrecision"));
-        dctcm.setNumberScale(columnInfo.getInt("dataScale"));
-        dctcm.setColumnNullable(columnInfo.getBoolean("nullable"));
-        dctcm.setColumnPrimaryKey(columnInfo.getBoolean("primaryKey"));
-        dctcm.setSupported(columnInfo.getBoolean("supported"));
-        dctcm.setPreserveCase(columnInfo.getBoolean("preserveCase"));
-        
-        com.crunchydata.controller.RepoController.saveTableColumnMap(connRepo, dctcm);
+    private static int saveColumnMaps(Properties props, Connection connRepo, Map<String, Integer> columnIds,
+                                      Map<Integer, JSONArray> columnsByTid, String destRole) throws SQLException {
+        int batchSize = Integer.parseInt(props.getProperty("batch-commit-size"));
+        ColumnMapBatch batch = new ColumnMapBatch();
+        int count = 0;
+
+        for (Map.Entry<Integer, JSONArray> entry : columnsByTid.entrySet()) {
+            for (int i = 0; i < entry.getValue().length(); i++) {
+                JSONObject columnInfo = entry.getValue().getJSONObject(i);
+                Integer columnId = columnIds.get(entry.getKey() + "." + columnInfo.getString("columnName").toLowerCase());
+
+                if (columnId == null) {
+                    LoggingUtils.write("warning", THREAD_NAME,
+                        String.format("Skipping column since no column alias found for %s", columnInfo.getString("columnName")));
+                    continue;
+                }
+
+                batch.add(entry.getKey(), columnId, destRole, columnInfo);
+                count++;
+
+                LoggingUtils.write("debug", THREAD_NAME,
+                    String.format("(%s) Discovered Column: %s", destRole, columnInfo.getString("columnName")));
+
+                if (batch.size() >= batchSize) {
+                    batch.flush(connRepo);
+                }
+            }
+        }
+        batch.flush(connRepo);
+
+        LoggingUtils.write("info", THREAD_NAME,
+            String.format("(%s) Discovered %d columns", destRole, count));
+
+        return count;
+    }
+
+    /**
+     * Table map row used during discovery.
+     */
+    private record TableMapRow(Integer tid, String schemaName, String tableName) { }
+
+    /**
+     * Column-wise buffer of dc_table_column_map rows, bound as arrays.
+     */
+    private static class ColumnMapBatch {
+        private final List<List<Object>> columns = new ArrayList<>();
+        private static final String[] TYPES = {"int8", "int8", "varchar", "text", "text", "varchar", "int4",
+                                               "int4", "int4", "bool", "bool", "bool", "bool"};
+
+        ColumnMapBatch() {
+            for (int i = 0; i < TYPES.length; i++) {
+                columns.add(new ArrayList<>());
+            }
+        }
+
+        void add(Integer tid, Integer columnId, String destRole, JSONObject columnInfo) {
+            Object[] row = {tid.longValue(), columnId.longValue(), destRole,
+                    columnInfo.getString("columnName"), columnInfo.getString("dataType"), columnInfo.getString("dataClass"),
+                    columnInfo.getInt("dataLength"), columnInfo.getInt("dataPrecision"), columnInfo.getInt("dataScale"),
+                    columnInfo.getBoolean("nullable"), columnInfo.getBoolean("primaryKey"),
+                    columnInfo.getBoolean("supported"), columnInfo.getBoolean("preserveCase")};
+
+            for (int i = 0; i < row.length; i++) {
+                columns.get(i).add(row[i]);
+            }
+        }
+
+        int size() {
+            return columns.getFirst().size();
+        }
+
+        void flush(Connection connRepo) throws SQLException {
+            if (size() == 0) {
+                return;
+            }
+
+            ArrayList<Object> binds = new ArrayList<>();
+            for (int i = 0; i < TYPES.length; i++) {
+                Array array = connRepo.createArrayOf(TYPES[i], columns.get(i).toArray());
+                binds.add(array);
+            }
+
+            if (SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DCTABLECOLUMNMAP_UPSERTBATCH, binds, true) < 0) {
+                throw new SQLException("Error saving table column maps");
+            }
+
+            columns.forEach(List::clear);
+        }
     }
 }
@@ -47,6 +47,8 @@ public class DatabaseConnectionService {
     private static final String PREPARED_STATEMENT_CACHE = "preparedStatementCacheQueries";
     private static final String APPLICATION_NAME = "ApplicationName";
     private static final String SYNCHRONOUS_COMMIT = "synchronous_commit";
+    private static final String ORACLE_ROW_PREFETCH = "defaultRowPrefetch";
+    private static final String ORACLE_LOB_PREFETCH = "oracle.jdbc.defaultLobPrefetchSize";
     
     // Platform-specific constants
     private static final String POSTGRES_APP_NAME = "pgcompare";
@@ -205,6 +207,10 @@ public class DatabaseConnectionService {
             props.setProperty(PREPARED_STATEMENT_CACHE, "5");
             props.setProperty(APPLICATION_NAME, POSTGRES_APP_NAME);
             props.setProperty(SYNCHRONOUS_COMMIT, "off");
+        } else if (platform == DatabaseMetadataService.DatabasePlatform.ORACLE) {
+            // Fetch whole batches per round trip and LOB data inline with its locator
+            props.setProperty(ORACLE_ROW_PREFETCH, Props.getProperty("batch-fetch-size"));
+            props.setProperty(ORACLE_LOB_PREFETCH, Props.getProperty("oracle-lob-prefetch-size"));
         }
         
         return props;
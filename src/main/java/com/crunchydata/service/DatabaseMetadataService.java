@@ -25,6 +25,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
 
 
@@ -59,19 +60,26 @@ public class DatabaseMetadataService {
      */
     public enum DatabasePlatform {
         DB2("db2", DB2_URL_TEMPLATE, true, false, false, "upper",
-                "\"", "LOWER(HASH(%s,'MD5')) AS %s", "||", "replace(%s, '\"', '\\\"')"),
+                "\"", "LOWER(HASH(%s,'MD5')) AS %s", "||", "replace(%s, '\"', '\\\"')",
+                null, null, "SET CURRENT DEGREE = '%d'"),
         ORACLE("oracle", ORACLE_URL_TEMPLATE, true, false, false, "upper",
-                "\"", "LOWER(STANDARD_HASH(%s,'MD5')) AS %s", "||", "replace(%s, '\"', '\\\"')"),
+                "\"", "LOWER(STANDARD_HASH(%s,'MD5')) AS %s", "||", "replace(%s, '\"', '\\\"')",
+                "PARALLEL(%1$d) FULL(%2$s)", null, null),
         MARIADB("mariadb", MARIADB_URL_TEMPLATE, false, true, true, "lower",
-                "`", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')"),
+                "`", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')",
+                null, null, null),
         MYSQL("mysql", MYSQL_URL_TEMPLATE, false, true, true, "lower",
-                "`", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')"),
+                "`", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')",
+                null, null, null),
         MSSQL("mssql", MSSQL_URL_TEMPLATE, false, false, false, "lower",
-                "\"", "lower(convert(varchar, hashbytes('MD5',%s),2)) AS %s", "+", "replace(%s, '\"', '\\\"')"),
+                "\"", "lower(convert(varchar(32), hashbytes('MD5',%s),2)) AS %s", "+", "replace(%s, '\"', '\\\"')",
+                null, " OPTION (MAXDOP %d)", null),
         POSTGRES("postgres", POSTGRES_URL_TEMPLATE, false, false, true, "lower",
-                "\"", "lower(md5(%s)) AS %s", "||", "replace(%s,'\"', '\\\"')"),
+                "\"", "lower(md5(%s)) AS %s", "||", "replace(%s,'\"', '\\\"')",
+                null, null, "SET max_parallel_workers_per_gather = %d"),
         SNOWFLAKE("snowflake", SNOWFLAKE_URL_TEMPLATE, false, false, true, "upper",
-                "\"", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')");
+                "\"", "lower(md5(%s)) AS %s", "||", "replace(%s, '\"', '\\\\\"')",
+                null, null, null);
 
         @Getter
         private final String name;
@@ -92,10 +100,16 @@ public class DatabaseMetadataService {
         private final String concatOperator;
         @Getter
         private final String replacePKSyntax;
+
+        // Full-scan parallelism: optimizer hint, trailing query option and session setting
+        private final String scanHintTemplate;
+        private final String scanOptionTemplate;
+        private final String scanSessionTemplate;
         
         DatabasePlatform(String name, String urlTemplate, boolean autoCommit,
                          boolean requiresAnsiMode, boolean supportsSSL, String nativeCase,
-                         String quoteChar, String columnHashTemplate, String concatOperator, String replacePKSyntax) {
+                         String quoteChar, String columnHashTemplate, String concatOperator, String replacePKSyntax,
+                         String scanHintTemplate, String scanOptionTemplate, String scanSessionTemplate) {
             this.name = name;
             this.urlTemplate = urlTemplate;
             this.autoCommit = autoCommit;
@@ -106,10 +120,44 @@ public class DatabaseMetadataService {
             this.columnHashTemplate = columnHashTemplate;
             this.concatOperator = concatOperator;
             this.replacePKSyntax = replacePKSyntax;
+            this.scanHintTemplate = scanHintTemplate;
+            this.scanOptionTemplate = scanOptionTemplate;
+            this.scanSessionTemplate = scanSessionTemplate;
         }
 
         public boolean requiresAnsiMode() { return requiresAnsiMode; }
 
+        /**
+         * Optimizer hint body (without comment delimiters) requesting a parallel full scan.
+         *
+         * @param degree Requested degree of parallelism, zero or less disables the hint
+         * @param tableName Table name as referenced in the FROM clause
+         * @return Hint text, empty when the platform has no hint or parallelism is disabled
+         */
+        public String getScanHint(int degree, String tableName) {
+            return (scanHintTemplate == null || degree <= 0) ? "" : String.format(scanHintTemplate, degree, tableName);
+        }
+
+        /**
+         * Query option appended after the full statement (including ORDER BY).
+         *
+         * @param degree Requested degree of parallelism, zero or less disables the option
+         * @return Option text, empty when not supported or disabled
+         */
+        public String getScanOption(int degree) {
+            return (scanOptionTemplate == null || degree <= 0) ? "" : String.format(scanOptionTemplate, degree);
+        }
+
+        /**
+         * Session statements to execute on the connection before the full-scan query.
+         *
+         * @param degree Requested degree of parallelism, zero or less returns no statements
+         * @return List of statements, possibly empty
+         */
+        public List<String> getScanSessionSettings(int degree) {
+            return (scanSessionTemplate == null || degree <= 0) ? List.of() : List.of(String.format(scanSessionTemplate, degree));
+        }
+
         /**
          * Get platform configuration by name, with fallback to POSTGRES for unknown platforms.
          */
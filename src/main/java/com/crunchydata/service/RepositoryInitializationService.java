@@ -133,13 +133,16 @@ public class RepositoryInitializationService {
         List<String> tableDDLs = List.of(
             REPO_DDL_DC_PROJECT,
             REPO_DDL_DC_RESULT,
+            REPO_DDL_DC_RESULT_COLUMN,
             REPO_DDL_DC_SOURCE,
             REPO_DDL_DC_TABLE,
             REPO_DDL_DC_TABLE_COLUMN,
             REPO_DDL_DC_TABLE_COLUMN_MAP,
             REPO_DDL_DC_TABLE_HISTORY,
             REPO_DDL_DC_TABLE_MAP,
-            REPO_DDL_DC_TARGET
+            REPO_DDL_DC_TARGET,
+            REPO_DDL_DC_SOURCE_DEFAULT,
+            REPO_DDL_DC_TARGET_DEFAULT
         );
         
         LoggingUtils.write("info", THREAD_NAME, "Creating repository tables");
@@ -155,12 +158,15 @@ public class RepositoryInitializationService {
     private static void createIndexesAndConstraints(Connection conn) throws SQLException {
         List<String> indexConstraintDDLs = List.of(
             REPO_DDL_DC_RESULT_IDX1,
+            REPO_DDL_DC_SOURCE_IDX1,
+            REPO_DDL_DC_TARGET_IDX1,
             REPO_DDL_DC_TABLE_HISTORY_IDX1,
             REPO_DDL_DC_TABLE_IDX1,
             REPO_DDL_DC_TABLE_COLUMN_IDX1,
             REPO_DDL_DC_TABLE_COLUMN_FK,
             REPO_DDL_DC_TABLE_MAP_FK,
-            REPO_DDL_DC_TABLE_COLUMN_MAP_FK
+            REPO_DDL_DC_TABLE_COLUMN_MAP_FK,
+            REPO_DDL_DC_RESULT_COLUMN_FK
         );
         
         LoggingUtils.write("info", THREAD_NAME, "Creating indexes and constraints");
@@ -191,7 +197,7 @@ public class RepositoryInitializationService {
      */
     private static void executeDDL(Connection conn, String ddl, DDLPhase phase) throws SQLException {
         ArrayList<Object> binds = new ArrayList<>();
-        int result = SQLExecutionHelper.simpleUpdate(conn, ddl, binds, true);
+        long result = SQLExecutionHelper.simpleUpdate(conn, ddl, binds, true);
         
         if (result < 0) {
             String errorMsg = String.format("DDL execution failed in phase %s", phase);
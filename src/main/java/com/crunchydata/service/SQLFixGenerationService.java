@@ -16,414 +16,327 @@
 
 package com.crunchydata.service;
 
-import com.crunchydata.core.database.SQLExecutionHelper;
-import com.crunchydata.model.DataComparisonResult;
-import com.crunchydata.model.DataComparisonTableMap;
+import com.crunchydata.core.fix.FixSink;
+import com.crunchydata.core.fix.FixTableMapping;
+import com.crunchydata.model.FixCandidate;
 import com.crunchydata.util.LoggingUtils;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
-import javax.sql.rowset.CachedRowSet;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
-import static com.crunchydata.service.DatabaseMetadataService.getQuoteChar;
-import static com.crunchydata.util.DataProcessingUtils.ShouldQuoteString;
 import static com.crunchydata.config.Settings.Props;
 
 /**
- * Service class for generating SQL statements to fix data synchronization issues.
- * This service generates INSERT, UPDATE, and DELETE statements to make the target
- * database match the source database.
+ * Service class for generating the repairs that make the target database match the source.
+ * Fixes are generated as a separate stage after the check: full source rows are fetched for
+ * many primary keys per query and handed, with the deletes, to a {@link FixSink}.
  * 
  * @author Brian Pace
  */
 public class SQLFixGenerationService {
     
     private static final String THREAD_NAME = "sql-generation";
-    
-    // Constants for comparison results
-    private static final int MISSING_TARGET_FLAG = 1;
-    private static final int MISSING_SOURCE_FLAG = 1;
-    
+
+    public static final String ACTION_INSERT = "insert";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_DELETE = "delete";
+
+    // Driver specific JDBC types of time zone aware timestamps (Oracle, SQL Server)
+    // Source rows are fetched with one UNION ALL branch per key, bounded per statement to keep
+    // statements small and within the bind parameter limit of the source (2100 on SQL Server)
+    private static final int MAX_KEYS_PER_STATEMENT = 100;
+    private static final int MAX_BIND_PARAMETERS = 32000;
+    private static final int MSSQL_MAX_BIND_PARAMETERS = 2000;
+
+    private static final int ORACLE_TIMESTAMPTZ = -101;
+    private static final int MSSQL_DATETIMEOFFSET = -155;
+
+    private static final DateTimeFormatter TIMESTAMP_LITERAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final DateTimeFormatter TIMESTAMPTZ_LITERAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSxxx");
+
     /**
-     * Generates SQL fix statement based on the row comparison result.
-     * 
-     * @param sourceConn Source database connection
-     * @param targetConn Target database connection
-     * @param dctmSource Source table mapping
-     * @param dctmTarget Target table mapping
-     * @param binds Bind parameters for the primary key WHERE clause
-     * @param dcRow Data comparison result row
-     * @param rowResult Result object from reCheck containing comparison details
-     * @return SQL statement to fix the discrepancy, or null if no fix needed
+     * Classify a checked row into the repair it needs.
+     *
+     * @param rowResult Result object from the check of the row
+     * @return insert, update or delete, or null when the row is in sync
      */
-    public static String generateFixSQL(Connection sourceConn, Connection targetConn, 
-                                       DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
-                                       ArrayList<Object> binds, DataComparisonResult dcRow, 
-                                       JSONObject rowResult, CachedRowSet sourceRow, CachedRowSet targetRow, JSONObject columnMapping) {
-        // Validate inputs
-        Objects.requireNonNull(dctmTarget, "Target table map cannot be null");
-        Objects.requireNonNull(dcRow, "Data comparison row cannot be null");
-        Objects.requireNonNull(rowResult, "Row result cannot be null");
-        
-        try {
-            // Extract primary key JSON
-            JSONObject pk = new JSONObject(dcRow.getPk());
-            
-            // Determine the type of fix needed based on rowResult
-            if (isMissingSource(rowResult)) {
-                // Row exists on target but not on source -> DELETE from target
-                return generateDeleteSQL(dctmTarget, pk);
-                
-            } else if (isMissingTarget(rowResult)) {
-                // Row exists on source but not on target -> INSERT into target
-                return generateInsertSQL(sourceConn, dctmSource, dctmTarget, binds, pk, sourceRow, columnMapping);
-                
-            } else if (isNotEqual(rowResult)) {
-                // Row exists on both but columns don't match -> UPDATE target
-                return generateUpdateSQL(sourceConn, targetConn, dctmSource, dctmTarget, 
-                                       binds, pk, rowResult);
-            }
-            
-        } catch (Exception e) {
-            LoggingUtils.write("severe", THREAD_NAME, 
-                String.format("Error generating fix SQL for pk %s: %s", dcRow.getPk(), e.getMessage()));
+    public static String fixAction(JSONObject rowResult) {
+        if (rowResult.optInt("missingSource", 0) == 1) {
+            // Row exists on target but not on source
+            return ACTION_DELETE;
+        } else if (rowResult.optInt("missingTarget", 0) == 1) {
+            return ACTION_INSERT;
+        } else if (rowResult.optInt("notEqual", 0) == 1) {
+            return ACTION_UPDATE;
         }
-        
         return null;
     }
-    
-    /**
-     * Checks if the row is missing from the source database.
-     * 
-     * @param rowResult Row result from reCheck
-     * @return true if row is missing from source
-     */
-    private static boolean isMissingSource(JSONObject rowResult) {
-        return rowResult.has("missingSource") && 
-               rowResult.getInt("missingSource") == MISSING_SOURCE_FLAG;
-    }
-    
-    /**
-     * Checks if the row is missing from the target database.
-     * 
-     * @param rowResult Row result from reCheck
-     * @return true if row is missing from target
-     */
-    private static boolean isMissingTarget(JSONObject rowResult) {
-        return rowResult.has("missingTarget") && 
-               rowResult.getInt("missingTarget") == MISSING_TARGET_FLAG;
-    }
-    
+
     /**
-     * Checks if the row exists in both databases but with different values.
-     * 
-     * @param rowResult Row result from reCheck
-     * @return true if row exists in both but values don't match
+     * Generate the repairs for the out-of-sync rows of a table.
+     *
+     * @param sourceConn Source database connection
+     * @param mapping Column mapping of the table
+     * @param candidates Rows to repair
+     * @param sink Destination of the repairs
+     * @return Number of repairs written to the sink
+     * @throws Exception if the source cannot be read or the sink fails
      */
-    private static boolean isNotEqual(JSONObject rowResult) {
-        return rowResult.has("notEqual") && rowResult.getInt("notEqual") == 1;
+    public static long generateFixes(Connection sourceConn, FixTableMapping mapping, List<FixCandidate> candidates, FixSink sink) throws Exception {
+        Objects.requireNonNull(mapping, "Fix table mapping cannot be null");
+        Objects.requireNonNull(sink, "Fix sink cannot be null");
+
+        if (mapping.getPkPositions().length == 0) {
+            LoggingUtils.write("warning", THREAD_NAME, String.format("No primary key mapped for %s, fixes not generated", mapping.getTargetTable()));
+            return 0;
+        }
+
+        int batchSize = Math.max(1, Integer.parseInt(Props.getProperty("fix-batch-size", "500")));
+        List<FixCandidate> pending = new ArrayList<>(batchSize);
+
+        for (FixCandidate candidate : candidates) {
+            if (ACTION_DELETE.equals(candidate.getAction())) {
+                Object[] pkValues = mapping.pkValues(new JSONObject(candidate.getPk()));
+                if (pkValues == null) {
+                    LoggingUtils.write("warning", THREAD_NAME, String.format("Primary key not in column mapping, pk %s", candidate.getPk()));
+                } else {
+                    sink.delete(pkValues);
+                }
+                continue;
+            }
+
+            pending.add(candidate);
+            if (pending.size() == batchSize) {
+                writeSourceRows(sourceConn, mapping, pending, sink);
+                pending.clear();
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            writeSourceRows(sourceConn, mapping, pending, sink);
+        }
+
+        return sink.getCount();
     }
-    
+
     /**
-     * Generates a DELETE statement for the target database.
-     * 
-     * @param dctmTarget Target table mapping
-     * @param pk Primary key JSONObject
-     * @return DELETE SQL statement
+     * Fetch the source rows of a batch of inserts and updates and pass them to the sink.  Each
+     * key is selected by its own branch of a query, tagged with the position of its candidate,
+     * so rows are matched to candidates without comparing the values read back (blank-padded
+     * CHAR, temporal types) to the key text of the finding.  The batch is split across as many
+     * queries as the bind parameter limit of the source requires.
      */
-    private static String generateDeleteSQL(DataComparisonTableMap dctmTarget, JSONObject pk) {
-        String quoteChar = getQuoteChar(Props.getProperty("target-type"));
-        
-        // Build table name
-        String schemaName = ShouldQuoteString(dctmTarget.isSchemaPreserveCase(), 
-                                             dctmTarget.getSchemaName(), quoteChar);
-        String tableName = ShouldQuoteString(dctmTarget.isTablePreserveCase(), 
-                                            dctmTarget.getTableName(), quoteChar);
-        
-        StringBuilder sql = new StringBuilder("DELETE FROM ");
-        sql.append(schemaName).append(".").append(tableName);
-        sql.append(" WHERE ");
-        sql.append(buildWhereClause(pk, quoteChar));
-        sql.append(";");
+    private static void writeSourceRows(Connection sourceConn, FixTableMapping mapping, List<FixCandidate> batch, FixSink sink) throws Exception {
+        Map<String, FixCandidate> byKey = new HashMap<>();
+        List<FixCandidate> candidates = new ArrayList<>();
+        List<Object[]> keys = new ArrayList<>();
 
-        return sql.toString();
+        for (FixCandidate candidate : batch) {
+            Object[] pkValues = mapping.pkValues(new JSONObject(candidate.getPk()));
+            if (pkValues == null) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Primary key not in column mapping, pk %s", candidate.getPk()));
+                continue;
+            }
+            if (byKey.putIfAbsent(FixTableMapping.keyOf(pkValues), candidate) == null) {
+                candidates.add(candidate);
+                keys.add(pkValues);
+            }
+        }
+
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        boolean[] found = new boolean[candidates.size()];
+        int keysPerStatement = keysPerStatement(mapping);
+
+        for (int start = 0; start < keys.size(); start += keysPerStatement) {
+            int end = Math.min(start + keysPerStatement, keys.size());
+            fetchSourceRows(sourceConn, mapping, candidates, keys, start, end, found, sink);
+        }
+
+        for (int i = 0; i < found.length; i++) {
+            if (!found[i]) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("No source row found for %s, pk: %s", candidates.get(i).getAction(), candidates.get(i).getPk()));
+            }
+        }
     }
-    
+
     /**
-     * Generates an INSERT statement for the target database.
-     * 
-     * @param sourceConn Source database connection
-     * @param dctmSource Source table mapping
-     * @param dctmTarget Target table mapping
-     * @param binds Bind parameters for the WHERE clause
-     * @param pk Primary key JSONObject
-     * @return INSERT SQL statement
+     * Fetch the source rows of the keys from start (inclusive) to end (exclusive) with one query
+     * and pass them to the sink, marking the positions found.
      */
-    private static String generateInsertSQL(Connection sourceConn, DataComparisonTableMap dctmSource,
-                                           DataComparisonTableMap dctmTarget, ArrayList<Object> binds, 
-                                           JSONObject pk, CachedRowSet sourceRow, JSONObject columnMapping) {
-        try {
-            String targetQuoteChar = getQuoteChar(Props.getProperty("target-type"));
-
-            if (sourceRow == null || sourceRow.size() == 0) {
-                LoggingUtils.write("warning", THREAD_NAME, 
-                    String.format("No source row found for INSERT, pk: %s", pk.toString()));
-                return null;
-            }
-            
-            sourceRow.next();
-            
-            // Parse column mapping to get source and target column information
-            JSONArray columns = columnMapping.getJSONArray("columns");
-            
-            // Build column list and values using the mapping
-            List<String> columnNames = new ArrayList<>();
-            List<String> columnValues = new ArrayList<>();
-            
-            // Build INSERT statement
-            String schemaName = ShouldQuoteString(dctmTarget.isSchemaPreserveCase(),
-                    dctmTarget.getSchemaName(), targetQuoteChar);
-            String tableName = ShouldQuoteString(dctmTarget.isTablePreserveCase(),
-                    dctmTarget.getTableName(), targetQuoteChar);
-
-            // First, add primary key columns from the pk JSONObject
-            Iterator<String> pkKeys = pk.keys();
-            while (pkKeys.hasNext()) {
-                String sourcePKColumnName = pkKeys.next();
-                
-                // Find this source column in the mapping to get the target column name
-                String targetPKColumnName = null;
-                boolean targetPreserveCase = false;
-                
-                for (int i = 0; i < columns.length(); i++) {
-                    JSONObject columnDef = columns.getJSONObject(i);
-                    JSONObject sourceCol = columnDef.getJSONObject("source");
-                    
-                    if (sourceCol.getString("columnName").equalsIgnoreCase(sourcePKColumnName)) {
-                        JSONObject targetCol = columnDef.getJSONObject("target");
-                        targetPKColumnName = targetCol.getString("columnName");
-                        targetPreserveCase = targetCol.getBoolean("preserveCase");
-                        break;
-                    }
-                }
-                
-                if (targetPKColumnName != null) {
-                    // Quote target column name for INSERT statement
-                    String quotedTargetColumnName = ShouldQuoteString(targetPreserveCase, 
-                                                                       targetPKColumnName, 
-                                                                       targetQuoteChar);
-                    columnNames.add(quotedTargetColumnName);
-                    
-                    // Get value from pk JSONObject
-                    Object pkValue = pk.get(sourcePKColumnName);
-                    columnValues.add(formatValue(pkValue));
-                } else {
-                    LoggingUtils.write("warning", THREAD_NAME, 
-                        String.format("Could not find PK column '%s' in column mapping for pk %s", 
-                                     sourcePKColumnName, pk));
+    private static void fetchSourceRows(Connection sourceConn, FixTableMapping mapping, List<FixCandidate> candidates, List<Object[]> keys,
+                                        int start, int end, boolean[] found, FixSink sink) throws Exception {
+        int columnCount = mapping.getSourceColumns().size();
+
+        try (PreparedStatement stmt = sourceConn.prepareStatement(buildSourceSelect(mapping, start, end))) {
+            int bind = 1;
+            for (Object[] pkValues : keys.subList(start, end)) {
+                for (Object value : pkValues) {
+                    stmt.setObject(bind++, value);
                 }
             }
 
-            // Then, add non-primary key columns from column mapping
-            for (int i = 0; i < columns.length(); i++) {
-                JSONObject columnDef = columns.getJSONObject(i);
-                
-                // Skip disabled columns
-                if (!columnDef.getBoolean("enabled")) {
-                    continue;
-                }
-                
-                // Get source and target column information
-                JSONObject sourceCol = columnDef.getJSONObject("source");
-                JSONObject targetCol = columnDef.getJSONObject("target");
-                
-                // Skip primary key columns - they were already added above
-                if (sourceCol.getBoolean("primaryKey")) {
-                    continue;
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] types = new int[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    types[i] = rs.getMetaData().getColumnType(i + 1);
                 }
-                
-                String sourceColumnName = sourceCol.getString("columnName");
-                String targetColumnName = targetCol.getString("columnName");
-                boolean targetPreserveCase = targetCol.getBoolean("preserveCase");
-                
-                // Quote target column name for INSERT statement based on target's preserveCase
-                String quotedTargetColumnName = ShouldQuoteString(targetPreserveCase, 
-                                                                   targetColumnName, 
-                                                                   targetQuoteChar);
-                columnNames.add(quotedTargetColumnName);
-                
-                // Get value from source row using source column name
-                try {
-                    Object value = sourceRow.getObject(sourceColumnName);
-                    columnValues.add(formatValue(value));
-                } catch (SQLException e) {
-                    // Try with different case if the column name doesn't match exactly
-                    try {
-                        Object value = sourceRow.getObject(sourceColumnName.toLowerCase());
-                        columnValues.add(formatValue(value));
-                    } catch (SQLException e2) {
-                        LoggingUtils.write("warning", THREAD_NAME, 
-                            String.format("Could not find column '%s' in source result set for pk %s", 
-                                         sourceColumnName, pk));
-                        columnValues.add("NULL");
+
+                while (rs.next()) {
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = readSourceValue(rs, i + 1, types[i]);
+                    }
+
+                    int position = rs.getInt(columnCount + 1);
+                    if (found[position]) {
+                        continue;
+                    }
+                    found[position] = true;
+
+                    if (ACTION_INSERT.equals(candidates.get(position).getAction())) {
+                        sink.insert(row);
+                    } else {
+                        sink.update(row);
                     }
                 }
             }
-            
-            // Build final INSERT statement
-            StringBuilder sql = new StringBuilder("INSERT INTO ");
-            sql.append(schemaName).append(".").append(tableName);
-            sql.append(" (").append(String.join(", ", columnNames)).append(")");
-            sql.append(" VALUES (").append(String.join(", ", columnValues)).append(")");
-            sql.append(";");
-
-            return sql.toString();
-            
         } catch (SQLException e) {
-            LoggingUtils.write("severe", THREAD_NAME, 
-                String.format("SQL error generating INSERT for pk %s: %s", pk.toString(), e.getMessage()));
-            return null;
-        } catch (Exception e) {
-            LoggingUtils.write("severe", THREAD_NAME, 
-                String.format("Error generating INSERT for pk %s: %s", pk.toString(), e.getMessage()));
-            return null;
+            LoggingUtils.write("severe", THREAD_NAME, String.format("SQL error reading source rows for %s: %s", mapping.getSourceTable(), e.getMessage()));
+            throw e;
         }
     }
-    
+
     /**
-     * Generates an UPDATE statement for the target database.
-     * 
-     * @param sourceConn Source database connection
-     * @param targetConn Target database connection
-     * @param dctmSource Source table mapping
-     * @param dctmTarget Target table mapping
-     * @param binds Bind parameters for the WHERE clause
-     * @param pk Primary key JSONObject
-     * @param rowResult Row result from reCheck containing differences
-     * @return UPDATE SQL statement
+     * Number of keys fetched per source query, bounded by the bind parameter limit of the source platform.
      */
-    private static String generateUpdateSQL(Connection sourceConn, Connection targetConn,
-                                           DataComparisonTableMap dctmSource, DataComparisonTableMap dctmTarget,
-                                           ArrayList<Object> binds, JSONObject pk, JSONObject rowResult) {
-        try {
-            String targetQuoteChar = getQuoteChar(Props.getProperty("target-type"));
-            
-            // Fetch the complete row from source
-            String selectSQL = dctmSource.getCompareSQL() + dctmSource.getTableFilter();
-            CachedRowSet sourceRow = SQLExecutionHelper.simpleSelect(sourceConn, selectSQL, binds);
-            
-            if (sourceRow == null || sourceRow.size() == 0) {
-                LoggingUtils.write("warning", THREAD_NAME, 
-                    String.format("No source row found for UPDATE, pk: %s", pk.toString()));
-                return null;
-            }
-            
-            sourceRow.next();
-            
-            // Build SET clause with all columns from source
-            List<String> setItems = new ArrayList<>();
-            
-            int columnCount = sourceRow.getMetaData().getColumnCount();
-            
-            // Start from column 3 (skip pk_hash and pk columns from compare SQL)
-            for (int i = 3; i <= columnCount; i++) {
-                String columnName = sourceRow.getMetaData().getColumnName(i);
-                String quotedColumnName = ShouldQuoteString(false, columnName, targetQuoteChar);
-                
-                Object value = sourceRow.getObject(i);
-                setItems.add(quotedColumnName + " = " + formatValue(value));
-            }
-            
-            // Build UPDATE statement
-            String schemaName = ShouldQuoteString(dctmTarget.isSchemaPreserveCase(), 
-                                                 dctmTarget.getSchemaName(), targetQuoteChar);
-            String tableName = ShouldQuoteString(dctmTarget.isTablePreserveCase(), 
-                                                dctmTarget.getTableName(), targetQuoteChar);
-            
-            StringBuilder sql = new StringBuilder("UPDATE ");
-            sql.append(schemaName).append(".").append(tableName);
-            sql.append(" SET ");
-            sql.append(String.join(", ", setItems));
-            sql.append(" WHERE ");
-            sql.append(buildWhereClause(pk, targetQuoteChar));
-            sql.append(";");
-
-            
-            return sql.toString();
-            
-        } catch (SQLException e) {
-            LoggingUtils.write("severe", THREAD_NAME, 
-                String.format("SQL error generating UPDATE for pk %s: %s", pk.toString(), e.getMessage()));
-            return null;
-        } catch (Exception e) {
-            LoggingUtils.write("severe", THREAD_NAME, 
-                String.format("Error generating UPDATE for pk %s: %s", pk.toString(), e.getMessage()));
-            return null;
-        }
+    private static int keysPerStatement(FixTableMapping mapping) {
+        int bindLimit = "mssql".equals(mapping.getSourcePlatform()) ? MSSQL_MAX_BIND_PARAMETERS : MAX_BIND_PARAMETERS;
+        return Math.max(1, Math.min(MAX_KEYS_PER_STATEMENT, bindLimit / mapping.getPkPositions().length));
     }
-    
+
     /**
-     * Builds a WHERE clause from a primary key JSONObject.
-     * 
-     * @param pk Primary key JSONObject
-     * @param quoteChar Quote character for identifiers
-     * @return WHERE clause string (without the WHERE keyword)
+     * Build the select of full source rows for the primary keys from start (inclusive) to end
+     * (exclusive), one UNION ALL branch per key with the key position as last column.
      */
-    private static String buildWhereClause(JSONObject pk, String quoteChar) {
-        List<String> whereItems = new ArrayList<>();
-        
-        Iterator<String> keys = pk.keys();
-        while (keys.hasNext()) {
-            String key = keys.next();
-            // Remove any existing quotes from the key
-            String cleanKey = key.replace("`", "").replace("\"", "");
-            String quotedKey = ShouldQuoteString(false, cleanKey, quoteChar);
-            
-            Object value = pk.get(key);
-            whereItems.add(quotedKey + " = " + formatValue(value));
+    private static String buildSourceSelect(FixTableMapping mapping, int start, int end) {
+        int[] pk = mapping.getPkPositions();
+        StringBuilder predicate = new StringBuilder();
+
+        for (int k = 0; k < pk.length; k++) {
+            predicate.append((k == 0) ? "" : " AND ").append(mapping.getSourceColumns().get(pk[k])).append(" = ?");
+        }
+
+        String columns = String.join(", ", mapping.getSourceColumns());
+        StringBuilder sql = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            sql.append((i == start) ? "" : " UNION ALL ")
+               .append("SELECT ").append(columns).append(", ").append(i).append(" AS fix_key")
+               .append(" FROM ").append(mapping.getSourceTable()).append(" WHERE ").append(predicate);
         }
-        
-        return String.join(" AND ", whereItems);
+
+        return sql.toString();
     }
-    
+
+    /**
+     * Read a source column as a value both fix sinks can use.  LOBs are read into strings and
+     * byte arrays while the row is current, and time zone aware timestamps into
+     * {@link OffsetDateTime} instead of driver specific types.
+     */
+    private static Object readSourceValue(ResultSet rs, int index, int sqlType) throws SQLException {
+        return switch (sqlType) {
+            case Types.CLOB, Types.NCLOB, Types.SQLXML -> rs.getString(index);
+            case Types.BLOB -> rs.getBytes(index);
+            case Types.DATE -> rs.getDate(index);
+            case Types.TIME -> rs.getTime(index);
+            case Types.TIMESTAMP -> rs.getTimestamp(index);
+            case Types.TIMESTAMP_WITH_TIMEZONE, ORACLE_TIMESTAMPTZ, MSSQL_DATETIMEOFFSET -> rs.getObject(index, OffsetDateTime.class);
+            default -> rs.getObject(index);
+        };
+    }
+
     /**
-     * Formats a value for SQL statement (adds quotes for strings, handles nulls, etc.).
-     * 
+     * Formats a value as a SQL literal for the target platform.  Strings are quoted and
+     * escaped, binary values use the platform's hex literal, temporal values an ISO literal
+     * the platform accepts and booleans 1/0 where there is no boolean literal.
+     *
      * @param value Value to format
+     * @param platform Target database platform
      * @return Formatted value string
      */
-    private static String formatValue(Object value) {
-        switch (value) {
-            case null -> {
-                return "NULL";
-            }
-            case String s -> {
-                // Escape single quotes by doubling them
-                String stringValue = s;
-                stringValue = stringValue.replace("'", "''");
-                return "'" + stringValue + "'";
-            }
-            case Number number -> {
-                return value.toString();
-            }
-            case Boolean b -> {
-                return value.toString();
-            }
-            default -> {
-            }
-        }
+    public static String formatValue(Object value, String platform) {
+        return switch (value) {
+            case null -> "NULL";
+            case String s -> quote(s, platform);
+            case BigDecimal decimal -> decimal.toPlainString();
+            case Number number -> number.toString();
+            case Boolean b -> ("mssql".equals(platform) || "oracle".equals(platform)) ? (b ? "1" : "0") : b.toString();
+            case byte[] bytes -> formatBinary(bytes, platform);
+            case Timestamp timestamp -> formatTemporal("TIMESTAMP", "datetime2", timestamp.toLocalDateTime().format(TIMESTAMP_LITERAL), platform);
+            case java.sql.Date date -> formatTemporal("DATE", "date", date.toLocalDate().toString(), platform);
+            case Time time -> formatTemporal("TIME", "time", time.toLocalTime().toString(), platform);
+            case LocalDateTime timestamp -> formatTemporal("TIMESTAMP", "datetime2", timestamp.format(TIMESTAMP_LITERAL), platform);
+            case LocalDate date -> formatTemporal("DATE", "date", date.toString(), platform);
+            case OffsetDateTime timestamp -> formatTimestampTz(timestamp, platform);
+            default -> quote(value.toString(), platform);
+        };
+    }
 
-        // For other types, convert to string and quote
-        String stringValue = value.toString();
-        stringValue = stringValue.replace("'", "''");
-        return "'" + stringValue + "'";
+    private static String quote(String value, String platform) {
+        // MySQL and MariaDB treat backslash as an escape character in string literals
+        String escaped = ("mysql".equals(platform) || "mariadb".equals(platform)) ? value.replace("\\", "\\\\") : value;
+        return "'" + escaped.replace("'", "''") + "'";
     }
-    
+
+    private static String formatBinary(byte[] bytes, String platform) {
+        String hex = HexFormat.of().formatHex(bytes);
+        return switch (platform) {
+            case "postgres" -> "'\\x" + hex + "'::bytea";
+            case "mssql" -> "0x" + hex;
+            case "oracle" -> "hextoraw('" + hex + "')";
+            case "db2" -> "BX'" + hex + "'";
+            case "snowflake" -> "to_binary('" + hex + "','HEX')";
+            default -> "X'" + hex + "'";
+        };
+    }
+
+    private static String formatTimestampTz(OffsetDateTime timestamp, String platform) {
+        String text = timestamp.format(TIMESTAMPTZ_LITERAL);
+        return switch (platform) {
+            case "postgres" -> "TIMESTAMP WITH TIME ZONE '" + text + "'";
+            case "oracle" -> "TIMESTAMP '" + text + "'";
+            case "snowflake" -> "TIMESTAMP_TZ '" + text + "'";
+            case "mssql" -> formatTemporal(null, "datetimeoffset", text, platform);
+            // No offset in the literal, written as UTC
+            default -> "TIMESTAMP '" + timestamp.withOffsetSameInstant(ZoneOffset.UTC).format(TIMESTAMP_LITERAL) + "'";
+        };
+    }
+
+    private static String formatTemporal(String literalType, String mssqlType, String text, String platform) {
+        return "mssql".equals(platform)
+                ? "CAST('" + text + "' AS " + mssqlType + ")"
+                : literalType + " '" + text + "'";
+    }
+
 }
 
@@ -19,7 +19,9 @@ package com.crunchydata.service;
 import com.crunchydata.model.ColumnMetadata;
 import com.crunchydata.model.DataComparisonTableMap;
 import com.crunchydata.util.LoggingUtils;
+import com.crunchydata.util.SampleUtils;
 
+import java.util.List;
 import java.util.Objects;
 
 import static com.crunchydata.config.Settings.Props;
@@ -133,7 +135,53 @@ public class SQLSyntaxService {
                 break;
         }
 
-        // Build FROM clause with proper quoting
+        appendFromClause(sql, tableMap, dbPlatform);
+
+        return sql.toString();
+    }
+
+    /**
+     * Builds the compact key load query.  The raw primary key columns are returned as-is,
+     * leaving hashing and key encoding to the loader thread, followed by the same column
+     * values or column hash as the standard load query.
+     *
+     * @param columnHashMethod The database hash method to use (database, hybrid, raw)
+     * @param tableMap Metadata information on table
+     * @param columnMetadata Metadata on columns
+     * @return SQL query string for loading data from the specified table
+     */
+    public static String buildCompactLoadSQL(String columnHashMethod, DataComparisonTableMap tableMap, ColumnMetadata columnMetadata) {
+        Objects.requireNonNull(tableMap, "tableMap cannot be null");
+        Objects.requireNonNull(columnMetadata, "columnMetadata cannot be null");
+        Objects.requireNonNull(columnHashMethod, "columnHashMethod cannot be null");
+
+        DatabaseMetadataService.DatabasePlatform dbPlatform = DatabaseMetadataService.DatabasePlatform.fromString(
+                Props.getProperty(String.format("%s-type", tableMap.getDestType())));
+
+        StringBuilder sql = new StringBuilder(SELECT_CLAUSE).append(columnMetadata.getPkList()).append(", ");
+
+        switch (columnHashMethod.toLowerCase()) {
+            case HASH_METHOD_RAW:
+            case HASH_METHOD_HYBRID:
+                sql.append(columnMetadata.getColumnExpressionList());
+                break;
+            default:
+                sql.append(String.format(dbPlatform.getColumnHashTemplate(),
+                        columnMetadata.getColumnExpressionList(), "column_hash"));
+                break;
+        }
+
+        appendFromClause(sql, tableMap, dbPlatform);
+
+        return sql.toString();
+    }
+
+    /**
+     * Append FROM and WHERE clauses, including any table filter and the sample predicate,
+     * with proper quoting.
+     */
+    private static void appendFromClause(StringBuilder sql, DataComparisonTableMap tableMap,
+                                         DatabaseMetadataService.DatabasePlatform dbPlatform) {
         String schemaName = ShouldQuoteString(tableMap.isSchemaPreserveCase(),
                 tableMap.getSchemaName(), dbPlatform.getQuoteChar());
         String tableName = ShouldQuoteString(tableMap.isTablePreserveCase(),
@@ -146,7 +194,60 @@ public class SQLSyntaxService {
             sql.append(AND_CLAUSE).append(tableMap.getTableFilter());
         }
 
+        // Sample mode restricts the scan itself when the table has a numeric mod column
+        if (SampleUtils.isEnabled()) {
+            sql.append(SampleUtils.getSamplePredicate(tableMap.getModColumn(), dbPlatform.getName()));
+        }
+    }
+
+    /**
+     * Applies the platform's parallel full-scan hint and query option to a load query.
+     * The compare SQL itself stays hint free because it is also used for single-row rechecks.
+     *
+     * @param loadSQL Final load query, including any mod and ORDER BY clauses
+     * @param tableMap Metadata information on table
+     * @return SQL with hint after SELECT and option appended, unchanged when nothing applies
+     */
+    public static String applyScanHints(String loadSQL, DataComparisonTableMap tableMap) {
+        DatabaseMetadataService.DatabasePlatform dbPlatform = DatabaseMetadataService.DatabasePlatform.fromString(
+                Props.getProperty(String.format("%s-type", tableMap.getDestType())));
+        int degree = getScanParallel(tableMap);
+
+        String hint = (tableMap.getQueryHint() != null && !tableMap.getQueryHint().trim().isEmpty())
+                ? tableMap.getQueryHint().trim()
+                : dbPlatform.getScanHint(degree, ShouldQuoteString(tableMap.isTablePreserveCase(),
+                        tableMap.getTableName(), dbPlatform.getQuoteChar()));
+
+        StringBuilder sql = new StringBuilder(loadSQL);
+
+        if (!hint.isEmpty() && loadSQL.startsWith(SELECT_CLAUSE)) {
+            sql.insert(SELECT_CLAUSE.length(), String.format("/*+ %s */ ", hint));
+        }
+
+        sql.append(dbPlatform.getScanOption(degree));
+
         return sql.toString();
     }
 
+    /**
+     * Session statements to run on the source/target connection before the full-scan query.
+     *
+     * @param tableMap Metadata information on table
+     * @return Statements to execute, empty when parallelism is not requested
+     */
+    public static List<String> getScanSessionSettings(DataComparisonTableMap tableMap) {
+        return DatabaseMetadataService.DatabasePlatform.fromString(
+                        Props.getProperty(String.format("%s-type", tableMap.getDestType())))
+                .getScanSessionSettings(getScanParallel(tableMap));
+    }
+
+    /**
+     * Resolve the scan parallel degree, table map setting first then the scan-parallel property.
+     */
+    private static int getScanParallel(DataComparisonTableMap tableMap) {
+        return (tableMap.getScanParallel() != null)
+                ? tableMap.getScanParallel()
+                : Integer.parseInt(Props.getProperty("scan-parallel", "0"));
+    }
+
 }
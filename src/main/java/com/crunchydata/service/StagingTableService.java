@@ -20,8 +20,12 @@ import com.crunchydata.core.database.SQLExecutionHelper;
 import com.crunchydata.util.LoggingUtils;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static com.crunchydata.config.sql.RepoSQLConstants.*;
 import static com.crunchydata.config.Settings.Props;
@@ -95,18 +99,23 @@ public class StagingTableService {
      * @param batchNbr Batch number
      * @param threadNbr Thread number
      * @param tableAlias Table alias
+     * @param pkNames Primary key column names when staged keys use the compact encoding, otherwise null
      * @throws SQLException if database operations fail
      */
     public static void loadFindings(Connection conn, String location, Integer tid, String stagingTable, 
-                                  Integer batchNbr, Integer threadNbr, String tableAlias) throws SQLException {
+                                  Integer batchNbr, Integer threadNbr, String tableAlias, List<String> pkNames) throws SQLException {
 
-        String sqlFinal = SQL_REPO_DCSOURCE_INSERT
+        // Compact keys are staged as positional arrays and expanded to keyed JSON here, for findings only
+        String sqlFinal = ((pkNames != null) ? SQL_REPO_DCSOURCE_INSERT_COMPACTKEY : SQL_REPO_DCSOURCE_INSERT)
             .replaceAll("dc_source", String.format("dc_%s", location))
             .replaceAll("stagingtable", stagingTable);
         
         ArrayList<Object> binds = new ArrayList<>();
         binds.add(tid);
         binds.add(threadNbr);
+        if (pkNames != null) {
+            binds.add(conn.createArrayOf("text", pkNames.toArray()));
+        }
         binds.add(batchNbr);
         binds.add(tableAlias);
         
@@ -117,4 +126,62 @@ public class StagingTableService {
                 stagingTable, location));
     }
 
+    /**
+     * Match fully loaded staging tables in a single pass.  Rows without an equal row on the
+     * other side are inserted into dc_source and dc_target, nothing is deleted from the
+     * staging tables.
+     *
+     * @param conn Database connection
+     * @param tid Table ID
+     * @param stagingSource Source staging table name
+     * @param stagingTarget Target staging table name
+     * @param batchNbr Batch number
+     * @param threadNbr Thread number
+     * @param tableAlias Table alias
+     * @param pkNamesSource Source primary key column names when compact keys are staged, otherwise null
+     * @param pkNamesTarget Target primary key column names when compact keys are staged, otherwise null
+     * @return Number of equal rows
+     * @throws SQLException if database operations fail
+     */
+    public static long matchFinalPass(Connection conn, Integer tid, String stagingSource, String stagingTarget, Integer batchNbr,
+                                      Integer threadNbr, String tableAlias, List<String> pkNamesSource, List<String> pkNamesTarget) throws SQLException {
+
+        String sql = String.format(SQL_REPO_STAGE_FINALMATCH,
+                (pkNamesSource != null) ? String.format(SQL_REPO_COMPACTKEY_EXPAND, "s_pk") : "s_pk",
+                (pkNamesTarget != null) ? String.format(SQL_REPO_COMPACTKEY_EXPAND, "t_pk") : "t_pk")
+            .replaceAll("stagingsource", stagingSource)
+            .replaceAll("stagingtarget", stagingTarget);
+
+        ArrayList<Object> binds = new ArrayList<>();
+        for (List<String> pkNames : Arrays.asList(pkNamesSource, pkNamesTarget)) {
+            binds.add(tid);
+            binds.add(threadNbr);
+            if (pkNames != null) {
+                binds.add(conn.createArrayOf("text", pkNames.toArray()));
+            }
+            binds.add(batchNbr);
+            binds.add(tableAlias);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < binds.size(); i++) {
+                stmt.setObject(i + 1, binds.get(i));
+            }
+
+            long equal = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    equal = rs.getLong("equal_cnt");
+                    LoggingUtils.write("info", THREAD_NAME,
+                        String.format("Final pass matched %d rows, %d source and %d target findings loaded from %s and %s",
+                            equal, rs.getLong("source_findings_cnt"), rs.getLong("target_findings_cnt"), stagingSource, stagingTarget));
+                }
+            }
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            return equal;
+        }
+    }
+
 }
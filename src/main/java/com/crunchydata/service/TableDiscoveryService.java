@@ -15,15 +15,19 @@
  */
 package com.crunchydata.service;
 
-import com.crunchydata.controller.RepoController;
 import com.crunchydata.core.database.SQLExecutionHelper;
-import com.crunchydata.model.DataComparisonTable;
-import com.crunchydata.model.DataComparisonTableMap;
 import com.crunchydata.util.LoggingUtils;
 import org.json.JSONArray;
+import org.json.JSONObject;
+import org.postgresql.PGConnection;
 
+import javax.sql.rowset.CachedRowSet;
+import java.io.StringReader;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import static com.crunchydata.config.sql.DB2SQLConstants.SQL_DB2_SELECT_TABLE;
@@ -38,75 +42,176 @@ import static com.crunchydata.config.sql.OracleSQLConstants.SQL_ORACLE_SELECT_TA
 import static com.crunchydata.config.sql.OracleSQLConstants.SQL_ORACLE_SELECT_TABLES;
 import static com.crunchydata.config.sql.PostgresSQLConstants.SQL_POSTGRES_SELECT_TABLE;
 import static com.crunchydata.config.sql.PostgresSQLConstants.SQL_POSTGRES_SELECT_TABLES;
-import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCTABLE_SELECT_BYNAME;
+import static com.crunchydata.config.sql.RepoSQLConstants.*;
 import static com.crunchydata.config.sql.SnowflakeSQLConstants.SQL_SNOWFLAKE_SELECT_TABLE;
 import static com.crunchydata.config.sql.SnowflakeSQLConstants.SQL_SNOWFLAKE_SELECT_TABLES;
 import static com.crunchydata.service.DatabaseMetadataService.getNativeCase;
 import static com.crunchydata.service.DatabaseMetadataService.getTables;
 import static com.crunchydata.util.DataProcessingUtils.preserveCase;
 
+/**
+ * Service class for table discovery.
+ *
+ * <p>The source and target catalogs are copied into a temporary staging table in the
+ * repository, which is then reconciled against dc_table and dc_table_map with a handful
+ * of set-based statements.  Existing tables keep their tid and settings; tables are only
+ * added, re-pointed or removed as the catalogs require.</p>
+ *
+ * @author Brian Pace
+ */
 public class TableDiscoveryService {
 
-    private static final String THREAD_NAME = "column-discovery";
+    private static final String THREAD_NAME = "table-discovery";
+
+    /**
+     * Discover tables on source and target and reconcile them with the repository.
+     *
+     * @param Props Properties configuration
+     * @param pid Project ID
+     * @param table Table name filter (empty for all tables)
+     * @param connRepo Repository connection
+     * @param connSource Source database connection
+     * @param connTarget Target database connection
+     * @return Discovery summary with added, changed, removed and skipped table counts
+     * @throws SQLException if database operations fail
+     */
+    public static JSONObject discoverTables(Properties Props, Integer pid, String table, Connection connRepo,
+                                            Connection connSource, Connection connTarget) throws SQLException {
+        // Stage the catalog of both destinations
+        SQLExecutionHelper.simpleUpdate(connRepo, REPO_DDL_DISCOVER_STAGE, new ArrayList<>(), true);
+        SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DISCOVER_STAGE_TRUNCATE, new ArrayList<>(), true);
+
+        int targetCount = stageTables(Props, table, connRepo, connTarget, "target");
+        int sourceCount = stageTables(Props, table, connRepo, connSource, "source");
+
+        // Maps whose table no longer exists on that destination.  An empty catalog is more
+        // likely a failed lookup than a dropped schema, so nothing is removed for that side.
+        // With a table filter the removal is limited to that table, and an empty result
+        // means it was dropped.
+        for (String destRole : new String[]{"target", "source"}) {
+            if ((destRole.equals("target") ? targetCount : sourceCount) == 0 && table.isEmpty()) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("(%s) No tables found, existing mappings left in place", destRole));
+                continue;
+            }
+
+            ArrayList<Object> binds = new ArrayList<>();
+            binds.add(pid);
+            binds.add(destRole);
+            binds.add(table);
+            binds.add(table);
+            SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DISCOVER_REMOVEMAP, binds, true);
+        }
 
-    public static void discoverTables(Properties Props, Integer pid, String table, Connection connRepo, Connection connDest, String destRole, Boolean populateDCTable) {
-        String platform=Props.getProperty(destRole+"-type");
-        String schema=Props.getProperty(destRole+"-schema");
         ArrayList<Object> binds = new ArrayList<>();
-        Integer tableCount = 0;
+        binds.add(pid);
+
+        // Existing maps whose schema, name or case changed
+        Map<Integer, String> changed = collectTables(SQLExecutionHelper.simpleUpdateReturning(connRepo, SQL_REPO_DISCOVER_CHANGEMAP, binds));
+
+        // New tables (target drives dc_table) and their maps
+        binds.add(pid);
+        Map<Integer, String> added = collectTables(SQLExecutionHelper.simpleUpdateReturning(connRepo, SQL_REPO_DISCOVER_ADDTABLE, binds));
+        binds.removeLast();
+
+        SQLExecutionHelper.simpleUpdate(connRepo, SQL_REPO_DISCOVER_ADDMAP, binds, true);
+
+        try (CachedRowSet crs = SQLExecutionHelper.simpleSelect(connRepo, SQL_REPO_DISCOVER_SOURCEONLY, binds)) {
+            while (crs != null && crs.next()) {
+                LoggingUtils.write("warning", THREAD_NAME, String.format("(source) Skipping, table %s not found on other destination", crs.getString("table_alias")));
+            }
+        }
+
+        // Tables missing a source or target map
+        Map<Integer, String> incomplete = collectTables(SQLExecutionHelper.simpleUpdateReturning(connRepo, SQL_REPO_DCTABLE_DELETEINCOMPLETE, binds));
+        int skipped = 0;
+        int removed = 0;
+
+        for (Map.Entry<Integer, String> entry : incomplete.entrySet()) {
+            if (added.remove(entry.getKey()) != null) {
+                skipped++;
+                LoggingUtils.write("warning", THREAD_NAME, String.format("Skipping table %s due to incomplete mapping (missing source or target)", entry.getValue()));
+            } else {
+                removed++;
+                LoggingUtils.write("info", THREAD_NAME, String.format("Removed Table: %s", entry.getValue()));
+            }
+        }
+
+        added.values().forEach(alias -> LoggingUtils.write("info", THREAD_NAME, String.format("Added Table: %s", alias)));
+        changed.values().forEach(alias -> LoggingUtils.write("info", THREAD_NAME, String.format("Changed Table: %s", alias)));
+
+        JSONObject summary = new JSONObject();
+        summary.put("added", added.size());
+        summary.put("changed", changed.size());
+        summary.put("removed", removed);
+        summary.put("skipped", skipped);
 
-        LoggingUtils.write("info", THREAD_NAME, String.format("(%s) Performing table discovery on %s for schema %s",destRole, platform,schema));
+        LoggingUtils.write("info", THREAD_NAME, String.format("Table discovery complete: %d added, %d changed, %d removed, %d skipped",
+                added.size(), changed.size(), removed, skipped));
 
-        // Get Tables based on Platform
-        JSONArray tables = getDatabaseTables(platform,connDest,schema, table);
+        return summary;
+    }
 
-        // Get Default Case for Platform
+    /**
+     * Read the tables for one destination and COPY them into the discovery staging table.
+     *
+     * @param Props Properties configuration
+     * @param table Table name filter
+     * @param connRepo Repository connection
+     * @param connDest Source or target connection
+     * @param destRole Destination role
+     * @return Number of tables staged
+     * @throws SQLException if the COPY fails
+     */
+    private static int stageTables(Properties Props, String table, Connection connRepo, Connection connDest, String destRole) throws SQLException {
+        String platform = Props.getProperty(destRole + "-type");
+        String schema = Props.getProperty(destRole + "-schema");
         String nativeCase = getNativeCase(platform);
 
-        // Populate dc_table and target table map
+        LoggingUtils.write("info", THREAD_NAME, String.format("(%s) Performing table discovery on %s for schema %s", destRole, platform, schema));
+
+        JSONArray tables = getDatabaseTables(platform, connDest, schema, table);
+        StringBuilder csv = new StringBuilder();
+
         for (int i = 0; i < tables.length(); i++) {
             String schemaName = tables.getJSONObject(i).getString("schemaName");
             String tableName = tables.getJSONObject(i).getString("tableName");
 
-            binds.clear();
-            binds.add(0,tableName);
-            binds.add(1,pid);
-
-            Integer tid = SQLExecutionHelper.simpleSelectReturnInteger(connRepo, SQL_REPO_DCTABLE_SELECT_BYNAME, binds);
+            csv.append(destRole).append(',')
+               .append(csvQuote(schemaName)).append(',')
+               .append(csvQuote(tableName)).append(',')
+               .append(csvQuote(tableName.toLowerCase())).append(',')
+               .append(preserveCase(nativeCase, schemaName)).append(',')
+               .append(preserveCase(nativeCase, tableName)).append('\n');
+        }
 
-            DataComparisonTable dct = new DataComparisonTable();
-            dct.setPid(pid);
-            dct.setTableAlias(tableName.toLowerCase());
+        try {
+            connRepo.unwrap(PGConnection.class).getCopyAPI().copyIn(SQL_REPO_DISCOVER_STAGE_COPY, new StringReader(csv.toString()));
+            connRepo.commit();
+        } catch (Exception e) {
+            LoggingUtils.write("severe", THREAD_NAME, String.format("(%s) Error staging discovered tables: %s", destRole, e.getMessage()));
+            throw new SQLException("Failed to stage discovered tables", e);
+        }
 
-            if (tid == null ) {
-                if ( populateDCTable ) {
-                    dct = RepoController.saveTable(connRepo, dct);
-                } else {
-                    LoggingUtils.write("warning", THREAD_NAME, String.format("(%s) Skipping, table %s not found on other destination", destRole, tableName));
-                }
-            } else {
-                dct.setTid(tid);
-            }
+        LoggingUtils.write("info", THREAD_NAME, String.format("(%s) Discovered %d tables on %s for schema %s", destRole, tables.length(), platform, schema));
 
-            if ( dct.getTid() != null ) {
-                tableCount++;
-                DataComparisonTableMap dctm = new DataComparisonTableMap();
-                dctm.setTid(dct.getTid());
-                dctm.setDestType(destRole);
-                dctm.setSchemaName(schemaName);
-                dctm.setSchemaPreserveCase(preserveCase(nativeCase, schemaName));
-                dctm.setTableName(tableName);
-                dctm.setTablePreserveCase(preserveCase(nativeCase, tableName));
+        return tables.length();
+    }
 
-                RepoController.saveTableMap(connRepo, dctm);
+    private static String csvQuote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
 
-                LoggingUtils.write("info", THREAD_NAME, String.format("(%s) Discovered Table: %s",destRole, tableName));
+    private static Map<Integer, String> collectTables(CachedRowSet crs) throws SQLException {
+        Map<Integer, String> tables = new HashMap<>();
 
+        if (crs != null) {
+            while (crs.next()) {
+                tables.put(crs.getInt("tid"), crs.getString("table_alias"));
             }
+            crs.close();
         }
 
-        LoggingUtils.write("info", THREAD_NAME, String.format("(%s) Discovered %d tables on %s for for schema %s", destRole, tableCount, platform, schema));
-
+        return tables;
     }
 
 
@@ -16,15 +16,14 @@
 
 package com.crunchydata.util;
 
-import com.crunchydata.core.database.SQLExecutionHelper;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import javax.sql.rowset.CachedRowSet;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -35,19 +34,25 @@ import static com.crunchydata.util.DataTypeCastingUtils.cast;
 import static com.crunchydata.util.DataTypeCastingUtils.castRaw;
 import static com.crunchydata.util.DataProcessingUtils.*;
 import static com.crunchydata.config.sql.DB2SQLConstants.SQL_DB2_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.DB2SQLConstants.SQL_DB2_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.MSSQLSQLConstants.SQL_MSSQL_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.MSSQLSQLConstants.SQL_MSSQL_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.MYSQLSQLConstants.SQL_MYSQL_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.MYSQLSQLConstants.SQL_MYSQL_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.MariaDBSQLConstants.SQL_MARIADB_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.MariaDBSQLConstants.SQL_MARIADB_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.OracleSQLConstants.SQL_ORACLE_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.OracleSQLConstants.SQL_ORACLE_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.PostgresSQLConstants.SQL_POSTGRES_SELECT_COLUMNS;
+import static com.crunchydata.config.sql.PostgresSQLConstants.SQL_POSTGRES_SELECT_SCHEMA_COLUMNS;
 import static com.crunchydata.config.sql.SnowflakeSQLConstants.SQL_SNOWFLAKE_SELECT_COLUMNS;
-import static com.crunchydata.config.sql.RepoSQLConstants.SQL_REPO_DCTABLECOLUMNMAP_BYORIGINALIAS;
+import static com.crunchydata.config.sql.SnowflakeSQLConstants.SQL_SNOWFLAKE_SELECT_SCHEMA_COLUMNS;
 
 /**
  * Utility class for column data type validation and classification.
  * Provides methods to determine the classification of a given database column data type.
  *
- * <p>This class handles column metadata retrieval, data type classification, and column filtering
+ * <p>This class handles column metadata retrieval and data type classification
  * across different database platforms including Postgres, Oracle, MySQL, MariaDB, MSSQL, Snowflake, and DB2.</p>
  *
  * @author Brian Pace
@@ -130,60 +135,6 @@ public class ColumnMetadataUtils {
             "trigger", "union", "unique", "update", "values", "view", "varchar", "varchar2", "when",
             "where", "with", "xor", "user");
 
-    /**
-     * Creates a column filter clause for database queries based on table and column metadata.
-     *
-     * @param repoConn Repository database connection
-     * @param tid Table identifier
-     * @param columnAlias Column alias to filter by
-     * @param destRole Destination role (source/target)
-     * @param quoteChar Quote character for the database platform
-     * @return SQL filter clause string
-     */
-    public static String createColumnFilterClause(Connection repoConn, Integer tid, String columnAlias, String destRole, String quoteChar) {
-        String columnFilter = "";
-        ArrayList<Object> binds = new ArrayList<>();
-
-        binds.add(0, tid);
-        binds.add(1, columnAlias);
-        binds.add(2, destRole);
-
-        CachedRowSet crs = SQLExecutionHelper.simpleSelect(repoConn, SQL_REPO_DCTABLECOLUMNMAP_BYORIGINALIAS, binds);
-
-        try {
-            while (crs.next()) {
-                columnFilter = " AND " + ShouldQuoteString(crs.getBoolean("preserve_case"), crs.getString("column_name"), quoteChar) + " = ?";
-            }
-
-            crs.close();
-
-        } catch (Exception e) {
-            LoggingUtils.write("severe", THREAD_NAME, String.format("Error locating primary key column map: %s", e.getMessage()));
-        }
-
-        return columnFilter;
-    }
-
-    /**
-     * Finds a column alias within a JSON array of columns based on column name and side.
-     *
-     * @param columns JSON array containing column metadata
-     * @param columnNameToFind The column name to search for
-     * @param side The side to search (source/target)
-     * @return The column alias if found, null otherwise
-     */
-    public static String findColumnAlias(JSONArray columns, String columnNameToFind, String side) {
-        for (int i = 0; i < columns.length(); i++) {
-            JSONObject columnObj = columns.getJSONObject(i);
-            JSONObject sideObj = columnObj.optJSONObject(side);
-
-            if (sideObj != null && columnNameToFind.equalsIgnoreCase(sideObj.optString("columnName"))) {
-                return columnObj.optString("columnAlias");
-            }
-        }
-        return null; // Not found
-    }
-
     /**
      * Retrieves column metadata for a specified table in Postgres database.
      *
@@ -229,6 +180,58 @@ public class ColumnMetadataUtils {
         return columnInfo;
     }
 
+    /**
+     * Retrieves column metadata for every table in a schema with a single catalog query.
+     *
+     * @param Props     Properties configuration.
+     * @param conn      Database connection to the source or target.
+     * @param schema    Schema name.
+     * @param destRole  Role of the database (source/target)
+     * @return Map of lower case table name to the JSONArray of column metadata for that table.
+     */
+    public static Map<String, JSONArray> getSchemaColumns (Properties Props, Connection conn, String schema, String destRole) {
+        Map<String, JSONArray> tableColumns = new HashMap<>();
+        Map<String, String> tableNames = new HashMap<>();
+        String platform = Props.getProperty(destRole + "-type");
+        String dbname = Props.getProperty(destRole + "-dbname");
+        String nativeCase = getNativeCase(platform);
+        String quoteChar = getQuoteChar(platform);
+
+        String columnSQL = switch (platform) {
+            case "oracle" -> SQL_ORACLE_SELECT_SCHEMA_COLUMNS;
+            case "mariadb" -> SQL_MARIADB_SELECT_SCHEMA_COLUMNS;
+            case "mysql" -> SQL_MYSQL_SELECT_SCHEMA_COLUMNS;
+            case "mssql" -> SQL_MSSQL_SELECT_SCHEMA_COLUMNS;
+            case "db2" -> SQL_DB2_SELECT_SCHEMA_COLUMNS;
+            case "snowflake" -> SQL_SNOWFLAKE_SELECT_SCHEMA_COLUMNS;
+            default -> SQL_POSTGRES_SELECT_SCHEMA_COLUMNS;
+        };
+
+        try (PreparedStatement stmt = conn.prepareStatement(columnSQL)) {
+            stmt.setObject(1, schema);
+            stmt.setFetchSize(Integer.parseInt(Props.getProperty("batch-fetch-size")));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString("table_name");
+                    tableNames.putIfAbsent(tableName.toLowerCase(), tableName);
+                    tableColumns.computeIfAbsent(tableName.toLowerCase(), k -> new JSONArray())
+                            .put(buildColumnMetadata(rs, nativeCase, quoteChar, platform, Props));
+                }
+            }
+
+            if (platform.equals("snowflake")) {
+                for (Map.Entry<String, JSONArray> entry : tableColumns.entrySet()) {
+                    entry.setValue(GetSnowflakePrimaryKey(conn, entry.getValue(), dbname, schema, tableNames.get(entry.getKey())));
+                }
+            }
+        } catch (Exception e) {
+            LoggingUtils.write("severe", THREAD_NAME, String.format("Error retrieving columns for schema %s: %s", schema, e.getMessage()));
+        }
+
+        return tableColumns;
+    }
+
     /**
      * Returns the classification of a given database column data type.
      *
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.util;
+
+import com.crunchydata.model.ColumnMetadata;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+import static com.crunchydata.config.Settings.Props;
+
+/**
+ * Utility class for the compact primary key encoding.
+ * The source and target return raw primary key columns, which are normalized in Java,
+ * encoded as a length-prefixed byte key and hashed.  The key values are kept as a
+ * positional JSON array and only expanded to a keyed JSON object for findings.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class CompactKeyUtils {
+
+    // Private constructor to prevent instantiation
+    private CompactKeyUtils() {
+        throw new UnsupportedOperationException("CompactKeyUtils is a utility class and cannot be instantiated.");
+    }
+
+    private static final int NULL_LENGTH = -1;
+
+    // Driver specific JDBC types of time zone aware timestamps (Oracle, SQL Server)
+    private static final int ORACLE_TIMESTAMPTZ = -101;
+    private static final int ORACLE_TIMESTAMPLTZ = -102;
+    private static final int MSSQL_DATETIMEOFFSET = -155;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * Determine if compact key mode applies to a table.
+     *
+     * @param columnMetadata Column metadata for the table
+     * @return True when compact-key is enabled and the table has primary key columns
+     */
+    public static boolean isEnabled(ColumnMetadata columnMetadata) {
+        return Boolean.parseBoolean(Props.getProperty("compact-key", "false"))
+                && columnMetadata.getNbrPKColumns() != null && columnMetadata.getNbrPKColumns() > 0;
+    }
+
+    /**
+     * Read a primary key column and normalize it to a platform independent string, following
+     * the rules of the standard key expressions so the same key reads alike on both sides.
+     * Numbers lose trailing zeros and booleans become 0 or 1.  Dates and timestamps share one
+     * format to the second, a date reading as midnight, and time zone aware values are
+     * converted to UTC.  Strings are trimmed, an empty string reading as null like on Oracle.
+     * Binary values are hex.
+     *
+     * @param rs Result set positioned on a row
+     * @param index Column index
+     * @param sqlType JDBC type of the column
+     * @param typeName Database type name of the column
+     * @return Normalized value, null when the column is null or an empty string
+     * @throws SQLException if the column cannot be read
+     */
+    public static String readValue(ResultSet rs, int index, int sqlType, String typeName) throws SQLException {
+        switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+                 Types.NUMERIC, Types.DECIMAL, Types.FLOAT, Types.REAL, Types.DOUBLE -> {
+                BigDecimal value = rs.getBigDecimal(index);
+                return (value == null) ? null : (value.signum() == 0) ? "0" : value.stripTrailingZeros().toPlainString();
+            }
+            case Types.BOOLEAN, Types.BIT -> {
+                boolean value = rs.getBoolean(index);
+                return rs.wasNull() ? null : value ? "1" : "0";
+            }
+            case Types.DATE -> {
+                java.sql.Date value = rs.getDate(index);
+                return (value == null) ? null : value.toLocalDate().atStartOfDay().format(TIMESTAMP_FORMAT);
+            }
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, ORACLE_TIMESTAMPTZ, ORACLE_TIMESTAMPLTZ, MSSQL_DATETIMEOFFSET -> {
+                Timestamp value = rs.getTimestamp(index);
+                if (value == null) {
+                    return null;
+                }
+                LocalDateTime timestamp = hasTimeZone(sqlType, typeName)
+                        ? LocalDateTime.ofInstant(value.toInstant(), ZoneOffset.UTC)
+                        : value.toLocalDateTime();
+                return timestamp.format(TIMESTAMP_FORMAT);
+            }
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> {
+                byte[] value = rs.getBytes(index);
+                return (value == null) ? null : HexFormat.of().formatHex(value);
+            }
+            default -> {
+                String value = rs.getString(index);
+                return (value == null || value.isBlank()) ? null : value.trim();
+            }
+        }
+    }
+
+    private static boolean hasTimeZone(int sqlType, String typeName) {
+        String name = (typeName == null) ? "" : typeName.toLowerCase();
+        return sqlType != Types.TIMESTAMP || name.contains("time zone") || name.contains("tz");
+    }
+
+    /**
+     * Determine if values of a JDBC type are stored as JSON numbers.
+     *
+     * @param sqlType JDBC type of the column
+     * @return True for numeric and boolean types
+     */
+    public static boolean isNumeric(int sqlType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+                 Types.NUMERIC, Types.DECIMAL, Types.FLOAT, Types.REAL, Types.DOUBLE,
+                 Types.BOOLEAN, Types.BIT -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Encode key values as a length-prefixed byte key.  Each value is written as a four byte
+     * big-endian length (-1 for null) followed by its UTF-8 bytes, so values containing
+     * separators cannot collide.
+     *
+     * @param values Normalized key values
+     * @return Encoded key
+     */
+    public static byte[] encode(String[] values) {
+        ByteArrayOutputStream key = new ByteArrayOutputStream(64);
+
+        for (String value : values) {
+            byte[] bytes = (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+            int length = (bytes == null) ? NULL_LENGTH : bytes.length;
+
+            key.write(length >>> 24);
+            key.write(length >>> 16);
+            key.write(length >>> 8);
+            key.write(length);
+
+            if (bytes != null) {
+                key.write(bytes, 0, bytes.length);
+            }
+        }
+
+        return key.toByteArray();
+    }
+
+    /**
+     * Render key values as a positional JSON array.
+     *
+     * @param values Normalized key values
+     * @param numeric Flags marking which values are numbers
+     * @return JSON array text
+     */
+    public static String toJsonArray(String[] values, boolean[] numeric) {
+        StringBuilder json = new StringBuilder(values.length * 16).append('[');
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            if (values[i] == null) {
+                json.append("null");
+            } else if (numeric[i]) {
+                json.append(values[i]);
+            } else {
+                json.append(JSONObject.quote(values[i]));
+            }
+        }
+
+        return json.append(']').toString();
+    }
+
+}
@@ -31,7 +31,12 @@ public class DataTypeCastingUtils {
     // Constants for better maintainability
     private static final String NOTATION_CAST = "notation";
     private static final String RAW_HASH_METHOD = "raw";
-    private static final String EMPTY_STRING = " ";
+    private static final String DATABASE_HASH_METHOD = "database";
+
+    /**
+     * Value the cast expressions return for NULL and empty strings.
+     */
+    public static final String EMPTY_STRING = " ";
     private static final String UTC_TIMEZONE = "UTC";
     private static final String TIMEZONE_INDICATOR = "time zone";
     private static final String TZ_INDICATOR = "tz";
@@ -262,7 +267,7 @@ public class DataTypeCastingUtils {
                         : String.format("case when len(%1$s)=0 then '%2$s' else rtrim(ltrim(%1$s)) end", columnName, EMPTY_STRING);
             case "oracle":
                 if (dataType.contains(LOB_DATA_TYPE)) {
-                    return String.format("nvl(trim(to_char(%1$s)),'%2$s')", columnName, EMPTY_STRING);
+                    return castOracleLob(columnName);
                 } else {
                     return column.getInt("dataLength") > 1
                             ? String.format("nvl(trim(%1$s),'%2$s')", columnName, EMPTY_STRING)
@@ -273,6 +278,56 @@ public class DataTypeCastingUtils {
         }
     }
 
+    /**
+     * Casts an Oracle CLOB or NCLOB without truncating it to a varchar2.
+     * With the database hash method the LOB is hashed in place with DBMS_CRYPTO, which reads
+     * it in AL32UTF8, so the column contributes its MD5 instead of its value.  Otherwise the
+     * trimmed LOB itself is returned and streamed into the row digest by the compare thread.
+     *
+     * @param columnName The column name to cast
+     * @return SQL expression for casting the LOB
+     */
+    public static String castOracleLob(String columnName) {
+        return DATABASE_HASH_METHOD.equals(Props.getProperty("column-hash-method"))
+                ? String.format("case when nvl(dbms_lob.getlength(trim(%1$s)),0)=0 then '%2$s' else lower(dbms_crypto.hash(trim(%1$s),2)) end", columnName, EMPTY_STRING)
+                : String.format("case when nvl(dbms_lob.getlength(trim(%1$s)),0)=0 then to_clob('%2$s') else trim(%1$s) end", columnName, EMPTY_STRING);
+    }
+
+    /**
+     * Replaces a cast string value with its MD5, leaving the empty value marker as is.  Used
+     * for the counterpart of an Oracle LOB compared with the database hash method, so both
+     * sides contribute the same digest.  DBMS_CRYPTO hashes the LOB as AL32UTF8, so the value
+     * is hashed as UTF-8 bytes whatever the database character set (the SQL Server conversion
+     * relies on a UTF-8 collation, available from SQL Server 2019).
+     *
+     * @param expression Cast string expression of the column
+     * @param platform The database platform
+     * @return SQL expression returning the lower case hex MD5 of the value
+     */
+    public static String castDigest(String expression, String platform) {
+        String digest = switch (platform) {
+            case "oracle" -> String.format("lower(standard_hash(utl_i18n.string_to_raw(%s,'AL32UTF8'),'MD5'))", expression);
+            case "mssql" -> String.format("lower(convert(varchar(32), hashbytes('MD5', cast(cast(%s as nvarchar(max)) collate Latin1_General_100_CI_AS_SC_UTF8 as varchar(max))), 2))", expression);
+            case "db2" -> String.format("lower(hex(hash(cast(%s as varchar(32672) ccsid 1208), 0)))", expression);
+            case "postgres" -> String.format("md5(convert_to(%s,'UTF8'))", expression);
+            case "mysql", "mariadb" -> String.format("lower(md5(convert(%s using utf8mb4)))", expression);
+            default -> String.format("lower(md5(%s))", expression);
+        };
+
+        return String.format("case when %1$s = '%2$s' then '%2$s' else %3$s end", expression, EMPTY_STRING, digest);
+    }
+
+    /**
+     * Indicates whether a column is an Oracle character LOB.
+     *
+     * @param dataType The database data type
+     * @param platform The database platform
+     * @return True for CLOB and NCLOB columns on Oracle
+     */
+    public static boolean isOracleLob(String dataType, String platform) {
+        return "oracle".equals(platform) && STRING_TYPES.contains(dataType) && dataType.contains(LOB_DATA_TYPE);
+    }
+
     /**
      * Casts timestamp data types to standardized format for comparison.
      * Handles various timestamp types including timezone-aware timestamps across different database platforms.
@@ -16,7 +16,14 @@
 
 
 package com.crunchydata.util;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -52,28 +59,100 @@ public class HashingUtils {
         if (input == null) {
             throw new IllegalArgumentException("Input cannot be null");
         }
-        
+
+        return getMd5(input.getBytes());
+    }
+
+    /**
+     * Generates an MD5 hash for the given bytes.
+     *
+     * @param input the bytes to be hashed
+     * @return the MD5 hash as a hexadecimal string
+     * @throws RuntimeException if the MD5 algorithm is not available
+     */
+    public static String getMd5(byte[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+
+        // digest() method is called to calculate message digest
+        // of an input digest() return array of byte
+        return toHex(newDigest().digest(input));
+    }
+
+    private static MessageDigest newDigest() {
         try {
             // Static getInstance method is called with hashing MD5
-            MessageDigest md = MessageDigest.getInstance(MD5_ALGORITHM);
+            return MessageDigest.getInstance(MD5_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 algorithm not found", e);
+        }
+    }
+
+    private static String toHex(byte[] messageDigest) {
+        // Convert byte array into signum representation
+        BigInteger no = new BigInteger(1, messageDigest);
+
+        // Convert message digest into hex value
+        StringBuilder hashText = new StringBuilder(no.toString(Integer.parseInt(HEX_RADIX)));
+
+        // Pad with leading zeros to ensure 32-character length
+        while (hashText.length() < MD5_HASH_LENGTH) {
+            hashText.insert(0, ZERO_PADDING);
+        }
+        return hashText.toString();
+    }
+
+    /**
+     * MD5 of text appended in pieces, equal to {@link #getMd5(String)} of the concatenated
+     * text.  Character streams are read in fixed size chunks, so a large LOB value is hashed
+     * without being held in memory.  Not thread safe; the digest is reset after each row.
+     */
+    public static class Md5Stream {
+        private static final int CHUNK_CHARS = 8192;
 
-            // digest() method is called to calculate message digest
-            // of an input digest() return array of byte
-            byte[] messageDigest = md.digest(input.getBytes());
+        private final MessageDigest md = newDigest();
+        private final Writer writer = new OutputStreamWriter(
+                new DigestOutputStream(OutputStream.nullOutputStream(), md), Charset.defaultCharset());
+        private final char[] chunk = new char[CHUNK_CHARS];
 
-            // Convert byte array into signum representation
-            BigInteger no = new BigInteger(1, messageDigest);
+        /**
+         * Append a value, null appended as the text "null" like a StringBuilder would.
+         *
+         * @param value Value to append
+         * @throws IOException if encoding fails
+         */
+        public void append(String value) throws IOException {
+            writer.write(String.valueOf(value));
+        }
 
-            // Convert message digest into hex value
-            StringBuilder hashText = new StringBuilder(no.toString(Integer.parseInt(HEX_RADIX)));
+        /**
+         * Append the contents of a character stream.
+         *
+         * @param reader Stream to read until its end, null for SQL NULL
+         * @throws IOException if reading fails
+         */
+        public void append(Reader reader) throws IOException {
+            if (reader == null) {
+                append((String) null);
+                return;
+            }
 
-            // Pad with leading zeros to ensure 32-character length
-            while (hashText.length() < MD5_HASH_LENGTH) {
-                hashText.insert(0, ZERO_PADDING);
+            int n;
+            while ((n = reader.read(chunk)) != -1) {
+                writer.write(chunk, 0, n);
             }
-            return hashText.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not found", e);
+        }
+
+        /**
+         * Complete the digest of the appended text and reset for the next row.
+         *
+         * @return the MD5 hash as a hexadecimal string
+         * @throws IOException if encoding fails
+         */
+        public String digest() throws IOException {
+            writer.flush();
+            return toHex(md.digest());
         }
     }
 }
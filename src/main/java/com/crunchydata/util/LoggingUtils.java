@@ -15,9 +15,19 @@
  */
 package com.crunchydata.util;
 
+import org.json.JSONObject;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.*;
 
 import static com.crunchydata.config.Settings.Props;
@@ -25,6 +35,10 @@ import static com.crunchydata.config.Settings.Props;
 /**
  * Utility class for logging operations.
  * Provides methods to initialize logging configurations and write log messages at various severity levels.
+ * The level is checked before a message is formatted, and enabled messages are handed to a
+ * bounded queue drained by a background writer, so callers never wait on the log handlers.
+ * When the queue is full new messages are dropped and the number dropped is reported once
+ * the writer catches up.
  *
  * <p>This class is not instantiable.</p>
  *
@@ -32,11 +46,31 @@ import static com.crunchydata.config.Settings.Props;
  */
 public final class LoggingUtils {
 
-    private static final Logger LOGGER = Logger.getLogger(LoggingUtils.class.getName());
     private static final String STDOUT = "stdout";
+    private static final String JSON = "json";
     private static final String LOG_FORMAT_PROPERTY = "java.util.logging.SimpleFormatter.format";
     private static final String DEFAULT_LOG_FORMAT = "[%1$tF %1$tT] [%4$-7s] %5$s %n";
     private static final String MODULE_FORMAT = "[%-24s] %s";
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    /**
+     * Message waiting for the writer, formatted only once it is written.
+     */
+    private record Entry(Level level, String module, String thread, Instant time, String format, Object[] args) {
+        String message() {
+            return (args == null || args.length == 0) ? format : String.format(format, args);
+        }
+    }
+
+    // Handlers are held here rather than on a Logger, so the LogManager shutdown reset
+    // does not close them before the queue is drained
+    private static final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private static volatile Level threshold = Level.INFO;
+
+    private static volatile BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile boolean jsonFormat = false;
+    private static Thread writer;
 
     static {
         // Set default format for log messages
@@ -53,22 +87,35 @@ public final class LoggingUtils {
      */
     public static void initialize() {
         Level level = mapLogLevel(Props.getProperty("log-level", "INFO"));
-        LOGGER.setLevel(level);
-        LOGGER.setUseParentHandlers(false);
+        threshold = level;
+
+        jsonFormat = JSON.equalsIgnoreCase(Props.getProperty("log-format", "text").trim());
+
+        int queueSize = Integer.parseInt(Props.getProperty("log-queue-size", String.valueOf(DEFAULT_QUEUE_SIZE)));
+        if (queueSize != queue.remainingCapacity() + queue.size()) {
+            BlockingQueue<Entry> resized = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+            queue.drainTo(resized, Math.max(1, queueSize));
+            queue = resized;
+        }
 
         setupConsoleHandler(level);
         setupFileHandler(level);
     }
 
+    private static Formatter createFormatter() {
+        return jsonFormat ? new JsonLineFormatter() : new SimpleFormatter();
+    }
+
     private static void setupConsoleHandler(Level level) {
-        if (LOGGER.getHandlers().length == 0) {
+        if (handlers.isEmpty()) {
             ConsoleHandler consoleHandler = new ConsoleHandler();
             consoleHandler.setLevel(level);
-            consoleHandler.setFormatter(new SimpleFormatter());
-            LOGGER.addHandler(consoleHandler);
+            consoleHandler.setFormatter(createFormatter());
+            handlers.add(consoleHandler);
         } else {
-            for (Handler handler : LOGGER.getHandlers()) {
+            for (Handler handler : handlers) {
                 handler.setLevel(level);
+                handler.setFormatter(createFormatter());
             }
         }
     }
@@ -83,8 +130,8 @@ public final class LoggingUtils {
 
                 FileHandler fileHandler = new FileHandler(destination, true);
                 fileHandler.setLevel(level);
-                fileHandler.setFormatter(new SimpleFormatter());
-                LOGGER.addHandler(fileHandler);
+                fileHandler.setFormatter(createFormatter());
+                handlers.add(fileHandler);
             } catch (IOException e) {
                 System.err.printf("Warning: Cannot write to log file '%s'. Falling back to stdout.%n", destination);
             }
@@ -92,18 +139,36 @@ public final class LoggingUtils {
     }
 
     private static Level mapLogLevel(String setting) {
-        return switch (setting.trim().toUpperCase()) {
-            case "DEBUG" -> Level.FINE;
-            case "TRACE" -> Level.FINEST;
-            case "WARN", "WARNING" -> Level.WARNING;
-            case "ERROR", "SEVERE" -> Level.SEVERE;
-            case "ALL" -> Level.ALL;
-            case "OFF" -> Level.OFF;
-            case "INFO" -> Level.INFO;
-            default -> Level.INFO; // fallback
+        // Severity names used by callers are already lower case
+        return switch (setting) {
+            case "info" -> Level.INFO;
+            case "warning" -> Level.WARNING;
+            case "severe" -> Level.SEVERE;
+            case "debug" -> Level.FINE;
+            default -> switch (setting.trim().toUpperCase()) {
+                case "DEBUG" -> Level.FINE;
+                case "TRACE" -> Level.FINEST;
+                case "WARN", "WARNING" -> Level.WARNING;
+                case "ERROR", "SEVERE" -> Level.SEVERE;
+                case "ALL" -> Level.ALL;
+                case "OFF" -> Level.OFF;
+                case "INFO" -> Level.INFO;
+                default -> Level.INFO; // fallback
+            };
         };
     }
 
+    /**
+     * Determine if messages of a severity are written.  Used to skip building expensive
+     * log arguments.
+     *
+     * @param severity the severity level (e.g., info, warning, debug)
+     * @return True when the severity is enabled
+     */
+    public static boolean isEnabled(String severity) {
+        return isLoggable(mapLogLevel(severity));
+    }
+
     /**
      * Logs a message with the specified severity.
      *
@@ -112,8 +177,140 @@ public final class LoggingUtils {
      * @param message  the message to log
      */
     public static void write(String severity, String module, String message) {
+        enqueue(severity, module, message, null);
+    }
+
+    /**
+     * Logs a message with the specified severity, formatting it with {@link String#format}
+     * only if the severity is enabled.  Formatting happens on the writer thread, so the
+     * arguments must not be changed after the call.
+     *
+     * @param severity the severity level (e.g., INFO, WARNING, ERROR)
+     * @param module   the source module name
+     * @param format   the message format
+     * @param args     the format arguments
+     */
+    public static void write(String severity, String module, String format, Object... args) {
+        enqueue(severity, module, format, args);
+    }
+
+    private static void enqueue(String severity, String module, String format, Object[] args) {
         Level level = mapLogLevel(severity);
-        String formattedMessage = String.format(MODULE_FORMAT, module, message);
-        LOGGER.log(level, formattedMessage);
+        if (!isLoggable(level)) {
+            return;
+        }
+
+        if (writer == null) {
+            startWriter();
+        }
+
+        Entry entry = new Entry(level, module, Thread.currentThread().getName(), Instant.now(), format, args);
+        if (!writer.isAlive()) {
+            // Writer stopped during shutdown
+            publish(entry);
+        } else if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static boolean isLoggable(Level level) {
+        return level.intValue() >= threshold.intValue() && threshold != Level.OFF;
+    }
+
+    /**
+     * Start the background writer and a shutdown hook writing what is left in the queue.
+     */
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+
+        writer = new Thread(() -> {
+            while (true) {
+                try {
+                    publish(queue.poll(1, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(LoggingUtils::drain, "log-drain"));
+    }
+
+    /**
+     * Stop the writer and write the messages still queued, in order.
+     */
+    private static void drain() {
+        writer.interrupt();
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            publish(entry);
+        }
+        publish(null);
+        for (Handler handler : handlers) {
+            handler.flush();
+        }
+    }
+
+    private static synchronized void publish(Entry entry) {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            publish(Level.WARNING, "logging", Thread.currentThread().getName(), Instant.now(),
+                    String.format("Log queue full, %d messages dropped", lost));
+        }
+
+        if (entry == null) {
+            return;
+        }
+
+        String message;
+        try {
+            message = entry.message();
+        } catch (IllegalFormatException e) {
+            message = entry.format();
+        }
+
+        publish(entry.level(), entry.module(), entry.thread(), entry.time(), message);
+    }
+
+    private static void publish(Level level, String module, String thread, Instant time, String message) {
+        LogRecord record = new LogRecord(level, jsonFormat ? message : String.format(MODULE_FORMAT, module, message));
+        record.setInstant(time);
+        record.setLoggerName(module);
+        // Name of the thread that logged the message, the writer thread publishes it
+        record.setSourceClassName(thread);
+
+        if (handlers.isEmpty()) {
+            // Messages logged before initialize
+            setupConsoleHandler(threshold);
+        }
+        for (Handler handler : handlers) {
+            handler.publish(record);
+        }
+    }
+
+    /**
+     * Formats records as one JSON object per line.
+     */
+    private static class JsonLineFormatter extends java.util.logging.Formatter {
+        @Override
+        public String format(LogRecord record) {
+            return new JSONObject()
+                    .put("time", record.getInstant().toString())
+                    .put("level", record.getLevel().getName())
+                    .put("module", record.getLoggerName())
+                    .put("thread", record.getSourceClassName())
+                    .put("message", record.getMessage())
+                    + System.lineSeparator();
+        }
     }
 }
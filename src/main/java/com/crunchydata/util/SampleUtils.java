@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crunchydata.util;
+
+import static com.crunchydata.config.Settings.Props;
+
+/**
+ * Utility class for the sample compare mode.
+ * The primary key space is divided into a fixed number of buckets and only rows falling in
+ * the first sample-rate buckets are compared.  Bucket assignment is deterministic, so source
+ * and target select the same keys and repeated runs check the same subset.
+ *
+ * <p>This class is not instantiable.</p>
+ *
+ * @author Brian Pace
+ */
+public class SampleUtils {
+
+    // Private constructor to prevent instantiation
+    private SampleUtils() {
+        throw new UnsupportedOperationException("SampleUtils is a utility class and cannot be instantiated.");
+    }
+
+    public static final int SAMPLE_BUCKETS = 1000;
+
+    // Two-sided 95% confidence
+    private static final double Z_95 = 1.959964;
+
+    /**
+     * Determine if compare-mode is set to sample.
+     *
+     * @return True when only a sample of each table is compared
+     */
+    public static boolean isEnabled() {
+        return "sample".equalsIgnoreCase(Props.getProperty("compare-mode", "full"));
+    }
+
+    /**
+     * Number of buckets (out of SAMPLE_BUCKETS) included in the sample.
+     *
+     * @return Sample buckets, between 1 and SAMPLE_BUCKETS
+     */
+    public static int getSampleBuckets() {
+        int buckets = Integer.parseInt(Props.getProperty("sample-rate", "10"));
+        return Math.max(1, Math.min(SAMPLE_BUCKETS, buckets));
+    }
+
+    /**
+     * Fraction of the primary key space included in the sample.
+     *
+     * @return Sample fraction
+     */
+    public static double getSampleFraction() {
+        return (double) getSampleBuckets() / SAMPLE_BUCKETS;
+    }
+
+    /**
+     * Predicate restricting a load query to the sampled buckets of its mod column.
+     *
+     * @param modColumn Numeric primary key column used for parallel partitioning
+     * @param platform Database platform of the query
+     * @return Predicate starting with AND, empty when the table has no mod column
+     */
+    public static String getSamplePredicate(String modColumn, String platform) {
+        if (modColumn == null || modColumn.isEmpty()) {
+            return "";
+        }
+
+        return "mssql".equals(platform)
+                ? String.format(" AND %s %% %d < %d", modColumn, SAMPLE_BUCKETS, getSampleBuckets())
+                : String.format(" AND mod(%s,%d) < %d", modColumn, SAMPLE_BUCKETS, getSampleBuckets());
+    }
+
+    /**
+     * Determine if a row belongs to the sample by its primary key hash.  Used for tables
+     * without a mod column, where the predicate cannot be pushed to the database.
+     *
+     * @param pkHash Primary key hash, identical on source and target for the same key
+     * @param sampleBuckets Number of buckets included in the sample
+     * @return True when the row is in the sample
+     */
+    public static boolean inSample(String pkHash, int sampleBuckets) {
+        // Finalizer of MurmurHash3 to spread String.hashCode over the buckets
+        int h = pkHash.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+
+        return Math.floorMod(h, SAMPLE_BUCKETS) < sampleBuckets;
+    }
+
+    /**
+     * Estimate the drift rate of a table from a sample, with a 95% Wilson score interval.
+     *
+     * @param outOfSync Out-of-sync keys found in the sample
+     * @param sampled Distinct keys compared in the sample
+     * @return Drift rate, lower bound and upper bound
+     */
+    public static double[] estimateDrift(long outOfSync, long sampled) {
+        if (sampled <= 0) {
+            return new double[]{0, 0, 0};
+        }
+
+        double p = (double) outOfSync / sampled;
+        double z2 = Z_95 * Z_95;
+        double denominator = 1 + z2 / sampled;
+        double center = (p + z2 / (2.0 * sampled)) / denominator;
+        double margin = (Z_95 * Math.sqrt(p * (1 - p) / sampled + z2 / (4.0 * sampled * sampled))) / denominator;
+
+        return new double[]{p, Math.max(0, center - margin), Math.min(1, center + margin)};
+    }
+
+}
@@ -32,4 +32,9 @@ echo "  Check:"
 export PGCOMPARE_LOG_DESTINATION=${OUTPUT_BASE}/${TEST_PLATFORM}-full-c-check.log
 java -jar pgcompare.jar check --fix --report ${OUTPUT_BASE}/${TEST_PLATFORM}-full-c-check.html 2>&1 | grep -v "INFO" | awk '{ print "      " $0 }'
 
+echo "  Sample LOB (expect test_lob in sync):"
+export PGCOMPARE_LOG_DESTINATION=${OUTPUT_BASE}/${TEST_PLATFORM}-full-d-sample-lob.log
+PGCOMPARE_COMPARE_MODE=sample PGCOMPARE_SAMPLE_RATE=100 PGCOMPARE_COLUMN_HASH_METHOD=hybrid \
+  java -jar pgcompare.jar compare --table test_lob --report ${OUTPUT_BASE}/${TEST_PLATFORM}-full-d-sample-lob.html 2>&1 | grep -v "INFO" | awk '{ print "      " $0 }'
+
 cd -
\ No newline at end of file
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.crunchydata.config.Settings;
+import com.crunchydata.core.database.ResultCountWriter;
+import com.crunchydata.core.progress.ProgressTracker;
+import org.json.JSONObject;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row count benchmark for billion row tables.  Synthetic rows are counted the way the
+ * compare threads count them: every row bumps the fetched, hashed and staged progress
+ * counters, and the rows of each committed batch are added to the dc_result deltas of
+ * {@link ResultCountWriter}, with matches added once per batch as the observer does.  The
+ * deltas are then flushed through a capturing repository connection, so the values bound
+ * to equal_cnt, source_cnt and target_cnt are checked without a repository database.
+ *
+ * <p>Run with test/bench_rowcount.sh after mvn compile.  Arguments: rows per side (default
+ * 3,200,000,000), compare threads per side (default 1) and batch commit size (default 2000).</p>
+ *
+ * @author Brian Pace
+ */
+public class RowCountBench {
+
+    private static final String TABLE_ALIAS = "bench";
+    private static final Integer CID = 1;
+
+    public static void main(String[] args) throws Exception {
+        long rows = (args.length > 0) ? Long.parseLong(args[0]) : 3_200_000_000L;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        int batchCommitSize = (args.length > 2) ? Integer.parseInt(args[2]) : 2000;
+
+        // Keep the background count writer away from any configured repository, counts are flushed to the capturing connection
+        Settings.Props.setProperty("repo-host", "localhost");
+        Settings.Props.setProperty("repo-port", "1");
+
+        ProgressTracker.startTable(TABLE_ALIAS, CID, rows);
+
+        long start = System.nanoTime();
+        List<Thread> workers = new ArrayList<>();
+        for (String targetType : new String[]{"source", "target"}) {
+            for (int t = 0; t < threads; t++) {
+                long share = rows / threads + ((t < rows % threads) ? 1 : 0);
+                ProgressTracker.ThreadProgress progress = ProgressTracker.thread(TABLE_ALIAS, targetType, t);
+                Thread worker = new Thread(() -> countRows(targetType, share, batchCommitSize, progress));
+                workers.add(worker);
+                worker.start();
+            }
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] binds = new long[3];
+        ResultCountWriter.flush(capturingConnection(binds), CID);
+        ProgressTracker.finishTable(TABLE_ALIAS);
+
+        JSONObject table = ProgressTracker.toJSON().getJSONArray("tables").getJSONObject(0);
+        long sourceFetched = table.getJSONObject("source").getLong("fetched");
+        long targetStaged = table.getJSONObject("target").getLong("staged");
+        long matched = table.getLong("matched");
+
+        System.out.printf("rows per side        %,d (%d threads, batch %d)%n", rows, threads, batchCommitSize);
+        System.out.printf("elapsed              %.1f s, %,.0f rows/s counted%n", seconds, 2 * rows / seconds);
+        System.out.printf("progress             source fetched %,d, target staged %,d, matched %,d%n", sourceFetched, targetStaged, matched);
+        System.out.printf("dc_result binds      equal_cnt %,d, source_cnt %,d, target_cnt %,d%n", binds[0], binds[1], binds[2]);
+
+        boolean ok = sourceFetched == rows && targetStaged == rows && matched == rows
+                && binds[0] == rows && binds[1] == rows && binds[2] == rows;
+        System.out.println(ok ? "PASS" : "FAIL");
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Count the rows of one compare thread, committing a batch every batchCommitSize rows.
+     */
+    private static void countRows(String targetType, long rows, int batchCommitSize, ProgressTracker.ThreadProgress progress) {
+        long totalRows = 0;
+        long cntRecord = 0;
+
+        for (long r = 0; r < rows; r++) {
+            progress.fetched.increment();
+            progress.hashed.increment();
+            progress.staged.increment();
+            cntRecord++;
+            totalRows++;
+
+            if (totalRows % batchCommitSize == 0) {
+                commit(targetType, cntRecord);
+                cntRecord = 0;
+            }
+        }
+
+        commit(targetType, cntRecord);
+    }
+
+    private static void commit(String targetType, long cntRecord) {
+        ResultCountWriter.addRows(CID, targetType, cntRecord);
+        if ("source".equals(targetType)) {
+            ResultCountWriter.addEqual(CID, cntRecord);
+            ProgressTracker.addMatched(TABLE_ALIAS, cntRecord);
+        }
+    }
+
+    /**
+     * Repository connection that records the long binds of the count update.
+     */
+    private static Connection capturingConnection(long[] binds) {
+        PreparedStatement stmt = (PreparedStatement) Proxy.newProxyInstance(RowCountBench.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if ("setLong".equals(method.getName())) {
+                        binds[(int) args[0] - 1] += (long) args[1];
+                    }
+                    return method.getName().equals("executeBatch") ? new int[]{1} : null;
+                });
+
+        return (Connection) Proxy.newProxyInstance(RowCountBench.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> stmt;
+                    case "getAutoCommit" -> true;
+                    default -> null;
+                });
+    }
+
+}
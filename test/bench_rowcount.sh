@@ -0,0 +1,9 @@
+# Row count benchmark: counts synthetic rows through the compare progress and dc_result
+# count paths and checks every total past 2^31.  Run after mvn compile.
+#   ./test/bench_rowcount.sh [rows per side] [threads per side] [batch commit size]
+
+cd "$(dirname "$0")/.." || exit 1
+
+CLASSPATH=target/classes:$(find ~/.m2/repository/org/json ~/.m2/repository/org/postgresql -name "*.jar" | tr '\n' ':')
+
+java -cp "${CLASSPATH}" test/bench/RowCountBench.java "$@" 2>&1 | grep -v "INFO\|WARNING\|SEVERE"
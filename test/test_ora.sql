@@ -180,4 +180,20 @@ CREATE TABLE pgctest.plat (
                               plat varchar2(10),
                               CONSTRAINT plat_pk PRIMARY KEY (id));
 
-INSERT INTO pgctest.plat (id, plat) VALUES (1, 'oracle');
\ No newline at end of file
+INSERT INTO pgctest.plat (id, plat) VALUES (1, 'oracle');
+
+BEGIN
+EXECUTE IMMEDIATE 'DROP TABLE PGCTEST.test_lob';
+EXCEPTION
+	WHEN OTHERS THEN
+	IF SQLCODE != -942 THEN
+		RAISE;
+END IF;
+END;
+
+CREATE TABLE pgctest.test_lob (
+                              lid varchar2(10) NOT NULL,
+                              doc clob,
+                              CONSTRAINT test_lob_pk PRIMARY KEY (lid));
+
+INSERT INTO pgctest.test_lob (lid, doc) SELECT 'L' || level, to_clob('Document ' || level || ' ') || rpad('x', 4000, 'x') FROM dual CONNECT BY level <= 5000;
@@ -172,4 +172,14 @@ CREATE TABLE pgctest.db2_test_hidden  (
 );
 
 
-INSERT INTO pgctest.db2_test_hidden (id, hidden_field) VALUES (1, 'brian');
\ No newline at end of file
+INSERT INTO pgctest.db2_test_hidden (id, hidden_field) VALUES (1, 'brian');
+
+-- Test LOB columns with compare-mode sample, keyed by a character PK so rows are filtered on the key hash
+DROP TABLE IF EXISTS pgctest.test_lob;
+CREATE TABLE pgctest.test_lob (
+                                  lid varchar(10) NOT NULL,
+                                  doc text,
+                                  CONSTRAINT test_lob_pk PRIMARY KEY (lid)
+);
+
+INSERT INTO pgctest.test_lob (lid, doc) SELECT 'L' || g, 'Document ' || g || ' ' || repeat('x', 4000) FROM generate_series(1, 5000) g;
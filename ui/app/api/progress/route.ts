@@ -0,0 +1,24 @@
+import { NextResponse } from 'next/server';
+
+// Live progress is served by the running pgCompare process (progress-port), not the repository
+const PROGRESS_URL = process.env.PGCOMPARE_PROGRESS_URL || 'http://127.0.0.1:9090/progress';
+
+export const dynamic = 'force-dynamic';
+
+export async function GET() {
+  try {
+    const response = await fetch(PROGRESS_URL, {
+      cache: 'no-store',
+      signal: AbortSignal.timeout(2000),
+    });
+
+    if (!response.ok) {
+      return NextResponse.json({ tables: [] });
+    }
+
+    return NextResponse.json(await response.json());
+  } catch {
+    // No compare running, or the progress endpoint is disabled
+    return NextResponse.json({ tables: [] });
+  }
+}
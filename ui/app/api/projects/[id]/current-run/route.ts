@@ -54,7 +54,18 @@ export async function GET(
     
     console.log('Run details found:', runDetails.length, 'rows');
     
-    return NextResponse.json(runDetails);
+    // Counts are int8 and come back as BigInt, convert for JSON serialization
+    const converted = runDetails.map(row => ({
+      ...row,
+      source_cnt: row.source_cnt !== null ? Number(row.source_cnt) : null,
+      target_cnt: row.target_cnt !== null ? Number(row.target_cnt) : null,
+      equal_cnt: row.equal_cnt !== null ? Number(row.equal_cnt) : null,
+      missing_source_cnt: row.missing_source_cnt !== null ? Number(row.missing_source_cnt) : null,
+      missing_target_cnt: row.missing_target_cnt !== null ? Number(row.missing_target_cnt) : null,
+      not_equal_cnt: row.not_equal_cnt !== null ? Number(row.not_equal_cnt) : null,
+    }));
+    
+    return NextResponse.json(converted);
   } catch (error: any) {
     console.error('Error fetching current run:', error);
     return NextResponse.json({ error: error.message }, { status: 500 });
@@ -27,6 +27,12 @@ export async function GET(
       ...result,
       tid: result.tid ? Number(result.tid) : null,
       rid: result.rid ? result.rid.toString() : null,
+      equal_cnt: result.equal_cnt !== null ? Number(result.equal_cnt) : null,
+      missing_source_cnt: result.missing_source_cnt !== null ? Number(result.missing_source_cnt) : null,
+      missing_target_cnt: result.missing_target_cnt !== null ? Number(result.missing_target_cnt) : null,
+      not_equal_cnt: result.not_equal_cnt !== null ? Number(result.not_equal_cnt) : null,
+      source_cnt: result.source_cnt !== null ? Number(result.source_cnt) : null,
+      target_cnt: result.target_cnt !== null ? Number(result.target_cnt) : null,
     }));
     
     return NextResponse.json(converted);
@@ -0,0 +1,122 @@
+'use client';
+
+import { useEffect, useState } from 'react';
+import { Gauge } from 'lucide-react';
+
+interface SideProgress {
+  fetched?: number;
+  hashed?: number;
+  staged?: number;
+}
+
+interface TableProgress {
+  tableName: string;
+  cid: number;
+  status: string;
+  elapsedSeconds: number;
+  expectedRows: number;
+  source: SideProgress;
+  target: SideProgress;
+  matched: number;
+  rowsPerSecond: number;
+  etaSeconds: number;
+}
+
+const POLL_INTERVAL_MS = 2000;
+
+const formatSeconds = (seconds: number): string => {
+  if (seconds < 0) return 'N/A';
+  const h = Math.floor(seconds / 3600);
+  const m = Math.floor((seconds % 3600) / 60);
+  const s = seconds % 60;
+  if (h > 0) return `${h}h ${m}m`;
+  if (m > 0) return `${m}m ${s}s`;
+  return `${s}s`;
+};
+
+export default function LiveProgressPanel() {
+  const [tables, setTables] = useState<TableProgress[]>([]);
+
+  useEffect(() => {
+    const loadProgress = async () => {
+      try {
+        const response = await fetch('/api/progress');
+        const data = await response.json();
+        setTables(Array.isArray(data.tables) ? data.tables : []);
+      } catch (error) {
+        console.error('Failed to load live progress:', error);
+        setTables([]);
+      }
+    };
+
+    loadProgress();
+    const interval = setInterval(loadProgress, POLL_INTERVAL_MS);
+    return () => clearInterval(interval);
+  }, []);
+
+  // Only shown while a pgCompare process with progress-port enabled is running
+  if (tables.length === 0) {
+    return null;
+  }
+
+  return (
+    <div className="bg-white dark:bg-gray-800 rounded-lg shadow p-6">
+      <h3 className="text-lg font-semibold text-gray-900 dark:text-white mb-4 flex items-center gap-2">
+        <Gauge className="h-5 w-5" />
+        Live Progress
+      </h3>
+
+      <div className="overflow-x-auto">
+        <table className="w-full text-sm">
+          <thead className="bg-gray-50 dark:bg-gray-700">
+            <tr>
+              <th className="px-3 py-2 text-left text-xs font-medium text-gray-700 dark:text-gray-300">Table</th>
+              <th className="px-3 py-2 text-left text-xs font-medium text-gray-700 dark:text-gray-300">Status</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Source Fetched</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Target Fetched</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Staged</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Matched</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Rows/sec</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">Elapsed</th>
+              <th className="px-3 py-2 text-right text-xs font-medium text-gray-700 dark:text-gray-300">ETA</th>
+            </tr>
+          </thead>
+          <tbody className="divide-y divide-gray-200 dark:divide-gray-700">
+            {tables.map((row) => {
+              const sourceFetched = row.source.fetched || 0;
+              const targetFetched = row.target.fetched || 0;
+              const staged = (row.source.staged || 0) + (row.target.staged || 0);
+              const percent = row.expectedRows > 0
+                ? Math.min(100, Math.round(((sourceFetched + targetFetched) / (row.expectedRows * 2)) * 100))
+                : null;
+
+              return (
+                <tr key={row.tableName} className="hover:bg-gray-50 dark:hover:bg-gray-700">
+                  <td className="px-3 py-2 font-medium">{row.tableName}</td>
+                  <td className="px-3 py-2">
+                    {row.status === 'running' ? (
+                      <span className="px-2 py-1 rounded text-xs bg-blue-100 text-blue-800 dark:bg-blue-900 dark:text-blue-200">
+                        Running{percent !== null ? ` ${percent}%` : ''}
+                      </span>
+                    ) : (
+                      <span className="px-2 py-1 rounded text-xs bg-green-100 text-green-800 dark:bg-green-900 dark:text-green-200">
+                        Complete
+                      </span>
+                    )}
+                  </td>
+                  <td className="px-3 py-2 text-right">{sourceFetched.toLocaleString()}</td>
+                  <td className="px-3 py-2 text-right">{targetFetched.toLocaleString()}</td>
+                  <td className="px-3 py-2 text-right">{staged.toLocaleString()}</td>
+                  <td className="px-3 py-2 text-right text-green-600 dark:text-green-400">{row.matched.toLocaleString()}</td>
+                  <td className="px-3 py-2 text-right">{row.rowsPerSecond.toLocaleString()}</td>
+                  <td className="px-3 py-2 text-right text-gray-600 dark:text-gray-400">{formatSeconds(row.elapsedSeconds)}</td>
+                  <td className="px-3 py-2 text-right text-gray-600 dark:text-gray-400">{formatSeconds(row.etaSeconds)}</td>
+                </tr>
+              );
+            })}
+          </tbody>
+        </table>
+      </div>
+    </div>
+  );
+}
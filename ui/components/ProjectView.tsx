@@ -7,6 +7,7 @@ import { LineChart, Line, BarChart, Bar, PieChart, Pie, Cell, XAxis, YAxis, Cart
 import { formatDistanceToNow } from 'date-fns';
 import CompareDetailsModal from './CompareDetailsModal';
 import ProjectCurrentRunPanel from './ProjectCurrentRunPanel';
+import LiveProgressPanel from './LiveProgressPanel';
 
 interface ProjectViewProps {
   projectId: number;
@@ -334,6 +335,9 @@ export default function ProjectView({ projectId }: ProjectViewProps) {
       {/* Current/Last Run Panel */}
       <ProjectCurrentRunPanel projectId={projectId} />
 
+      {/* Live Progress from the running compare */}
+      <LiveProgressPanel />
+
       {/* Last Run Summary */}
       {lastResult && (
         <div className="bg-white dark:bg-gray-800 rounded-lg shadow p-6">